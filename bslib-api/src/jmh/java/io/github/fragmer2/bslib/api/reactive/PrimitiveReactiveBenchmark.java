@@ -0,0 +1,50 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick counter update on a boxed Reactive&lt;Integer&gt; against ReactiveInt,
+ * with no listener and with one. Run with the GC profiler to see the
+ * allocation rate (ReactiveInt: zero bytes per update in both cases):
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="PrimitiveReactiveBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveReactiveBenchmark {
+
+    @Param({"0", "1"})
+    public int listeners;
+
+    private Reactive<Integer> boxed;
+    private ReactiveInt primitive;
+    private long sink;
+
+    @Setup
+    public void setup() {
+        boxed = Reactive.of(0);
+        primitive = ReactiveInt.of(0);
+        for (int i = 0; i < listeners; i++) {
+            boxed.subscribeChange((old, now) -> sink += now);
+            primitive.subscribeChange((old, now) -> sink += now);
+        }
+    }
+
+    @Benchmark
+    public int boxedIncrement() {
+        boxed.increment();
+        return boxed.get();
+    }
+
+    @Benchmark
+    public int primitiveIncrement() {
+        primitive.increment();
+        return primitive.get();
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A global Reactive (an event timer) bound to many scoreboards, hammered from
+ * several threads at once: writers set it, others subscribe / unsubscribe
+ * (players joining and leaving) and read it. Compares the lock-free Reactive
+ * against the previous design (monitor per set, CopyOnWriteArrayList
+ * registries copied into fresh lists on every change), kept here as the baseline.
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="ReactiveContentionBenchmark -prof gc"
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReactiveContentionBenchmark {
+
+    @Param({"200"})
+    public int listeners;
+
+    private Reactive<Integer> timer;
+    private Locked<Integer> baseline;
+    private volatile int sink;
+
+    /** Per-thread tick counter for the writers. */
+    @State(Scope.Thread)
+    public static class Ticks {
+        int next;
+    }
+
+    @Setup
+    public void setup() {
+        timer = Reactive.of(0);
+        baseline = new Locked<>(0);
+        for (int i = 0; i < listeners; i++) {
+            timer.subscribeSet(v -> sink = v);
+            baseline.subscribeSet(v -> sink = v);
+        }
+    }
+
+    // ========== Lock-free ==========
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(2)
+    public void lockFreeSet(Ticks ticks) {
+        timer.set(++ticks.next);
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(2)
+    public void lockFreeSubscribe() {
+        timer.subscribeSet(v -> sink = v).unsubscribe();
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(4)
+    public int lockFreeGet() {
+        return timer.get();
+    }
+
+    // ========== Baseline ==========
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(2)
+    public void lockedSet(Ticks ticks) {
+        baseline.set(++ticks.next);
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(2)
+    public void lockedSubscribe() {
+        Consumer<Integer> listener = v -> sink = v;
+        baseline.subscribeSet(listener);
+        baseline.unsubscribeSet(listener);
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(4)
+    public int lockedGet() {
+        return baseline.get();
+    }
+
+    /** The previous Reactive core: value, registries and per-change snapshots. */
+    static final class Locked<T> {
+        private volatile T value;
+        private volatile long version;
+        private final List<BiConsumer<T, T>> changeListeners = new CopyOnWriteArrayList<>();
+        private final List<Consumer<T>> setListeners = new CopyOnWriteArrayList<>();
+        private final List<Reactive<?>> dependents = new CopyOnWriteArrayList<>();
+
+        Locked(T initial) {
+            this.value = initial;
+        }
+
+        T get() {
+            return value;
+        }
+
+        void subscribeSet(Consumer<T> listener) {
+            setListeners.add(listener);
+        }
+
+        void unsubscribeSet(Consumer<T> listener) {
+            setListeners.remove(listener);
+        }
+
+        void set(T newValue) {
+            Dispatch<T> dispatch;
+            synchronized (this) {
+                T old = value;
+                value = newValue;
+                version++;
+                if (Objects.equals(old, newValue)) return;
+                dispatch = new Dispatch<>(old, newValue, List.copyOf(changeListeners),
+                        List.copyOf(setListeners), List.copyOf(dependents));
+            }
+            for (BiConsumer<T, T> listener : dispatch.changeSnapshot()) listener.accept(dispatch.oldValue(), newValue);
+            for (Consumer<T> listener : dispatch.setSnapshot()) listener.accept(newValue);
+        }
+
+        private record Dispatch<T>(T oldValue, T newValue, List<BiConsumer<T, T>> changeSnapshot,
+                                   List<Consumer<T>> setSnapshot, List<Reactive<?>> dependentSnapshot) {}
+    }
+}
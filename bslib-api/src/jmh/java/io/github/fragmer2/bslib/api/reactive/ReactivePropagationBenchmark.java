@@ -0,0 +1,162 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Cost of one source change on derived graphs of different shapes, for the
+ * height-ordered propagation against the depth-first recursion Reactive used
+ * before (kept here as the baseline). The {@code recomputes} counter is the
+ * number of map/combine evaluations per change.
+ *
+ *   chain   — 64 maps in a row (both do 64)
+ *   fan     — 64 maps of the source folded by a binary tree of combines
+ *   lattice — 12 layers of 2 nodes, each combining both nodes of the layer
+ *             above (depth-first is exponential in depth, height order linear)
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="ReactivePropagationBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReactivePropagationBenchmark {
+
+    @Param({"chain", "fan", "lattice"})
+    public String shape;
+
+    /** Recomputations per change, reported next to the timing. */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long recomputes;
+    }
+
+    private final long[] evaluations = new long[1];
+    private Reactive<Integer> source;
+    private Reactive<Integer> sink;
+    private DepthFirst.Node baselineSource;
+    private DepthFirst.Node baselineSink;
+    private int next;
+
+    @Setup
+    public void setup() {
+        source = Reactive.of(0);
+        sink = build(shape, source, Reactive::map, Reactive::combine);
+        baselineSource = new DepthFirst.Node(0);
+        baselineSink = build(shape, baselineSource, DepthFirst.Node::map, DepthFirst.Node::combine);
+    }
+
+    @Benchmark
+    public int heightOrdered(Counters counters) {
+        long before = evaluations[0];
+        source.set(++next);
+        counters.recomputes += evaluations[0] - before;
+        return sink.get();
+    }
+
+    @Benchmark
+    public int depthFirst(Counters counters) {
+        long before = evaluations[0];
+        baselineSource.set(++next);
+        counters.recomputes += evaluations[0] - before;
+        return baselineSink.value;
+    }
+
+    // ========== Graph shapes ==========
+
+    interface Mapper<N> {
+        N map(N node, Function<Integer, Integer> f);
+    }
+
+    interface Combiner<N> {
+        N combine(N a, N b, BiFunction<Integer, Integer, Integer> f);
+    }
+
+    private <N> N build(String shape, N root, Mapper<N> mapper, Combiner<N> combiner) {
+        Function<Integer, Integer> map = v -> {
+            evaluations[0]++;
+            return v + 1;
+        };
+        BiFunction<Integer, Integer, Integer> combine = (a, b) -> {
+            evaluations[0]++;
+            return a + b;
+        };
+
+        switch (shape) {
+            case "chain" -> {
+                N node = root;
+                for (int i = 0; i < 64; i++) node = mapper.map(node, map);
+                return node;
+            }
+            case "fan" -> {
+                List<N> layer = new ArrayList<>();
+                for (int i = 0; i < 64; i++) layer.add(mapper.map(root, map));
+                while (layer.size() > 1) {
+                    List<N> folded = new ArrayList<>();
+                    for (int i = 0; i < layer.size(); i += 2) folded.add(combiner.combine(layer.get(i), layer.get(i + 1), combine));
+                    layer = folded;
+                }
+                return layer.get(0);
+            }
+            case "lattice" -> {
+                N left = mapper.map(root, map);
+                N right = mapper.map(root, map);
+                for (int i = 0; i < 12; i++) {
+                    N l = combiner.combine(left, right, combine);
+                    N r = combiner.combine(left, right, combine);
+                    left = l;
+                    right = r;
+                }
+                return combiner.combine(left, right, combine);
+            }
+            default -> throw new IllegalArgumentException(shape);
+        }
+    }
+
+    /**
+     * The previous propagation: each changed node recomputes its dependents
+     * recursively, depth-first, before returning.
+     */
+    static final class DepthFirst {
+        private DepthFirst() {}
+
+        static class Node {
+            int value;
+            final List<Node> dependents = new ArrayList<>();
+            Runnable recompute = () -> {};
+
+            Node(int value) {
+                this.value = value;
+            }
+
+            void set(int newValue) {
+                if (value == newValue) return;
+                value = newValue;
+                for (Node dependent : dependents) dependent.recompute.run();
+            }
+
+            Node map(Function<Integer, Integer> f) {
+                Node out = new Node(f.apply(value));
+                out.recompute = () -> out.set(f.apply(value));
+                dependents.add(out);
+                return out;
+            }
+
+            static Node combine(Node a, Node b, BiFunction<Integer, Integer, Integer> f) {
+                Node out = new Node(f.apply(a.value, b.value));
+                out.recompute = () -> out.set(f.apply(a.value, b.value));
+                a.dependents.add(out);
+                b.dependents.add(out);
+                return out;
+            }
+        }
+    }
+}
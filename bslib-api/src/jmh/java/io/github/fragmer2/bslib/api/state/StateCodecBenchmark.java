@@ -0,0 +1,49 @@
+package io.github.fragmer2.bslib.api.state;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of a typical player profile per storage codec.
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="StateCodecBenchmark"
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateCodecBenchmark {
+
+    @Param({"YAML", "JSON", "BINARY"})
+    public String codec;
+
+    private StateCodec stateCodec;
+    private Map<String, Object> snapshot;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        stateCodec = switch (codec) {
+            case "YAML" -> StateCodec.YAML;
+            case "JSON" -> StateCodec.JSON;
+            default -> BinaryStateCodec.INSTANCE;
+        };
+        snapshot = StateSerializer.snapshot(new StateSerializerBenchmark.Profile());
+        encoded = stateCodec.encode(snapshot);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return stateCodec.encode(snapshot);
+    }
+
+    @Benchmark
+    public Map<String, Object> decode() throws IOException {
+        return stateCodec.decode(encoded);
+    }
+}
@@ -0,0 +1,171 @@
+package io.github.fragmer2.bslib.api.state;
+
+import io.github.fragmer2.bslib.api.reactive.Reactive;
+import io.github.fragmer2.bslib.api.reactive.ReactiveList;
+import io.github.fragmer2.bslib.api.reactive.ReactiveMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the precompiled {@link StateSchema} path against the per-call reflection
+ * that StateSerializer/StateManager used before (kept here as the baseline).
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="StateSerializerBenchmark"
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateSerializerBenchmark {
+
+    @State("bench-profile")
+    public static class Profile {
+        @StateKey UUID uuid = UUID.randomUUID();
+        Reactive<Integer> coins = Reactive.of(1200);
+        Reactive<Integer> level = Reactive.of(17);
+        Reactive<Double> xp = Reactive.of(3512.5);
+        Reactive<String> rank = Reactive.of("vip");
+        Reactive<Boolean> flying = Reactive.of(false);
+        ReactiveList<String> homes = ReactiveList.of("base", "farm", "mine");
+        ReactiveMap<String, Integer> stats = ReactiveMap.of(Map.of("kills", 41, "deaths", 12));
+        List<String> friends = new ArrayList<>(List.of("Steve", "Alex"));
+        String lastName = "Notch";
+        long lastSeen = 1_700_000_000_000L;
+        int logins = 93;
+    }
+
+    private Profile profile;
+    private Map<String, Object> data;
+
+    @Setup
+    public void setup() {
+        profile = new Profile();
+        data = StateSerializer.serialize(profile);
+        StateSchema.of(Profile.class);
+    }
+
+    // ========== serialize ==========
+
+    @Benchmark
+    public Map<String, Object> serializeReflective() {
+        return ReflectivePath.serialize(profile);
+    }
+
+    @Benchmark
+    public Map<String, Object> serializeSchema() {
+        return StateSerializer.serialize(profile);
+    }
+
+    // ========== deserialize ==========
+
+    @Benchmark
+    public void deserializeReflective(Blackhole bh) {
+        ReflectivePath.deserialize(profile, data);
+        bh.consume(profile);
+    }
+
+    @Benchmark
+    public void deserializeSchema(Blackhole bh) {
+        StateSerializer.deserialize(profile, data);
+        bh.consume(profile);
+    }
+
+    // ========== version check (autosave scan) ==========
+
+    @Benchmark
+    public long versionReflective() {
+        return ReflectivePath.computeVersion(profile);
+    }
+
+    @Benchmark
+    public long versionSchema() {
+        return StateSchema.of(Profile.class).version(profile);
+    }
+
+    /**
+     * The pre-schema implementation: field lookup and setAccessible on every call.
+     */
+    static final class ReflectivePath {
+        private ReflectivePath() {}
+
+        static Map<String, Object> serialize(Object state) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (Field field : fields(state.getClass())) {
+                field.setAccessible(true);
+                try {
+                    Object value = field.get(state);
+                    if (value == null) continue;
+                    if (value instanceof Reactive<?> r) {
+                        map.put(field.getName(), portable(r.get()));
+                    } else if (value instanceof ReactiveList<?> rl) {
+                        map.put(field.getName(), new ArrayList<>(rl.asList()));
+                    } else if (value instanceof ReactiveMap<?, ?> rm) {
+                        map.put(field.getName(), new LinkedHashMap<>(rm.asMap()));
+                    } else {
+                        map.put(field.getName(), portable(value));
+                    }
+                } catch (Exception ignored) {}
+            }
+            return map;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        static void deserialize(Object state, Map<String, Object> data) {
+            for (Field field : fields(state.getClass())) {
+                field.setAccessible(true);
+                Object stored = data.get(field.getName());
+                if (stored == null) continue;
+                try {
+                    Object current = field.get(state);
+                    if (current instanceof Reactive r) {
+                        r.setSilent(stored);
+                    } else if (current instanceof ReactiveList rl) {
+                        if (stored instanceof List list) rl.replaceAll(list);
+                    } else if (current instanceof ReactiveMap rm) {
+                        if (stored instanceof Map map) {
+                            rm.clear();
+                            rm.putAll(map);
+                        }
+                    } else {
+                        field.set(state, stored);
+                    }
+                } catch (Exception ignored) {}
+            }
+        }
+
+        static long computeVersion(Object instance) {
+            long version = 0;
+            for (Field field : instance.getClass().getDeclaredFields()) {
+                field.setAccessible(true);
+                try {
+                    if (field.get(instance) instanceof Reactive<?> r) version += r.version();
+                } catch (Exception ignored) {}
+            }
+            return version;
+        }
+
+        private static List<Field> fields(Class<?> clazz) {
+            List<Field> fields = new ArrayList<>();
+            for (Field field : clazz.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) continue;
+                if (Modifier.isTransient(field.getModifiers())) continue;
+                if (field.isAnnotationPresent(StateKey.class)) continue;
+                fields.add(field);
+            }
+            return fields;
+        }
+
+        private static Object portable(Object value) {
+            if (value instanceof UUID uuid) return uuid.toString();
+            if (value instanceof Enum<?> e) return e.name();
+            return value;
+        }
+    }
+}
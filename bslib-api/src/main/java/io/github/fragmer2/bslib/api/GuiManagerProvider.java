@@ -3,6 +3,8 @@ package io.github.fragmer2.bslib.api;
 import io.github.fragmer2.bslib.api.menu.Menu;
 import org.bukkit.entity.Player;
 
+import java.util.function.Supplier;
+
 public class GuiManagerProvider {
     private static GuiManager instance;
 
@@ -25,6 +27,14 @@ public class GuiManagerProvider {
          */
         void openMenu(Player player, Menu menu, boolean addToHistory);
 
+        /**
+         * Open the menu built by {@code factory}. Navigation history keeps the
+         * factory, not the built menu: going back to it builds it afresh.
+         */
+        default void openMenu(Player player, Supplier<? extends Menu> factory, boolean addToHistory) {
+            openMenu(player, factory.get(), addToHistory);
+        }
+
         void closeMenu(Player player);
 
         /**
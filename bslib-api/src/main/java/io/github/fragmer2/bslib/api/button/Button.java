@@ -1,7 +1,10 @@
 package io.github.fragmer2.bslib.api.button;
 
 import io.github.fragmer2.bslib.api.animation.Animation;
+import io.github.fragmer2.bslib.api.item.Item;
+import io.github.fragmer2.bslib.api.menu.MenuItemCache;
 import io.github.fragmer2.bslib.api.menu.MenuView;
+import io.github.fragmer2.bslib.api.reactive.Subscription;
 import org.bukkit.Bukkit;
 import org.bukkit.inventory.ItemStack;
 
@@ -19,6 +22,7 @@ public class Button {
     private boolean closeOnClick = false;
     private Animation animation;
     private Supplier<Object> watchedValue; // for reactive updates
+    private Function<Runnable, Subscription> changeSource; // pushes changes; null = polled
     private Object lastWatchedValue;       // cache for change detection
     private boolean initialCheckDone = false; // skip first reactive check (just rendered in open())
 
@@ -30,6 +34,18 @@ public class Button {
         return b;
     }
 
+    /**
+     * Icon built from {@code item} for each viewer (placeholders resolved for
+     * them) and served from {@link MenuItemCache}: every open after the first
+     * with the same resolved text copies the built ItemStack instead of
+     * building it again.
+     */
+    public static Button of(Item item) {
+        Button b = new Button();
+        b.renderer = view -> MenuItemCache.get(item, view.getPlayer());
+        return b;
+    }
+
     public static Button dynamic(Function<MenuView, ItemStack> renderer) {
         Button b = new Button();
         b.renderer = renderer;
@@ -96,31 +112,68 @@ public class Button {
      */
     public Button bind(Supplier<Object> valueSupplier) {
         this.watchedValue = valueSupplier;
+        this.changeSource = null;
         return this;
     }
 
     /**
-     * Bind directly to a Reactive value (version-based change detection).
+     * Bind to a value that announces its own changes: {@code changes} subscribes
+     * a callback and returns its Subscription. The menu re-renders the button
+     * when called back instead of polling {@code valueSupplier}.
      */
-    public Button bind(io.github.fragmer2.bslib.api.reactive.Reactive<?> reactive) {
-        this.watchedValue = reactive::version;
+    public Button bind(Supplier<Object> valueSupplier, Function<Runnable, Subscription> changes) {
+        this.watchedValue = valueSupplier;
+        this.changeSource = changes;
         return this;
     }
 
+    /**
+     * Bind directly to a Reactive value (re-rendered when it changes).
+     */
+    public Button bind(io.github.fragmer2.bslib.api.reactive.Reactive<?> reactive) {
+        return bind(reactive::version, onChange -> reactive.subscribeChange((old, now) -> onChange.run()));
+    }
+
+    /**
+     * Bind to a primitive ReactiveInt / ReactiveLong / ReactiveDouble.
+     */
+    public Button bind(io.github.fragmer2.bslib.api.reactive.ReactiveNumber number) {
+        return bind(number::version, number::subscribeAny);
+    }
+
     /**
      * Bind to a ReactiveList.
      */
     public Button bind(io.github.fragmer2.bslib.api.reactive.ReactiveList<?> list) {
-        this.watchedValue = list.asBindable();
-        return this;
+        return bind(list.asBindable(), onChange -> list.subscribeDelta(changes -> onChange.run()));
     }
 
     /**
      * Bind to a ReactiveMap.
      */
     public Button bind(io.github.fragmer2.bslib.api.reactive.ReactiveMap<?, ?> map) {
-        this.watchedValue = map.asBindable();
-        return this;
+        return bind(map.asBindable(), onChange -> map.subscribeDelta(changes -> onChange.run()));
+    }
+
+    /**
+     * Subscribe {@code onChange} to the bound value's changes.
+     * Returns null if the binding can only be polled ({@link #hasValueChanged()}).
+     */
+    public Subscription watch(Runnable onChange) {
+        return changeSource != null ? changeSource.apply(onChange) : null;
+    }
+
+    /** True if the binding pushes its changes (see {@link #watch(Runnable)}). */
+    public boolean isWatchable() {
+        return changeSource != null;
+    }
+
+    /**
+     * True if the menu has to re-check this button periodically: a dynamic
+     * button without a binding, or one bound to a plain Supplier.
+     */
+    public boolean needsPolling() {
+        return watchedValue != null ? changeSource == null : dynamic;
     }
 
     /**
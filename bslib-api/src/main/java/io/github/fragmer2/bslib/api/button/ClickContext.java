@@ -108,6 +108,14 @@ public class ClickContext {
     /** Re-render the menu (useful after data changes). */
     public void update() { view.update(); }
 
+    /**
+     * Open another menu, built by {@code factory}; {@link #back()} returns here.
+     *   ctx.open(() -> new ShopCategoryMenu(category));
+     */
+    public void open(java.util.function.Supplier<? extends io.github.fragmer2.bslib.api.menu.Menu> factory) {
+        io.github.fragmer2.bslib.api.GuiManagerProvider.get().openMenu(player, factory, true);
+    }
+
     /** Navigate back to the previous menu. */
     public void back() {
         io.github.fragmer2.bslib.api.GuiManagerProvider.get().back(player);
@@ -15,6 +15,7 @@ import org.bukkit.inventory.meta.SkullMeta;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -118,6 +119,26 @@ public class Item {
         return build(null);
     }
 
+    /**
+     * Everything {@code build(player)} depends on, with placeholders resolved:
+     * equal keys build equal items. Used by the menu item cache.
+     */
+    public Object cacheKey(Player player) {
+        return new Key(material, amount, resolve(player, displayName),
+                lore.stream().map(line -> resolve(player, line)).toList(),
+                glow, hideFlags, customModelData, unbreakable,
+                enchantments.stream().map(e -> Map.entry(e.enchantment, e.level)).toList(),
+                List.copyOf(flags), skullTexture);
+    }
+
+    private record Key(Material material, int amount, String name, List<String> lore, boolean glow,
+                       boolean hideFlags, Integer customModelData, boolean unbreakable,
+                       List<Map.Entry<Enchantment, Integer>> enchantments, List<ItemFlag> flags, String skullTexture) {}
+
+    private static String resolve(Player player, String text) {
+        return (player != null && text != null) ? Placeholders.apply(player, text) : text;
+    }
+
     public ItemStack build(Player player) {
         ItemStack item = new ItemStack(material, amount);
 
@@ -0,0 +1,318 @@
+package io.github.fragmer2.bslib.api.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming JSON reader. Reads from the underlying Reader in chunks and builds
+ * values as it goes — the document is never loaded into a single String.
+ *
+ * Usage:
+ *   try (JsonReader json = new JsonReader(reader)) {
+ *       Map<String, Object> root = json.readObject();
+ *   }
+ *
+ *   Object value = JsonReader.parse("[1, 2.5, \"three\"]");
+ *
+ * Values map to: object → LinkedHashMap (order kept), array → ArrayList,
+ * string → String, true/false → Boolean, null → null, numbers → Integer if they
+ * fit, else Long, else Double (anything with a fraction or exponent is a Double).
+ *
+ * Strict RFC 8259: malformed input throws IOException with line and column.
+ */
+public final class JsonReader implements Closeable {
+    private static final int MAX_DEPTH = 512;
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int pos;
+    private int limit;
+    private int line = 1;
+    private int lineStart;
+    private final StringBuilder scratch = new StringBuilder();
+
+    public JsonReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Parse a complete JSON document from a string.
+     */
+    public static Object parse(String json) throws IOException {
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            return reader.readDocument();
+        }
+    }
+
+    /**
+     * Read one complete document; fails if anything but whitespace follows it.
+     */
+    public Object readDocument() throws IOException {
+        Object value = readValue();
+        if (skipWhitespace() != -1) throw error("Unexpected data after JSON document");
+        return value;
+    }
+
+    /**
+     * Read a document whose root must be an object.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> readObject() throws IOException {
+        Object value = readDocument();
+        if (!(value instanceof Map)) throw new IOException("Expected a JSON object at the root");
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * Read the next value (object, array or scalar).
+     */
+    public Object readValue() throws IOException {
+        return readValue(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // ========== Values ==========
+
+    private Object readValue(int depth) throws IOException {
+        int c = skipWhitespace();
+        return switch (c) {
+            case '{' -> {
+                pos++;
+                yield readObjectBody(depth + 1);
+            }
+            case '[' -> {
+                pos++;
+                yield readArrayBody(depth + 1);
+            }
+            case '"' -> {
+                pos++;
+                yield readString();
+            }
+            case 't' -> literal("true", Boolean.TRUE);
+            case 'f' -> literal("false", Boolean.FALSE);
+            case 'n' -> literal("null", null);
+            case -1 -> throw error("Unexpected end of JSON");
+            default -> {
+                if (c == '-' || (c >= '0' && c <= '9')) yield readNumber();
+                throw error("Unexpected character '" + (char) c + "'");
+            }
+        };
+    }
+
+    private Map<String, Object> readObjectBody(int depth) throws IOException {
+        checkDepth(depth);
+        Map<String, Object> map = new LinkedHashMap<>();
+        int c = skipWhitespace();
+        if (c == '}') {
+            pos++;
+            return map;
+        }
+        while (true) {
+            if (c != '"') throw error("Expected property name");
+            pos++;
+            String name = readString();
+            if (skipWhitespace() != ':') throw error("Expected ':'");
+            pos++;
+            map.put(name, readValue(depth));
+            c = skipWhitespace();
+            if (c == -1) throw error("Unterminated object");
+            pos++;
+            if (c == '}') return map;
+            if (c != ',') throw error("Expected ',' or '}'");
+            c = skipWhitespace();
+        }
+    }
+
+    private List<Object> readArrayBody(int depth) throws IOException {
+        checkDepth(depth);
+        List<Object> list = new ArrayList<>();
+        if (skipWhitespace() == ']') {
+            pos++;
+            return list;
+        }
+        while (true) {
+            list.add(readValue(depth));
+            int c = skipWhitespace();
+            if (c == -1) throw error("Unterminated array");
+            pos++;
+            if (c == ']') return list;
+            if (c != ',') throw error("Expected ',' or ']'");
+        }
+    }
+
+    private String readString() throws IOException {
+        scratch.setLength(0);
+        while (true) {
+            if (pos == limit && !fill()) throw error("Unterminated string");
+            // Copy runs of plain characters in one go
+            int start = pos;
+            while (pos < limit) {
+                char ch = buffer[pos];
+                if (ch == '"' || ch == '\\' || ch < 0x20) break;
+                pos++;
+            }
+            scratch.append(buffer, start, pos - start);
+            if (pos == limit) continue;
+
+            char ch = buffer[pos++];
+            if (ch == '"') return scratch.toString();
+            if (ch < 0x20) {
+                pos--;
+                throw error("Unescaped control character in string");
+            }
+            scratch.append(readEscape());
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+        return switch (c) {
+            case '"' -> '"';
+            case '\\' -> '\\';
+            case '/' -> '/';
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int h = Character.digit(read(), 16);
+                    if (h < 0) throw error("Invalid \\u escape");
+                    value = (value << 4) | h;
+                }
+                yield (char) value;
+            }
+            case -1 -> throw error("Unterminated string");
+            default -> throw error("Invalid escape '\\" + (char) c + "'");
+        };
+    }
+
+    private Object readNumber() throws IOException {
+        scratch.setLength(0);
+        boolean decimal = false;
+
+        int c = peekChar();
+        if (c == '-') {
+            scratch.append('-');
+            pos++;
+            c = peekChar();
+        }
+        if (c == '0') {
+            scratch.append('0');
+            pos++;
+            c = peekChar();
+            if (c >= '0' && c <= '9') throw error("Leading zeros are not allowed");
+        } else {
+            c = digits();
+        }
+        if (c == '.') {
+            decimal = true;
+            scratch.append('.');
+            pos++;
+            c = digits();
+        }
+        if (c == 'e' || c == 'E') {
+            decimal = true;
+            scratch.append('e');
+            pos++;
+            c = peekChar();
+            if (c == '+' || c == '-') {
+                scratch.append((char) c);
+                pos++;
+            }
+            digits();
+        }
+
+        String text = scratch.toString();
+        if (decimal) return Double.parseDouble(text);
+        if (scratch.length() <= 18) {
+            long value = Long.parseLong(text);
+            if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) return (int) value;
+            return value;
+        }
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            return Double.parseDouble(text);
+        }
+    }
+
+    /** Read one or more digits; returns the char after them. */
+    private int digits() throws IOException {
+        int c = peekChar();
+        if (c < '0' || c > '9') throw error("Expected digit");
+        while (c >= '0' && c <= '9') {
+            scratch.append((char) c);
+            pos++;
+            c = peekChar();
+        }
+        return c;
+    }
+
+    private Object literal(String word, Object value) throws IOException {
+        for (int i = 0; i < word.length(); i++) {
+            if (read() != word.charAt(i)) throw error("Invalid literal, expected " + word);
+        }
+        return value;
+    }
+
+    // ========== Buffer ==========
+
+    /** Next non-whitespace char without consuming it, or -1 at end. */
+    private int skipWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) return -1;
+            char c = buffer[pos];
+            if (c == '\n') {
+                line++;
+                lineStart = pos + 1;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                return c;
+            }
+            pos++;
+        }
+    }
+
+    private int peekChar() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buffer[pos];
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buffer[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        lineStart -= limit;
+        pos = 0;
+        limit = 0;
+        int n;
+        do {
+            n = in.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) return false;
+        limit = n;
+        return true;
+    }
+
+    private void checkDepth(int depth) throws IOException {
+        if (depth > MAX_DEPTH) throw error("JSON nested deeper than " + MAX_DEPTH);
+    }
+
+    private IOException error(String message) {
+        return new IOException(message + " at line " + line + " column " + (pos - lineStart + 1));
+    }
+}
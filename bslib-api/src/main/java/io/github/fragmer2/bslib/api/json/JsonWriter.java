@@ -0,0 +1,266 @@
+package io.github.fragmer2.bslib.api.json;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Streaming JSON writer. Tokens go straight to the underlying Writer —
+ * no intermediate strings are built for nested values.
+ *
+ * Usage:
+ *   try (JsonWriter json = new JsonWriter(writer).indent("  ")) {
+ *       json.beginObject()
+ *           .name("coins").value(500)
+ *           .name("homes").beginArray().value("base").value("farm").endArray()
+ *           .endObject();
+ *   }
+ *
+ *   // Or write a Map/List tree in one call:
+ *   json.value(Map.of("coins", 500, "homes", List.of("base")));
+ *
+ * Strings are fully escaped (quotes, backslashes, all control characters,
+ * U+2028/U+2029). NaN and infinite doubles are not valid JSON and are written
+ * as strings ("NaN", "Infinity").
+ */
+public final class JsonWriter implements Closeable, Flushable {
+    private static final String[] CONTROL_ESCAPES = new String[0x20];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            CONTROL_ESCAPES[c] = String.format("\\u%04x", c);
+        }
+        CONTROL_ESCAPES['\b'] = "\\b";
+        CONTROL_ESCAPES['\t'] = "\\t";
+        CONTROL_ESCAPES['\n'] = "\\n";
+        CONTROL_ESCAPES['\f'] = "\\f";
+        CONTROL_ESCAPES['\r'] = "\\r";
+    }
+
+    private static final byte EMPTY_ARRAY = 1;
+    private static final byte ARRAY = 2;
+    private static final byte EMPTY_OBJECT = 3;
+    private static final byte OBJECT = 4;
+    private static final byte NAME = 5;
+    private static final byte TOP = 6;
+    private static final byte TOP_DONE = 7;
+
+    private final Writer out;
+    private byte[] stack = new byte[16];
+    private int depth;
+    private String indent;
+
+    public JsonWriter(Writer out) {
+        this.out = out;
+        stack[depth++] = TOP;
+    }
+
+    /** Pretty-print with the given indent per level (null or "" = compact). */
+    public JsonWriter indent(String indent) {
+        this.indent = indent == null || indent.isEmpty() ? null : indent;
+        return this;
+    }
+
+    // ========== Structure ==========
+
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        push(EMPTY_OBJECT);
+        out.write('{');
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        return close(EMPTY_OBJECT, OBJECT, '}');
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        push(EMPTY_ARRAY);
+        out.write('[');
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        return close(EMPTY_ARRAY, ARRAY, ']');
+    }
+
+    public JsonWriter name(String name) throws IOException {
+        if (name == null) throw new NullPointerException("name");
+        byte scope = peek();
+        if (scope == OBJECT) {
+            out.write(',');
+        } else if (scope != EMPTY_OBJECT) {
+            throw new IllegalStateException("name() outside of an object");
+        }
+        newline();
+        string(name);
+        out.write(indent != null ? ": " : ":");
+        stack[depth - 1] = NAME;
+        return this;
+    }
+
+    // ========== Values ==========
+
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) return nullValue();
+        beforeValue();
+        string(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(double value) throws IOException {
+        if (!Double.isFinite(value)) return value(Double.toString(value));
+        beforeValue();
+        out.write(Double.toString(value));
+        return this;
+    }
+
+    /** Shortest decimal of the float itself: 0.1f is written as 0.1, not 0.10000000149011612. */
+    public JsonWriter value(float value) throws IOException {
+        if (!Float.isFinite(value)) return value(Float.toString(value));
+        beforeValue();
+        out.write(Float.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        beforeValue();
+        out.write("null");
+        return this;
+    }
+
+    /**
+     * Write any value: Map (keys via toString), Collection, array, String,
+     * Number, Boolean, null. Anything else is written as its toString().
+     */
+    public JsonWriter value(Object value) throws IOException {
+        if (value == null) return nullValue();
+        if (value instanceof String s) return value(s);
+        if (value instanceof Boolean b) return value(b.booleanValue());
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return value(((Number) value).longValue());
+        }
+        if (value instanceof Float f) return value(f.floatValue());
+        if (value instanceof Number n) return value(n.doubleValue());
+        if (value instanceof Map<?, ?> map) {
+            beginObject();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                name(String.valueOf(entry.getKey()));
+                value(entry.getValue());
+            }
+            return endObject();
+        }
+        if (value instanceof Collection<?> collection) {
+            beginArray();
+            for (Object element : collection) value(element);
+            return endArray();
+        }
+        if (value instanceof Object[] array) {
+            return value(Arrays.asList(array));
+        }
+        return value(value.toString());
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+        if (depth > 1 || peek() != TOP_DONE) {
+            throw new IOException("Incomplete JSON document");
+        }
+    }
+
+    // ========== Internal ==========
+
+    private void beforeValue() throws IOException {
+        switch (peek()) {
+            case TOP -> stack[depth - 1] = TOP_DONE;
+            case TOP_DONE -> throw new IllegalStateException("JSON document already has a root value");
+            case EMPTY_ARRAY -> {
+                stack[depth - 1] = ARRAY;
+                newline();
+            }
+            case ARRAY -> {
+                out.write(',');
+                newline();
+            }
+            case NAME -> stack[depth - 1] = OBJECT;
+            default -> throw new IllegalStateException("Expected name() before value in an object");
+        }
+    }
+
+    private JsonWriter close(byte empty, byte nonEmpty, char bracket) throws IOException {
+        byte scope = peek();
+        if (scope != empty && scope != nonEmpty) {
+            throw new IllegalStateException("Mismatched " + bracket);
+        }
+        depth--;
+        if (scope == nonEmpty) newline();
+        out.write(bracket);
+        return this;
+    }
+
+    private void push(byte scope) {
+        if (depth == stack.length) stack = Arrays.copyOf(stack, depth * 2);
+        stack[depth++] = scope;
+    }
+
+    private byte peek() {
+        return stack[depth - 1];
+    }
+
+    private void newline() throws IOException {
+        if (indent == null) return;
+        out.write('\n');
+        for (int i = 1; i < depth; i++) out.write(indent);
+    }
+
+    private void string(String value) throws IOException {
+        out.write('"');
+        int last = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String escape;
+            if (c < 0x20) {
+                escape = CONTROL_ESCAPES[c];
+            } else if (c == '"') {
+                escape = "\\\"";
+            } else if (c == '\\') {
+                escape = "\\\\";
+            } else if (c == 0x2028) {
+                escape = "\\u2028";
+            } else if (c == 0x2029) {
+                escape = "\\u2029";
+            } else {
+                continue;
+            }
+            if (last < i) out.write(value, last, i - last);
+            out.write(escape);
+            last = i + 1;
+        }
+        if (last < length) out.write(value, last, length - last);
+        out.write('"');
+    }
+}
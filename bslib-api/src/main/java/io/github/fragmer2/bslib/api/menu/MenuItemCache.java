@@ -0,0 +1,130 @@
+package io.github.fragmer2.bslib.api.menu;
+
+import io.github.fragmer2.bslib.api.item.Item;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Rendered ItemStack cache for menu buttons.
+ *
+ * Building a button icon (text parsing + ItemMeta) costs far more than looking
+ * it up, and the same icons are rendered on every open and every rerender. The
+ * cache keys an icon on everything that decides how it looks — material, name,
+ * lore, other item properties, placeholders as resolved for the viewer, and
+ * the viewer's locale — and keeps the built ItemStack as a template:
+ *
+ *   // Built once per distinct balance/locale, then reused by every open
+ *   Button.of(Item.of(Material.GOLD_INGOT).name("Balance: %vault_eco_balance%"));
+ *
+ * Templates are shared between views and players and never handed out: every
+ * lookup returns a copy, which the caller may modify. Copying is a fraction
+ * of the cost of building.
+ *
+ * Bounded; the least recently used icons are evicted first.
+ */
+public final class MenuItemCache {
+    private static final Map<Object, ItemStack> templates = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, ItemStack> eldest) {
+            if (size() <= maxSize) return false;
+            evictions++;
+            return true;
+        }
+    };
+    private static int maxSize = 1024;
+    private static long hits;
+    private static long misses;
+    private static long evictions;
+
+    private MenuItemCache() {}
+
+    /**
+     * Cache metrics.
+     *
+     * @param size      icons currently cached
+     * @param maxSize   capacity before LRU eviction
+     * @param hits      renders served from the cache
+     * @param misses    renders that built a new template
+     * @param evictions templates dropped to stay within capacity
+     */
+    public record Stats(int size, int maxSize, long hits, long misses, long evictions) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total > 0 ? (double) hits / total : 0;
+        }
+    }
+
+    // ========== Lookup ==========
+
+    /** A copy of {@code item} as {@code viewer} sees it (placeholders, locale); {@code viewer} may be null. */
+    public static ItemStack get(Item item, Player viewer) {
+        Object key = List.of(item.cacheKey(viewer), localeOf(viewer));
+        return lookup(key, () -> item.build(viewer));
+    }
+
+    /** A copy of a plain icon: material, name and lore, no placeholders. */
+    public static ItemStack get(Material material, String name, List<String> lore) {
+        Item item = Item.of(material);
+        if (name != null) item.name(name);
+        item.lore(lore);
+        return get(item, (Player) null);
+    }
+
+    /** Looks up and stores under the lock; builds outside it, so a slow icon holds up no other render. */
+    private static ItemStack lookup(Object key, Supplier<ItemStack> build) {
+        synchronized (MenuItemCache.class) {
+            ItemStack template = templates.get(key);
+            if (template != null) {
+                hits++;
+                return template.clone();
+            }
+            misses++;
+        }
+        ItemStack built = build.get();
+        synchronized (MenuItemCache.class) {
+            ItemStack raced = templates.putIfAbsent(key, built);
+            return (raced != null ? raced : built).clone();
+        }
+    }
+
+    private static Object localeOf(Player viewer) {
+        if (viewer == null) return "";
+        Locale locale = viewer.locale();
+        return locale != null ? locale : "";
+    }
+
+    // ========== Configuration ==========
+
+    /** Maximum cached icons (default 1024); shrinking evicts the least recently used. */
+    public static synchronized void setMaxSize(int maxSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be >= 1");
+        MenuItemCache.maxSize = maxSize;
+        var it = templates.entrySet().iterator();
+        while (templates.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /** Drop all templates and reset metrics (on disable). */
+    public static synchronized void clear() {
+        templates.clear();
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    // ========== Metrics ==========
+
+    public static synchronized Stats stats() {
+        return new Stats(templates.size(), maxSize, hits, misses, evictions);
+    }
+}
@@ -0,0 +1,472 @@
+package io.github.fragmer2.bslib.api.menu;
+
+import io.github.fragmer2.bslib.api.button.Button;
+import io.github.fragmer2.bslib.api.reactive.ListChange;
+import io.github.fragmer2.bslib.api.reactive.ReactiveList;
+import io.github.fragmer2.bslib.api.reactive.Subscription;
+import io.github.fragmer2.bslib.api.thread.Async;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * A menu that pages through a data source of any size, materializing only the
+ * page on screen.
+ *
+ * ===== In-memory list or ReactiveList: =====
+ *   PagedMenu.of("Auction House", 6, auctions)
+ *       .slots(ReactiveMenu.slots(0, 44))
+ *       .item(listing -> Button.of(listing.icon(), e -> bid(e, listing)))
+ *       .previous(45, new ItemStack(Material.ARROW))
+ *       .next(53, new ItemStack(Material.ARROW))
+ *       .button(49, Button.of(new ItemStack(Material.BARRIER)).closeOnClick())
+ *       .build()
+ *       .open(player);
+ *
+ * ===== Async page loader (database, web API): =====
+ *   PagedMenu.loader("Auction House", 6, (page, size) -> db.listings(page * size, size))
+ *       .slots(ReactiveMenu.slots(0, 44))
+ *       .item(listing -> Button.of(listing.icon(), e -> bid(e, listing)))
+ *       .loading(new ItemStack(Material.GRAY_STAINED_GLASS_PANE))
+ *       .previous(45, prevIcon).next(53, nextIcon)
+ *       .build()
+ *       .open(player);
+ *
+ * Only the visible page's buttons are created, when rendered. Loader pages
+ * load off the main thread, and the pages next to the current one are
+ * prefetched, so turning a page usually shows it at once; pages farther away
+ * are dropped. A page turn swaps the slot contents inside the open inventory
+ * (only slots whose item changed are written) — the window is never reopened.
+ *
+ * The page is state of the menu instance: build one per viewer.
+ */
+public final class PagedMenu<T> extends Menu {
+
+    /** Loads one page; runs off the main thread. Fewer than {@code pageSize} items marks the last page. */
+    @FunctionalInterface
+    public interface PageLoader<T> {
+        List<T> load(int page, int pageSize) throws Exception;
+    }
+
+    private final Source<T> source;
+    private final int[] slots;
+    private final Function<T, Button> renderer;
+    private final ItemStack loadingItem;
+    private final int prefetch;
+    private final AtomicLong version = new AtomicLong();
+    private final List<Runnable> watchers = new CopyOnWriteArrayList<>();
+    private volatile int page;
+    private int openViews;
+
+    private PagedMenu(Builder<T> b) {
+        super(b.title, b.rows);
+        if (b.slots == null) throw new IllegalStateException("PagedMenu '" + b.title + "': slots(...) not set");
+        if (b.renderer == null) throw new IllegalStateException("PagedMenu '" + b.title + "': item(...) not set");
+        this.source = b.source;
+        this.slots = b.slots;
+        this.renderer = b.renderer;
+        this.loadingItem = b.loadingItem;
+        this.prefetch = b.prefetch;
+        b.buttons.forEach(this::setButton);
+        for (int i = 0; i < slots.length; i++) setButton(slots[i], slotButton(i));
+        if (b.previousSlot >= 0) setButton(b.previousSlot, navButton(b.previousIcon, b.previousDisabled, -1));
+        if (b.nextSlot >= 0) setButton(b.nextSlot, navButton(b.nextIcon, b.nextDisabled, +1));
+        for (InventoryPolicy p : b.policies) policy(p);
+    }
+
+    @Override
+    protected void setup() {
+        // Menu's constructor calls this before our fields are set; the constructor installs the buttons instead
+    }
+
+    // ========== Builders ==========
+
+    public static <T> Builder<T> of(String title, int rows, List<T> items) {
+        return new Builder<>(title, rows, new IndexedSource<>(items::size, items::get, null));
+    }
+
+    /** Pages follow the list: a change on or before the shown page refreshes it. */
+    public static <T> Builder<T> of(String title, int rows, ReactiveList<T> items) {
+        return new Builder<>(title, rows, new IndexedSource<>(items::size, items::get, items));
+    }
+
+    public static <T> Builder<T> loader(String title, int rows, PageLoader<T> loader) {
+        return new Builder<>(title, rows, new LoaderSource<>(loader));
+    }
+
+    // ========== Navigation ==========
+
+    /** Current page, from 0. */
+    public int page() {
+        return page;
+    }
+
+    public int pageSize() {
+        return slots.length;
+    }
+
+    /** Number of pages, or -1 while unknown (loader sources). */
+    public int pageCount() {
+        return source.pageCount(slots.length);
+    }
+
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+
+    public boolean hasNext() {
+        return source.hasPage(page + 1, slots.length);
+    }
+
+    public void next() {
+        if (hasNext()) goTo(page + 1);
+    }
+
+    public void previous() {
+        if (hasPrevious()) goTo(page - 1);
+    }
+
+    /** Show {@code target} (clamped to the known pages) in every open view of this menu. */
+    public void goTo(int target) {
+        int count = pageCount();
+        int clamped = Math.max(0, count >= 0 ? Math.min(target, count - 1) : target);
+        if (clamped == page) return;
+        page = clamped;
+        load();
+        changed();
+    }
+
+    /** Drop loaded pages and load the current one again (e.g. after the data changed). */
+    public void refresh() {
+        source.invalidate();
+        load();
+        changed();
+    }
+
+    private void load() {
+        int current = page;
+        source.request(current, slots.length, () -> {
+            if (page == current) changed();
+        });
+        for (int d = 1; d <= prefetch; d++) {
+            int count = pageCount();
+            // The next page's arrival also decides whether "next" is enabled
+            if (count < 0 || current + d < count) source.request(current + d, slots.length, () -> {
+                if (page == current) changed();
+            });
+            if (current - d >= 0) source.request(current - d, slots.length, () -> {});
+        }
+        source.retain(current - prefetch, current + prefetch);
+    }
+
+    /** The shown page (or whether a next page exists) changed: re-render the bound slots. */
+    private void changed() {
+        version.incrementAndGet();
+        watchers.forEach(Runnable::run);
+    }
+
+    // ========== Lifecycle ==========
+
+    @Override
+    public void onOpen(MenuView view) {
+        synchronized (this) {
+            if (openViews++ == 0) source.open(this::onSourceChange);
+        }
+        load();
+    }
+
+    @Override
+    public void onClose(MenuView view) {
+        synchronized (this) {
+            if (openViews > 0 && --openViews == 0) source.close();
+        }
+    }
+
+    private void onSourceChange(int firstAffected) {
+        int count = pageCount();
+        if (count >= 0 && page >= count) {
+            goTo(count - 1);
+        } else if (firstAffected <= (page + 1) * slots.length) {
+            changed();   // also the next page's first item: it decides the "next" button
+        }
+    }
+
+    // ========== Buttons ==========
+
+    private Button slotButton(int position) {
+        return Button.dynamic(view -> {
+                    int shown = page;
+                    if (!source.isLoaded(shown)) return loadingItem;
+                    T item = source.get(shown, slots.length, position);
+                    return item != null ? renderer.apply(item).render(view) : null;
+                })
+                .click(ctx -> {
+                    T item = source.get(page, slots.length, position);
+                    if (item != null) renderer.apply(item).onClick(ctx);
+                })
+                .bind(version::get, this::watch);
+    }
+
+    private Button navButton(ItemStack icon, ItemStack disabled, int step) {
+        return Button.dynamic(view -> (step < 0 ? hasPrevious() : hasNext()) ? icon : disabled)
+                .click(ctx -> {
+                    if (step < 0) previous();
+                    else next();
+                })
+                .bind(version::get, this::watch);
+    }
+
+    private Subscription watch(Runnable onChange) {
+        watchers.add(onChange);
+        return () -> watchers.remove(onChange);
+    }
+
+    // ========== Sources ==========
+
+    private interface Source<T> {
+        /** Number of pages, or -1 if unknown. */
+        int pageCount(int pageSize);
+        boolean isLoaded(int page);
+        boolean hasPage(int page, int pageSize);
+        T get(int page, int pageSize, int position);
+        /** Make {@code page} available; {@code onLoaded} runs on the main thread if it had to be loaded. */
+        void request(int page, int pageSize, Runnable onLoaded);
+        /** Forget loaded pages outside [from, to]. */
+        void retain(int from, int to);
+        void invalidate();
+        /** Start announcing changes while a view is open: {@code onChange} gets the first affected index. */
+        void open(IntConsumer onChange);
+        void close();
+    }
+
+    /** A list in memory: pages are index ranges, nothing to load. */
+    private static final class IndexedSource<T> implements Source<T> {
+        private final IntSupplier size;
+        private final IntFunction<T> get;
+        private final ReactiveList<T> reactive;
+        private Subscription subscription;
+
+        IndexedSource(IntSupplier size, IntFunction<T> get, ReactiveList<T> reactive) {
+            this.size = size;
+            this.get = get;
+            this.reactive = reactive;
+        }
+
+        @Override public int pageCount(int pageSize) { return Math.max(1, (size.getAsInt() + pageSize - 1) / pageSize); }
+        @Override public boolean isLoaded(int page) { return true; }
+        @Override public boolean hasPage(int page, int pageSize) { return page * pageSize < size.getAsInt(); }
+        @Override public void request(int page, int pageSize, Runnable onLoaded) {}
+        @Override public void retain(int from, int to) {}
+        @Override public void invalidate() {}
+
+        @Override
+        public T get(int page, int pageSize, int position) {
+            int index = page * pageSize + position;
+            try {
+                return index < size.getAsInt() ? get.apply(index) : null;
+            } catch (IndexOutOfBoundsException e) {
+                return null; // shrank meanwhile
+            }
+        }
+
+        @Override
+        public void open(IntConsumer onChange) {
+            if (reactive == null) return;
+            subscription = reactive.subscribeDelta(changes -> {
+                int first = Integer.MAX_VALUE;
+                for (ListChange<T> change : changes) first = Math.min(first, change.firstAffected());
+                onChange.accept(first);
+            });
+        }
+
+        @Override
+        public void close() {
+            if (subscription != null) {
+                subscription.unsubscribe();
+                subscription = null;
+            }
+        }
+    }
+
+    /** Pages fetched by a {@link PageLoader} off the main thread and kept around the current page. */
+    private static final class LoaderSource<T> implements Source<T> {
+        private final PageLoader<T> loader;
+        private final Map<Integer, List<T>> pages = new HashMap<>();
+        private final Set<Integer> loading = new HashSet<>();
+        private long generation;   // bumped by invalidate(), so stale loads are discarded
+
+        LoaderSource(PageLoader<T> loader) {
+            this.loader = loader;
+        }
+
+        @Override
+        public synchronized int pageCount(int pageSize) {
+            // Known once the last page (a short one) was seen
+            int count = -1;
+            for (Map.Entry<Integer, List<T>> entry : pages.entrySet()) {
+                int page = entry.getKey();
+                if (entry.getValue().size() >= pageSize) continue;
+                int pages = entry.getValue().isEmpty() ? Math.max(1, page) : page + 1;
+                if (count < 0 || pages < count) count = pages;
+            }
+            return count;
+        }
+
+        @Override
+        public synchronized boolean isLoaded(int page) {
+            return pages.containsKey(page);
+        }
+
+        @Override
+        public synchronized boolean hasPage(int page, int pageSize) {
+            List<T> loaded = pages.get(page);
+            if (loaded != null) return !loaded.isEmpty();
+            List<T> before = pages.get(page - 1);
+            return before == null || before.size() >= pageSize;   // unknown: assume there is one
+        }
+
+        @Override
+        public synchronized T get(int page, int pageSize, int position) {
+            List<T> loaded = pages.get(page);
+            return loaded != null && position < loaded.size() ? loaded.get(position) : null;
+        }
+
+        @Override
+        public synchronized void request(int page, int pageSize, Runnable onLoaded) {
+            if (page < 0 || pages.containsKey(page) || !loading.add(page)) return;
+            long requested = generation;
+            Async.run(() -> {
+                try {
+                    List<T> items = loader.load(page, pageSize);
+                    return items != null ? List.copyOf(items) : List.<T>of();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    return null;
+                }
+            }, items -> {
+                synchronized (this) {
+                    // A stale load must not clear the marker of a newer request for the page
+                    if (requested != generation) return;
+                    loading.remove(page);
+                    if (items == null) return;   // failed: retried on the next request
+                    pages.put(page, items);
+                }
+                onLoaded.run();
+            });
+        }
+
+        @Override
+        public synchronized void retain(int from, int to) {
+            pages.keySet().removeIf(p -> p < from || p > to);
+        }
+
+        @Override
+        public synchronized void invalidate() {
+            generation++;
+            pages.clear();
+            loading.clear();
+        }
+
+        @Override public void open(IntConsumer onChange) {}
+        @Override public void close() {}
+    }
+
+    // ========== Builder ==========
+
+    public static final class Builder<T> {
+        private final String title;
+        private final int rows;
+        private final Source<T> source;
+        private final Map<Integer, Button> buttons = new HashMap<>();
+        private final Set<InventoryPolicy> policies = EnumSet.noneOf(InventoryPolicy.class);
+        private int[] slots;
+        private Function<T, Button> renderer;
+        private ItemStack loadingItem;
+        private int prefetch = 1;
+        private int previousSlot = -1;
+        private int nextSlot = -1;
+        private ItemStack previousIcon, previousDisabled, nextIcon, nextDisabled;
+
+        private Builder(String title, int rows, Source<T> source) {
+            this.title = title;
+            this.rows = rows;
+            this.source = source;
+        }
+
+        /** Slots that show the page's items, in order. Their count is the page size. */
+        public Builder<T> slots(int... slots) {
+            if (slots.length == 0) throw new IllegalArgumentException("slots must not be empty");
+            this.slots = slots.clone();
+            return this;
+        }
+
+        /** Button for an item; called only for items on the shown page. */
+        public Builder<T> item(Function<T, Button> renderer) {
+            this.renderer = renderer;
+            return this;
+        }
+
+        /** Shown in the item slots while their page is loading (default: empty). */
+        public Builder<T> loading(ItemStack item) {
+            this.loadingItem = item;
+            return this;
+        }
+
+        /** Pages loaded ahead on each side of the current one (default 1; loader sources only). */
+        public Builder<T> prefetch(int pages) {
+            if (pages < 0) throw new IllegalArgumentException("prefetch must be >= 0");
+            this.prefetch = pages;
+            return this;
+        }
+
+        public Builder<T> previous(int slot, ItemStack icon) {
+            return previous(slot, icon, null);
+        }
+
+        /** "Previous page" button; {@code disabled} is shown on the first page (null: empty slot). */
+        public Builder<T> previous(int slot, ItemStack icon, ItemStack disabled) {
+            this.previousSlot = slot;
+            this.previousIcon = icon;
+            this.previousDisabled = disabled;
+            return this;
+        }
+
+        public Builder<T> next(int slot, ItemStack icon) {
+            return next(slot, icon, null);
+        }
+
+        /** "Next page" button; {@code disabled} is shown on the last page (null: empty slot). */
+        public Builder<T> next(int slot, ItemStack icon, ItemStack disabled) {
+            this.nextSlot = slot;
+            this.nextIcon = icon;
+            this.nextDisabled = disabled;
+            return this;
+        }
+
+        /** A fixed button outside the item slots (decoration, close, search...). */
+        public Builder<T> button(int slot, Button button) {
+            buttons.put(slot, button);
+            return this;
+        }
+
+        public Builder<T> secure() {
+            policies.addAll(EnumSet.allOf(InventoryPolicy.class));
+            return this;
+        }
+
+        public Builder<T> policy(InventoryPolicy... policies) {
+            this.policies.addAll(Arrays.asList(policies));
+            return this;
+        }
+
+        public PagedMenu<T> build() {
+            return new PagedMenu<>(this);
+        }
+    }
+}
@@ -2,13 +2,17 @@ package io.github.fragmer2.bslib.api.menu;
 
 import io.github.fragmer2.bslib.api.GuiManagerProvider;
 import io.github.fragmer2.bslib.api.button.Button;
-import io.github.fragmer2.bslib.api.item.Item;
+import io.github.fragmer2.bslib.api.reactive.ListChange;
 import io.github.fragmer2.bslib.api.reactive.Reactive;
+import io.github.fragmer2.bslib.api.reactive.ReactiveList;
+import io.github.fragmer2.bslib.api.reactive.Subscription;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -56,13 +60,35 @@ import java.util.function.Function;
  *       .open(player);
  *
  * The render function is re-called every time a bound Reactive changes.
- * GUI auto-updates. No manual update code needed.
+ * GUI auto-updates. No manual update code needed. Only slots whose item
+ * actually changed are written to the inventory.
+ *
+ * ===== Per-slot dependencies: =====
+ *   ReactiveMenu.create("Profile", 3)
+ *       .render(ctx -> ctx.fill(Material.GRAY_STAINED_GLASS_PANE))     // runs once
+ *       .slot(11, b -> b.item(Material.GOLD_INGOT).text("Coins: " + coins.get()).done(), coins)
+ *       .slot(15, b -> b.item(Material.IRON_SWORD).text("Kills: " + kills.get()).done(), kills)
+ *       .build();
+ *
+ * A change of coins recomputes slot 11 only — not the render function and
+ * not slot 15.
+ *
+ * ===== Large lists: =====
+ *   ReactiveMenu.create("Auction House", 6)
+ *       .list(auctions, ReactiveMenu.slots(0, 44), listing -> Button.of(listing.icon(), e -> bid(e, listing)))
+ *       .render(ctx -> ctx.button(49).item(Material.BARRIER).text("Close").closeOnClick())
+ *       .build();
+ *
+ * List slots follow the list's deltas: a new listing re-renders the slots from
+ * its position on, an updated one only its own slot — not the whole menu.
  */
 public class ReactiveMenu {
     private final String title;
     private final int rows;
     private Consumer<RenderContext> renderFn;
     private final List<Reactive<?>> bindings = new ArrayList<>();
+    private final List<ListSection<?>> sections = new ArrayList<>();
+    private final List<SlotSection> slotSections = new ArrayList<>();
     private final Set<InventoryPolicy> policies = EnumSet.noneOf(InventoryPolicy.class);
 
     private ReactiveMenu(String title, int rows) {
@@ -92,6 +118,34 @@ public class ReactiveMenu {
         return this;
     }
 
+    /**
+     * Show a ReactiveList in the given slots: element i in slots[i], rendered by
+     * {@code renderer}; slots past the end of the list stay empty. Slots are
+     * re-rendered only when a change touches their position.
+     */
+    public <T> ReactiveMenu list(ReactiveList<T> list, int[] slots, Function<T, Button> renderer) {
+        sections.add(new ListSection<>(list, slots.clone(), renderer));
+        return this;
+    }
+
+    /**
+     * A slot with its own render function that depends only on {@code dependsOn}:
+     * when one of them changes, just this slot is recomputed and re-rendered.
+     * Declare the button on the given builder (finish with {@code done()} or an
+     * auto-finishing call such as {@code onClick}).
+     */
+    public ReactiveMenu slot(int slot, Consumer<ButtonBuilder> render, Reactive<?>... dependsOn) {
+        slotSections.add(new SlotSection(slot, render, List.of(dependsOn)));
+        return this;
+    }
+
+    /** Consecutive slots from {@code first} to {@code last}, inclusive. */
+    public static int[] slots(int first, int last) {
+        int[] slots = new int[last - first + 1];
+        for (int i = 0; i < slots.length; i++) slots[i] = first + i;
+        return slots;
+    }
+
     public ReactiveMenu secure() {
         policies.addAll(EnumSet.allOf(InventoryPolicy.class));
         return this;
@@ -106,7 +160,7 @@ public class ReactiveMenu {
      * Build the menu (returns a Menu that can be opened).
      */
     public Menu build() {
-        return new DeclarativeMenu(title, rows, renderFn, bindings, policies);
+        return new DeclarativeMenu(title, rows, renderFn, bindings, sections, slotSections, policies);
     }
 
     /**
@@ -121,20 +175,36 @@ public class ReactiveMenu {
     private static class DeclarativeMenu extends Menu {
         private final Consumer<RenderContext> renderFn;
         private final List<Reactive<?>> bindings;
+        private final List<ListSection<?>> sections;
+        private final List<SlotSection> slotSections;
         private final long[] lastVersions;
 
         DeclarativeMenu(String title, int rows, Consumer<RenderContext> renderFn,
-                        List<Reactive<?>> bindings, Set<InventoryPolicy> policies) {
+                        List<Reactive<?>> bindings, List<ListSection<?>> sections,
+                        List<SlotSection> slotSections, Set<InventoryPolicy> policies) {
             super(title, rows);
             this.renderFn = renderFn;
             this.bindings = bindings;
+            this.sections = List.copyOf(sections);
+            this.slotSections = List.copyOf(slotSections);
             this.lastVersions = new long[bindings.size()];
             for (InventoryPolicy p : policies) policy(p);
+            rerender();
         }
 
         @Override
         protected void setup() {
-            rerender();
+            // Menu's constructor calls this before our fields are set; the constructor renders instead
+        }
+
+        @Override
+        public void onOpen(MenuView view) {
+            sections.forEach(ListSection::open);
+        }
+
+        @Override
+        public void onClose(MenuView view) {
+            sections.forEach(ListSection::close);
         }
 
         /**
@@ -162,11 +232,161 @@ public class ReactiveMenu {
             if (renderFn != null) {
                 renderFn.accept(ctx);
             }
+            for (ListSection<?> section : sections) {
+                section.install(this);
+            }
+            for (SlotSection section : slotSections) {
+                section.install(this);
+            }
         }
 
         boolean hasBindings() {
             return !bindings.isEmpty();
         }
+
+        Subscription watchBindings(Runnable onChange) {
+            List<Subscription> subscriptions = new ArrayList<>();
+            for (Reactive<?> binding : bindings) {
+                subscriptions.add(binding.subscribeChange((old, now) -> onChange.run()));
+            }
+            return () -> subscriptions.forEach(Subscription::unsubscribe);
+        }
+    }
+
+    // ========== List sections ==========
+
+    /**
+     * A ReactiveList shown in a fixed set of slots. Each slot's button is bound
+     * to a per-slot version that the list's deltas bump (and announce) only for
+     * the positions they touch, so the refresh system re-renders just those
+     * slots. Listens to the list only while the menu is open.
+     */
+    private static final class ListSection<T> {
+        private final ReactiveList<T> list;
+        private final int[] slots;
+        private final Function<T, Button> renderer;
+        private final AtomicLongArray versions;
+        private final List<List<Runnable>> watchers;
+        private Subscription subscription;
+        private int openViews;
+
+        ListSection(ReactiveList<T> list, int[] slots, Function<T, Button> renderer) {
+            this.list = list;
+            this.slots = slots;
+            this.renderer = renderer;
+            this.versions = new AtomicLongArray(slots.length);
+            this.watchers = new ArrayList<>(slots.length);
+            for (int i = 0; i < slots.length; i++) watchers.add(new CopyOnWriteArrayList<>());
+        }
+
+        void install(Menu menu) {
+            for (int i = 0; i < slots.length; i++) {
+                menu.getButtons().put(slots[i], slotButton(i));
+            }
+        }
+
+        private Button slotButton(int position) {
+            return Button.dynamic(view -> {
+                        T item = itemAt(position);
+                        return item != null ? renderer.apply(item).render(view) : null;
+                    })
+                    .click(ctx -> {
+                        T item = itemAt(position);
+                        if (item != null) renderer.apply(item).onClick(ctx);
+                    })
+                    .bind(() -> versions.get(position), onChange -> {
+                        List<Runnable> slotWatchers = watchers.get(position);
+                        slotWatchers.add(onChange);
+                        return () -> slotWatchers.remove(onChange);
+                    });
+        }
+
+        private T itemAt(int position) {
+            try {
+                return position < list.size() ? list.get(position) : null;
+            } catch (IndexOutOfBoundsException e) {
+                return null; // shrank meanwhile
+            }
+        }
+
+        synchronized void open() {
+            if (openViews++ == 0) subscription = list.subscribeDelta(this::onChanges);
+        }
+
+        synchronized void close() {
+            if (openViews > 0 && --openViews == 0) {
+                subscription.unsubscribe();
+                subscription = null;
+            }
+        }
+
+        private void onChanges(List<ListChange<T>> changes) {
+            for (ListChange<T> change : changes) {
+                int last = Math.min(change.lastAffected(), slots.length - 1);
+                for (int i = change.firstAffected(); i <= last; i++) {
+                    versions.incrementAndGet(i);
+                    watchers.get(i).forEach(Runnable::run);
+                }
+            }
+        }
+    }
+
+    // ========== Slot sections ==========
+
+    /**
+     * One slot rendered by its own function, recomputed only when one of its
+     * dependencies changed since the last computation. The button is bound to
+     * the dependencies, so the refresh system re-renders just this slot.
+     */
+    private static final class SlotSection {
+        private final int slot;
+        private final Consumer<ButtonBuilder> render;
+        private final List<Reactive<?>> dependsOn;
+        private long[] computedVersions;
+        private Button current;
+
+        SlotSection(int slot, Consumer<ButtonBuilder> render, List<Reactive<?>> dependsOn) {
+            this.slot = slot;
+            this.render = render;
+            this.dependsOn = dependsOn;
+        }
+
+        void install(Menu menu) {
+            menu.getButtons().put(slot, Button.dynamic(view -> {
+                        Button button = current();
+                        return button != null ? button.render(view) : null;
+                    })
+                    .click(ctx -> {
+                        Button button = current();
+                        if (button != null) button.onClick(ctx);
+                    })
+                    .bind(this::versionSum, onChange -> {
+                        List<Subscription> subscriptions = new ArrayList<>();
+                        for (Reactive<?> dependency : dependsOn) {
+                            subscriptions.add(dependency.subscribeChange((old, now) -> onChange.run()));
+                        }
+                        return () -> subscriptions.forEach(Subscription::unsubscribe);
+                    }));
+        }
+
+        /** The slot's button, recomputed if a dependency changed since last time. */
+        private synchronized Button current() {
+            long[] versions = new long[dependsOn.size()];
+            for (int i = 0; i < versions.length; i++) versions[i] = dependsOn.get(i).version();
+            if (current == null || !Arrays.equals(versions, computedVersions)) {
+                Button[] built = new Button[1];
+                render.accept(new ButtonBuilder(button -> built[0] = button));
+                current = built[0];
+                computedVersions = versions;
+            }
+            return current;
+        }
+
+        private Object versionSum() {
+            long sum = 0;
+            for (Reactive<?> dependency : dependsOn) sum += dependency.version();
+            return sum;
+        }
     }
 
     // ========== Render Context (DSL) ==========
@@ -250,8 +470,7 @@ public class ReactiveMenu {
      * Fluent builder for declaring a button in the render context.
      */
     public static class ButtonBuilder {
-        private final Menu menu;
-        private final int slot;
+        private final Consumer<Button> sink;
         private ItemStack item;
         private Material material;
         private String text;
@@ -261,8 +480,11 @@ public class ReactiveMenu {
         private String command;
 
         ButtonBuilder(Menu menu, int slot) {
-            this.menu = menu;
-            this.slot = slot;
+            this(button -> menu.getButtons().put(slot, button));
+        }
+
+        ButtonBuilder(Consumer<Button> sink) {
+            this.sink = sink;
         }
 
         /** Set item directly. */
@@ -316,10 +538,8 @@ public class ReactiveMenu {
             // Build the item
             ItemStack finalItem = item;
             if (finalItem == null && material != null) {
-                Item builder = Item.of(material);
-                if (text != null) builder.name(text);
-                if (lore != null) builder.lore(lore.toArray(new String[0]));
-                finalItem = builder.build();
+                // Rerenders declare the same icons again; build each distinct one once
+                finalItem = MenuItemCache.get(material, text, lore != null ? lore : List.of());
             }
             if (finalItem == null) finalItem = new ItemStack(Material.BARRIER);
 
@@ -329,7 +549,7 @@ public class ReactiveMenu {
             if (closeOnClick) button = button.closeOnClick();
             if (command != null) button = button.command(command);
 
-            menu.getButtons().put(slot, button);
+            sink.accept(button);
             return this;
         }
     }
@@ -353,4 +573,15 @@ public class ReactiveMenu {
         }
         return false;
     }
+
+    /**
+     * Subscribe {@code onChange} to a DeclarativeMenu's bindings (for the
+     * event-driven refresh system). Returns null for other menus.
+     */
+    public static Subscription watch(Menu menu, Runnable onChange) {
+        if (menu instanceof DeclarativeMenu dm && dm.hasBindings()) {
+            return dm.watchBindings(onChange);
+        }
+        return null;
+    }
 }
@@ -0,0 +1,158 @@
+package io.github.fragmer2.bslib.api.message;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared MiniMessage parsing with a bounded string → Component cache.
+ *
+ * Components are immutable, so the same markup parses once and is reused by
+ * every player and every resend. Used by {@link Msg} and the reactive
+ * scoreboard/bossbar/actionbar bindings.
+ *
+ *   Component line = Components.parse("<gold>Coins: <white>" + coins);
+ *
+ *   // Markup parsed once; per player only the {holes} are filled in
+ *   MessageTemplate hud = Components.template("<gold>{coins}</gold> coins · <red>{hp}❤");
+ *   player.sendActionBar(hud.render(Map.of("coins", coins, "hp", hp)));
+ *
+ * When full, the cache evicts entries that were not read since the last sweep
+ * (second chance), so hot lines stay while one-off strings cycle out. Templates
+ * are cached the same way, within the same capacity.
+ */
+public final class Components {
+    private static final MiniMessage MM = MiniMessage.miniMessage();
+    /** Longer strings are parsed but not cached (chat logs, books). */
+    private static final int MAX_CACHED_LENGTH = 1024;
+
+    private static final Map<String, Entry<Component>> cache = new ConcurrentHashMap<>();
+    private static final Map<String, Entry<MessageTemplate>> templates = new ConcurrentHashMap<>();
+    private static final AtomicBoolean sweeping = new AtomicBoolean();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder evictions = new LongAdder();
+    private static volatile int maxSize = 4096;
+
+    private Components() {}
+
+    /**
+     * Cache metrics.
+     *
+     * @param size      cached strings
+     * @param maxSize   capacity
+     * @param hits      parses served from the cache
+     * @param misses    parses that ran MiniMessage
+     * @param evictions entries dropped to stay within capacity
+     * @param templates compiled templates
+     */
+    public record Stats(int size, int maxSize, long hits, long misses, long evictions, int templates) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        volatile boolean used;
+
+        Entry(V value) {
+            this.value = value;
+        }
+    }
+
+    // ========== Parsing ==========
+
+    /** MiniMessage → Component, cached. */
+    public static Component parse(String miniMessage) {
+        if (miniMessage == null || miniMessage.isEmpty()) return Component.empty();
+        if (miniMessage.length() > MAX_CACHED_LENGTH) {
+            misses.increment();
+            return MM.deserialize(miniMessage);
+        }
+        Entry<Component> entry = cache.get(miniMessage);
+        if (entry != null) {
+            entry.used = true;
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        Component component = MM.deserialize(miniMessage);
+        cache.putIfAbsent(miniMessage, new Entry<>(component));
+        if (cache.size() > maxSize) sweep(cache);
+        return component;
+    }
+
+    /**
+     * A precompiled template; {@code {name}} holes are filled per render.
+     * Templates are cached by their markup.
+     */
+    public static MessageTemplate template(String miniMessage) {
+        if (miniMessage.length() > MAX_CACHED_LENGTH) return new MessageTemplate(miniMessage);
+        Entry<MessageTemplate> entry = templates.get(miniMessage);
+        if (entry != null) {
+            entry.used = true;
+            return entry.value;
+        }
+        MessageTemplate template = new MessageTemplate(miniMessage);
+        templates.putIfAbsent(miniMessage, new Entry<>(template));
+        if (templates.size() > maxSize) sweep(templates);
+        return template;
+    }
+
+    static Component parseUncached(String miniMessage) {
+        return MM.deserialize(miniMessage);
+    }
+
+    // ========== Capacity ==========
+
+    /** Maximum cached strings, and separately templates (default 4096). */
+    public static void setMaxSize(int size) {
+        if (size < 1) throw new IllegalArgumentException("size must be >= 1");
+        maxSize = size;
+        if (cache.size() > size) sweep(cache);
+        if (templates.size() > size) sweep(templates);
+    }
+
+    /** Evict unused entries until {@code map} is back under the capacity; one sweeper at a time. */
+    private static void sweep(Map<String, ? extends Entry<?>> map) {
+        if (!sweeping.compareAndSet(false, true)) return;
+        try {
+            while (map.size() > maxSize) {
+                Iterator<? extends Entry<?>> it = map.values().iterator();
+                while (it.hasNext() && map.size() > maxSize) {
+                    Entry<?> entry = it.next();
+                    if (entry.used) {
+                        entry.used = false;   // second chance
+                    } else {
+                        it.remove();
+                        evictions.increment();
+                    }
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    // ========== Metrics ==========
+
+    public static Stats stats() {
+        return new Stats(cache.size(), maxSize, hits.sum(), misses.sum(), evictions.sum(), templates.size());
+    }
+
+    /** Drop cached components and templates (called on disable). */
+    public static void clear() {
+        cache.clear();
+        templates.clear();
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+}
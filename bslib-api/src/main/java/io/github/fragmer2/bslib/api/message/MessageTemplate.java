@@ -0,0 +1,135 @@
+package io.github.fragmer2.bslib.api.message;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * MiniMessage markup with {@code {name}} holes, parsed once.
+ *
+ * Each hole is compiled to a marker character inside the parsed Component;
+ * {@link #render(Map)} swaps the markers for the values, keeping the style
+ * at the hole, without parsing the markup again. Values are inserted as plain
+ * text — tags inside them are not interpreted. Holes stand for text only: a
+ * hole inside a tag (click, hover, insertion or font arguments) is rejected.
+ *
+ *   MessageTemplate kill = Components.template("<gray>{killer} <red>⚔</red> {victim}");
+ *   Bukkit.broadcast(kill.render(Map.of("killer", killer.getName(), "victim", victim.getName())));
+ *
+ * Obtain via {@link Components#template(String)}.
+ */
+public final class MessageTemplate {
+    private static final char FIRST_MARKER = '\uE000';
+    private static final int MAX_HOLES = 256;
+    private static final Pattern MARKERS = Pattern.compile("[\uE000-\uE0FF]");
+    private static final Pattern HOLE = Pattern.compile("\\{[^}]+}");
+
+    private final String source;
+    private final List<String> holes;
+    private final Component compiled;
+
+    MessageTemplate(String source) {
+        this.source = Objects.requireNonNull(source, "source");
+        List<String> names = new ArrayList<>();
+        StringBuilder markup = new StringBuilder(source.length());
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            checkReserved(c);
+            if (c == '\\' && i + 1 < source.length() && source.charAt(i + 1) == '<') {
+                markup.append("\\<");   // escaped, not a tag
+                i += 2;
+                continue;
+            }
+            int tagEnd = c == '<' ? tagEnd(source, i) : -1;
+            if (tagEnd > 0) {
+                String tag = source.substring(i, tagEnd + 1);
+                if (HOLE.matcher(tag).find()) {
+                    throw new IllegalArgumentException("Holes are only supported in text, not inside a tag: " + tag);
+                }
+                tag.chars().forEach(ch -> checkReserved((char) ch));
+                markup.append(tag);
+                i = tagEnd + 1;
+                continue;
+            }
+            int close = c == '{' ? source.indexOf('}', i + 1) : -1;
+            if (close > i + 1) {
+                String name = source.substring(i + 1, close);
+                int index = names.indexOf(name);
+                if (index < 0) {
+                    if (names.size() == MAX_HOLES) throw new IllegalArgumentException("Too many holes in template: " + source);
+                    index = names.size();
+                    names.add(name);
+                }
+                markup.append((char) (FIRST_MARKER + index));
+                i = close + 1;
+            } else {
+                markup.append(c);
+                i++;
+            }
+        }
+        this.holes = List.copyOf(names);
+        this.compiled = Components.parseUncached(markup.toString());
+    }
+
+    private static void checkReserved(char c) {
+        if (c >= FIRST_MARKER && c < FIRST_MARKER + MAX_HOLES) {
+            throw new IllegalArgumentException("Template contains reserved character U+" + Integer.toHexString(c).toUpperCase());
+        }
+    }
+
+    /**
+     * Index of the {@code >} closing the tag opened at {@code open}, skipping
+     * quoted arguments; -1 if that {@code <} is plain text.
+     */
+    private static int tagEnd(String source, int open) {
+        if (open + 1 >= source.length() || Character.isWhitespace(source.charAt(open + 1))) return -1;
+        char quote = 0;
+        for (int i = open + 1; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') i++;
+                else if (c == quote) quote = 0;
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '>') {
+                return i;
+            } else if (c == '<') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /** Fill the holes; a hole without a value renders as {@code {name}}. */
+    public Component render(Map<String, ?> values) {
+        if (holes.isEmpty()) return compiled;
+        return compiled.replaceText(TextReplacementConfig.builder()
+                .match(MARKERS)
+                .replacement((match, text) -> {
+                    String name = holes.get(match.group().charAt(0) - FIRST_MARKER);
+                    Object value = values.get(name);
+                    return text.content(value != null ? String.valueOf(value) : "{" + name + "}");
+                })
+                .build());
+    }
+
+    /** Single-hole shortcut. */
+    public Component render(String hole, Object value) {
+        return render(Map.of(hole, value));
+    }
+
+    /** Hole names, in order of first appearance. */
+    public List<String> holes() {
+        return holes;
+    }
+
+    public String source() {
+        return source;
+    }
+}
@@ -3,7 +3,6 @@ package io.github.fragmer2.bslib.api.message;
 import io.github.fragmer2.bslib.api.config.Config;
 import io.github.fragmer2.bslib.api.placeholder.Placeholders;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.title.Title;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -40,12 +39,14 @@ import java.util.Map;
  * Raw (no config):
  *   Msg.of("<red>Error!").send(player);
  *
+ * Parsed components are cached ({@link Components}); for per-player text on
+ * hot paths prefer a precompiled {@link Components#template(String)}.
+ *
  * Multi-language:
  *   Msg.init(plugin, "messages_en.yml");
  *   Msg.addLanguage("ru", Config.of(plugin, "messages_ru.yml"));
  */
 public final class Msg {
-    private static final MiniMessage MM = MiniMessage.miniMessage();
     private static Config defaultMessages;
     private static final Map<String, Config> languages = new HashMap<>();
     private static String prefix = "";
@@ -79,6 +80,7 @@ public final class Msg {
         languages.clear();
         prefix = "";
         defaultLang = "en";
+        Components.clear();
     }
 
     // ========== Create message ==========
@@ -190,11 +192,11 @@ public final class Msg {
 
         public void send(CommandSender sender) {
             String resolved = (sender instanceof Player p) ? resolve(p) : resolve();
-            sender.sendMessage(MM.deserialize(resolved));
+            sender.sendMessage(Components.parse(resolved));
         }
 
         public void send(Player player) {
-            player.sendMessage(MM.deserialize(resolve(player)));
+            player.sendMessage(Components.parse(resolve(player)));
         }
 
         public void sendTitle(Player player) {
@@ -202,23 +204,23 @@ public final class Msg {
         }
 
         public void sendTitle(Player player, Duration fadeIn, Duration stay, Duration fadeOut) {
-            Component title = MM.deserialize(resolve(player));
+            Component title = Components.parse(resolve(player));
             player.showTitle(Title.title(title, Component.empty(),
                     Title.Times.times(fadeIn, stay, fadeOut)));
         }
 
         public void sendSubtitle(Player player, String titleKey) {
-            Component titleComp = MM.deserialize(Msg.key(titleKey).resolve(player));
-            Component subComp = MM.deserialize(resolve(player));
+            Component titleComp = Components.parse(Msg.key(titleKey).resolve(player));
+            Component subComp = Components.parse(resolve(player));
             player.showTitle(Title.title(titleComp, subComp));
         }
 
         public void sendActionBar(Player player) {
-            player.sendActionBar(MM.deserialize(resolve(player)));
+            player.sendActionBar(Components.parse(resolve(player)));
         }
 
         public void broadcast() {
-            Component comp = MM.deserialize(resolve());
+            Component comp = Components.parse(resolve());
             org.bukkit.Bukkit.broadcast(comp);
         }
 
@@ -237,11 +239,11 @@ public final class Msg {
          * Get as Adventure Component.
          */
         public Component component(Player player) {
-            return MM.deserialize(resolve(player));
+            return Components.parse(resolve(player));
         }
 
         public Component component() {
-            return MM.deserialize(resolve());
+            return Components.parse(resolve());
         }
     }
 }
@@ -0,0 +1,98 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The one actionbar sender behind {@link ReactiveBinding.ActionBarBuilder}.
+ *
+ * Every bound actionbar is a slot in one table; {@link BindingRenderer}'s tick
+ * walks the table once and resends only the slots whose text is about to fade.
+ * A text change is sent right away and restarts the slot's interval, so an
+ * actionbar that just changed is not resent on top. First resends are
+ * staggered, so bars created together (e.g. on enable) do not all resend on
+ * the same tick. Removing a slot is a single set removal.
+ */
+final class ActionBarSlots {
+    private static final Set<Slot> slots = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger nextPhase = new AtomicInteger();
+    private static final LongAdder sent = new LongAdder();
+    private static final LongAdder resent = new LongAdder();
+
+    private ActionBarSlots() {}
+
+    /** Show {@code text} now and keep it up, resending every {@code intervalTicks}. */
+    static Slot add(Player player, Component text, long intervalTicks) {
+        long interval = Math.max(1, intervalTicks);
+        Slot slot = new Slot(player, interval);
+        long phase = nextPhase.getAndIncrement() % interval;
+        slot.show(text);
+        slot.nextSend = BindingRenderer.currentTick() + interval - phase;
+        slots.add(slot);
+        BindingRenderer.ensureStarted();
+        return slot;
+    }
+
+    static void remove(Slot slot) {
+        slots.remove(slot);
+    }
+
+    /** One pass over the table; called every tick by the renderer. */
+    static void resend(long now) {
+        for (Slot slot : slots) {
+            if (now < slot.nextSend) continue;
+            slot.nextSend = now + slot.interval;
+            if (slot.player.isOnline()) {
+                slot.player.sendActionBar(slot.shown);
+                resent.increment();
+            }
+        }
+    }
+
+    static int size() {
+        return slots.size();
+    }
+
+    /** Sends caused by text changes (including the first). */
+    static long sentCount() {
+        return sent.sum();
+    }
+
+    /** Periodic resends of unchanged text. */
+    static long resentCount() {
+        return resent.sum();
+    }
+
+    static void clear() {
+        slots.clear();
+        sent.reset();
+        resent.reset();
+    }
+
+    static final class Slot {
+        private final Player player;
+        private final long interval;
+        private volatile Component shown;
+        private volatile long nextSend;
+
+        private Slot(Player player, long interval) {
+            this.player = player;
+            this.interval = interval;
+        }
+
+        /** Send new text now; the next resend is a full interval away. */
+        void show(Component text) {
+            shown = text;
+            nextSend = BindingRenderer.currentTick() + interval;
+            if (player.isOnline()) {
+                player.sendActionBar(text);
+                sent.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import io.github.fragmer2.bslib.api.task.Tasks;
+import org.bukkit.Bukkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A {@link Delivery} that collects tasks and runs them in one scheduled drain:
+ * however many changes arrive before the drain, the executor sees one task.
+ * Tasks queued while draining wait for the next drain.
+ */
+final class BatchedDelivery implements Delivery {
+
+    static final Delivery CALLER = new Delivery() {
+        @Override
+        public boolean isCurrentThread() {
+            return true;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            task.run();
+        }
+    };
+
+    static final Delivery MAIN = new BatchedDelivery(Bukkit::isPrimaryThread,
+            drain -> Tasks.sync().runTracked(drain));
+
+    static final Delivery ASYNC = new BatchedDelivery(() -> !Bukkit.isPrimaryThread(),
+            drain -> Tasks.async().runTracked(drain));
+
+    private final BooleanSupplier isCurrentThread;
+    private final Executor executor;
+    private List<Runnable> pending = new ArrayList<>();
+    private boolean scheduled;
+
+    BatchedDelivery(BooleanSupplier isCurrentThread, Executor executor) {
+        this.isCurrentThread = isCurrentThread;
+        this.executor = executor;
+    }
+
+    @Override
+    public boolean isCurrentThread() {
+        return isCurrentThread.getAsBoolean();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        synchronized (this) {
+            pending.add(task);
+            if (scheduled) return;
+            scheduled = true;
+        }
+        executor.execute(this::drain);
+    }
+
+    private void drain() {
+        List<Runnable> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new ArrayList<>();
+            scheduled = false;
+        }
+        for (Runnable task : batch) {
+            try { task.run(); } catch (Exception e) { e.printStackTrace(); }
+        }
+    }
+}
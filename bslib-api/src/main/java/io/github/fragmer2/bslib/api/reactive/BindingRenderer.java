@@ -0,0 +1,263 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import io.github.fragmer2.bslib.api.task.FrameworkTask;
+import io.github.fragmer2.bslib.api.task.Tasks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Frame scheduler for {@link ReactiveBinding} scoreboards, bossbars and actionbars.
+ *
+ * A change only marks its binding dirty; the binding is rendered (MiniMessage
+ * parse + packet) at most once per frame with the value current at that time,
+ * however often it changed in between. Players are spread round-robin over the
+ * ticks of a frame, and each tick stops rendering once its time budget is used
+ * up — what is left is rendered first on the next tick.
+ *
+ *   // Render every 4 ticks, at most 1.5ms of rendering per tick
+ *   BindingRenderer.configure(4, 1.5);
+ *
+ *   for (BindingRenderer.Stats s : BindingRenderer.stats()) {
+ *       log(s.label() + ": " + s.renders() + " renders, avg " + s.avgMicros() + "µs");
+ *   }
+ *
+ * Rendering runs on the main thread; marking is safe from any thread.
+ */
+public final class BindingRenderer {
+    private static final Map<UUID, Frame> frames = new ConcurrentHashMap<>();
+    private static final Map<String, Cost> costs = new ConcurrentHashMap<>();
+    private static final Deque<Frame> backlog = new ArrayDeque<>();
+    private static final AtomicInteger nextSlot = new AtomicInteger();
+
+    private static volatile int frameTicks = 2;
+    private static volatile long tickBudgetNanos = 2_000_000L;
+    private static FrameworkTask task;
+    private static volatile long tick;
+
+    private BindingRenderer() {}
+
+    /**
+     * Per-label render cost, summed over all players.
+     *
+     * @param label     binding kind, e.g. "scoreboard line 3" or "bossbar title"
+     * @param bindings  live bindings with this label
+     * @param marks     changes that marked a binding dirty
+     * @param renders   renders performed
+     * @param avgMicros average render time
+     * @param maxMicros slowest render
+     */
+    public record Stats(String label, int bindings, long marks, long renders, double avgMicros, double maxMicros) {
+        /** Changes folded into an already pending render. */
+        public long coalesced() {
+            return Math.max(0, marks - renders);
+        }
+    }
+
+    // ========== Configuration ==========
+
+    /**
+     * @param frameTicks       render each binding at most once per this many ticks (default 2)
+     * @param tickBudgetMillis rendering time per tick before the rest waits for the next tick (default 2ms)
+     */
+    public static void configure(int frameTicks, double tickBudgetMillis) {
+        if (frameTicks < 1) throw new IllegalArgumentException("frameTicks must be >= 1");
+        if (!(tickBudgetMillis > 0)) throw new IllegalArgumentException("tickBudgetMillis must be > 0");
+        BindingRenderer.frameTicks = frameTicks;
+        BindingRenderer.tickBudgetNanos = (long) (tickBudgetMillis * 1_000_000L);
+    }
+
+    public static int frameTicks() {
+        return frameTicks;
+    }
+
+    public static double tickBudgetMillis() {
+        return tickBudgetNanos / 1_000_000.0;
+    }
+
+    // ========== Metrics ==========
+
+    /** Render cost per label, most expensive (total time) first. */
+    public static List<Stats> stats() {
+        List<Stats> result = new ArrayList<>();
+        for (Map.Entry<String, Cost> entry : costs.entrySet()) {
+            Cost c = entry.getValue();
+            long renders = c.renders.sum();
+            result.add(new Stats(entry.getKey(), c.bindings.get(), c.marks.sum(), renders,
+                    renders > 0 ? c.nanos.sum() / 1_000.0 / renders : 0,
+                    c.maxNanos.get() / 1_000.0));
+        }
+        result.sort(Comparator.comparingDouble((Stats s) -> s.avgMicros() * s.renders()).reversed());
+        return result;
+    }
+
+    /** Bindings currently waiting for their frame. */
+    public static int pendingCount() {
+        int pending = 0;
+        for (Frame frame : frames.values()) pending += frame.dirty.size();
+        return pending;
+    }
+
+    /** Players with at least one live binding. */
+    static int frameCount() {
+        return frames.size();
+    }
+
+    // ========== Registration ==========
+
+    /**
+     * Register a binding of {@code owner}. {@code render} runs on the main
+     * thread, at most once per frame, after {@link Binding#markDirty()}.
+     */
+    static Binding register(UUID owner, String label, Runnable render) {
+        Frame frame = frames.compute(owner, (id, existing) -> {
+            Frame f = existing != null ? existing : new Frame(id, nextSlot.getAndIncrement());
+            f.bindings++;
+            return f;
+        });
+        Cost cost = costs.computeIfAbsent(label, l -> new Cost());
+        cost.bindings.incrementAndGet();
+        ensureStarted();
+        return new Binding(frame, cost, render);
+    }
+
+    /** Drop a player's pending renders (on quit). */
+    static void forget(UUID owner) {
+        Frame frame = frames.remove(owner);
+        if (frame != null) frame.dirty.clear();
+    }
+
+    /** Stop rendering and reset metrics (on disable). */
+    public static synchronized void clear() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        frames.clear();
+        costs.clear();
+        ActionBarSlots.clear();
+        synchronized (backlog) {
+            backlog.clear();
+        }
+    }
+
+    static synchronized void ensureStarted() {
+        if (task == null) {
+            task = Tasks.sync().repeat(1).runTracked(BindingRenderer::tick);
+        }
+    }
+
+    // ========== Frame loop ==========
+
+    static long currentTick() {
+        return tick;
+    }
+
+    /**
+     * One server tick: resend fading actionbars, queue the players whose slot
+     * is due, then render within the budget.
+     */
+    static void tick() {
+        synchronized (backlog) {
+            long now = ++tick;
+            ActionBarSlots.resend(now);
+            int ticks = frameTicks;
+            for (Frame frame : frames.values()) {
+                if (frame.slot % ticks == now % ticks && !frame.dirty.isEmpty() && !frame.queued) {
+                    frame.queued = true;
+                    backlog.addLast(frame);
+                }
+            }
+
+            long deadline = System.nanoTime() + tickBudgetNanos;
+            Frame frame;
+            while ((frame = backlog.peekFirst()) != null) {
+                Binding binding;
+                while ((binding = frame.dirty.poll()) != null) {
+                    binding.render();
+                    if (System.nanoTime() - deadline > 0) return;   // rest of this frame goes first next tick
+                }
+                frame.queued = false;
+                backlog.pollFirst();
+            }
+        }
+    }
+
+    /** A registered binding; mark it dirty on change, cancel it on destroy. */
+    static final class Binding {
+        private final Frame frame;
+        private final Cost cost;
+        private final Runnable render;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private volatile boolean cancelled;
+
+        private Binding(Frame frame, Cost cost, Runnable render) {
+            this.frame = frame;
+            this.cost = cost;
+            this.render = render;
+        }
+
+        void markDirty() {
+            if (cancelled) return;
+            cost.marks.increment();
+            if (dirty.compareAndSet(false, true)) frame.dirty.add(this);
+        }
+
+        void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            cost.bindings.decrementAndGet();
+            frame.dirty.remove(this);
+            // Last binding of this player gone: stop visiting the frame every tick
+            frames.computeIfPresent(frame.owner, (id, f) -> f == frame && --f.bindings == 0 ? null : f);
+        }
+
+        private void render() {
+            dirty.set(false);
+            if (cancelled) return;
+            long start = System.nanoTime();
+            try {
+                render.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            long took = System.nanoTime() - start;
+            cost.renders.increment();
+            cost.nanos.add(took);
+            cost.maxNanos.accumulateAndGet(took, Math::max);
+        }
+    }
+
+    private static final class Frame {
+        final UUID owner;
+        final int slot;
+        final Queue<Binding> dirty = new ConcurrentLinkedQueue<>();
+        int bindings;   // guarded by the frames map entry
+        boolean queued;
+
+        Frame(UUID owner, int slot) {
+            this.owner = owner;
+            this.slot = slot;
+        }
+    }
+
+    private static final class Cost {
+        final AtomicInteger bindings = new AtomicInteger();
+        final LongAdder marks = new LongAdder();
+        final LongAdder renders = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Ordered delivery of a collection's change events.
+ *
+ * Mutations append their changes under the collection's lock, then flush.
+ * Only one thread delivers at a time and batches go out in the order they
+ * were recorded, so listeners replaying deltas always see them in mutation
+ * order — even when another thread (or a listener) mutates meanwhile: its
+ * changes are picked up by the delivery already running. Inside
+ * {@link Reactive#transaction(Runnable)} everything recorded is delivered as
+ * one batch at commit.
+ */
+final class ChangeQueue<C> implements Runnable {
+    private final Consumer<List<C>> sink;
+    private List<C> pending = new ArrayList<>();
+    private boolean delivering;
+
+    ChangeQueue(Consumer<List<C>> sink) {
+        this.sink = sink;
+    }
+
+    synchronized void add(C change) {
+        pending.add(change);
+    }
+
+    /** Deliver what was recorded, or defer it to the current transaction. */
+    void flush() {
+        if (Transaction.deferred(this, () -> this) != null) return;
+        run();
+    }
+
+    @Override
+    public void run() {
+        synchronized (this) {
+            if (delivering) return;
+            delivering = true;
+        }
+        try {
+            while (true) {
+                List<C> batch;
+                synchronized (this) {
+                    if (pending.isEmpty()) {
+                        delivering = false;
+                        return;
+                    }
+                    batch = pending;
+                    pending = new ArrayList<>();
+                }
+                sink.accept(batch);
+            }
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                delivering = false;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Listener wrappers that hand calls to a {@link Delivery}, coalescing per
+ * subscriber: while a call is queued, later changes update it instead of
+ * queueing another. A change made on the delivery's thread with nothing
+ * queued runs inline, as with no delivery at all.
+ */
+final class Delivered {
+    private Delivered() {}
+
+    /** Value listener: a queued call ends up with the first old value and the latest new one. */
+    static final class Values<T> implements BiConsumer<T, T>, Consumer<T>, Runnable {
+        private final Delivery delivery;
+        private final BiConsumer<T, T> target;
+        private T firstOld;
+        private T latest;
+        private boolean queued;
+
+        Values(Delivery delivery, BiConsumer<T, T> target) {
+            this.delivery = delivery;
+            this.target = target;
+        }
+
+        @Override
+        public void accept(T newValue) {
+            accept(null, newValue);
+        }
+
+        @Override
+        public void accept(T oldValue, T newValue) {
+            synchronized (this) {
+                if (queued) {
+                    latest = newValue;
+                    return;
+                }
+                if (!delivery.isCurrentThread()) {
+                    firstOld = oldValue;
+                    latest = newValue;
+                    queued = true;
+                    delivery.execute(this);
+                    return;
+                }
+            }
+            target.accept(oldValue, newValue);
+        }
+
+        @Override
+        public void run() {
+            T oldValue;
+            T newValue;
+            synchronized (this) {
+                oldValue = firstOld;
+                newValue = latest;
+                firstOld = null;
+                latest = null;
+                queued = false;
+            }
+            target.accept(oldValue, newValue);
+        }
+    }
+
+    /** Delta listener: queued batches are concatenated and delivered as one, in order. */
+    static final class Batches<C> implements Consumer<List<C>>, Runnable {
+        private final Delivery delivery;
+        private final Consumer<List<C>> target;
+        private List<C> pending;
+
+        Batches(Delivery delivery, Consumer<List<C>> target) {
+            this.delivery = delivery;
+            this.target = target;
+        }
+
+        @Override
+        public void accept(List<C> batch) {
+            synchronized (this) {
+                if (pending != null) {
+                    pending.addAll(batch);
+                    return;
+                }
+                if (!delivery.isCurrentThread()) {
+                    pending = new ArrayList<>(batch);
+                    delivery.execute(this);
+                    return;
+                }
+            }
+            target.accept(batch);
+        }
+
+        @Override
+        public void run() {
+            List<C> batch;
+            synchronized (this) {
+                batch = pending;
+                pending = null;
+            }
+            if (batch != null) target.accept(Collections.unmodifiableList(batch));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Where a subscription's listener runs.
+ *
+ * A change made on the delivery's own thread is delivered right away; a change
+ * made elsewhere is queued, and the queue is drained in one batch — one
+ * scheduled task per tick for the main thread, not one per change. While a
+ * subscriber is queued, further changes are folded into its pending call, so
+ * it runs once with the latest value:
+ *
+ *   coins.subscribeSet(c -> sidebar.update(c), Delivery.mainThread());
+ *   Tasks.async().run(() -> coins.set(loadBalance()));   // listener runs on the next tick
+ *
+ *   // Every listener added from now on
+ *   leaderboard.deliverOn(Delivery.mainThread());
+ *
+ *   // A Folia region or any other executor
+ *   Delivery region = Delivery.batched(task -> Bukkit.getRegionScheduler().execute(plugin, spawn, task),
+ *           () -> Bukkit.isOwnedByCurrentRegion(spawn));
+ */
+public interface Delivery {
+
+    /** Whether a listener may run inline on the current thread. */
+    boolean isCurrentThread();
+
+    /** Queue a task to run on this delivery's thread. */
+    void execute(Runnable task);
+
+    /** The thread that made the change (the default). */
+    static Delivery caller() {
+        return BatchedDelivery.CALLER;
+    }
+
+    /** The server main thread, drained once per tick. */
+    static Delivery mainThread() {
+        return BatchedDelivery.MAIN;
+    }
+
+    /** The async task pool, drained by one async task per batch. */
+    static Delivery async() {
+        return BatchedDelivery.ASYNC;
+    }
+
+    /**
+     * A custom thread: queued tasks are drained in one {@code executor} task
+     * per batch; {@code isCurrentThread} tells when to deliver inline instead.
+     */
+    static Delivery batched(Executor executor, BooleanSupplier isCurrentThread) {
+        return new BatchedDelivery(isCurrentThread, executor);
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import java.util.List;
+
+/**
+ * One structural change of a {@link ReactiveList}, by position.
+ *
+ * Changes are delivered in batches and are meant to be replayed in order on a
+ * mirror of the list (a rendered page, scoreboard lines), so only the touched
+ * positions need work:
+ *
+ *   auctions.subscribeDelta(changes -> {
+ *       for (ListChange<Auction> c : changes) c.applyTo(shown);
+ *   });
+ *
+ * @param type     what happened
+ * @param index    position of the change (MOVE: the position the element left)
+ * @param toIndex  MOVE: the position the element now has; otherwise same as index
+ * @param oldValue REMOVE / UPDATE: the element before; otherwise null
+ * @param newValue INSERT / UPDATE / MOVE: the element now at the position; REMOVE: null
+ */
+public record ListChange<T>(Type type, int index, int toIndex, T oldValue, T newValue) {
+
+    public enum Type { INSERT, REMOVE, UPDATE, MOVE }
+
+    public static <T> ListChange<T> insert(int index, T value) {
+        return new ListChange<>(Type.INSERT, index, index, null, value);
+    }
+
+    public static <T> ListChange<T> remove(int index, T oldValue) {
+        return new ListChange<>(Type.REMOVE, index, index, oldValue, null);
+    }
+
+    public static <T> ListChange<T> update(int index, T oldValue, T newValue) {
+        return new ListChange<>(Type.UPDATE, index, index, oldValue, newValue);
+    }
+
+    public static <T> ListChange<T> move(int from, int to, T value) {
+        return new ListChange<>(Type.MOVE, from, to, null, value);
+    }
+
+    /** Replay this change on a list that mirrors the state right before it. */
+    public void applyTo(List<T> target) {
+        switch (type) {
+            case INSERT -> target.add(index, newValue);
+            case REMOVE -> target.remove(index);
+            case UPDATE -> target.set(index, newValue);
+            case MOVE -> target.add(toIndex, target.remove(index));
+        }
+    }
+
+    /** Lowest position whose element may differ after this change. */
+    public int firstAffected() {
+        return Math.min(index, toIndex);
+    }
+
+    /**
+     * Highest position whose element may differ after this change, or
+     * Integer.MAX_VALUE when everything from {@link #firstAffected()} shifted.
+     */
+    public int lastAffected() {
+        return switch (type) {
+            case INSERT, REMOVE -> Integer.MAX_VALUE;
+            case UPDATE -> index;
+            case MOVE -> Math.max(index, toIndex);
+        };
+    }
+}
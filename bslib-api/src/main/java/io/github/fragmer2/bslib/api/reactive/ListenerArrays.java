@@ -0,0 +1,54 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Lock-free copy-on-write listener arrays.
+ *
+ * A registry is a volatile array field that is never mutated, only replaced:
+ * subscribe / unsubscribe build a new array and swap it in with a CAS on the
+ * field's VarHandle, retrying if another thread swapped first. Dispatch reads
+ * the field once and iterates that array — a stable snapshot, with no lock,
+ * no copy and no iterator.
+ */
+final class ListenerArrays {
+    private ListenerArrays() {}
+
+    /** Append to the array held in {@code handle}'s field of {@code owner}. */
+    static void add(VarHandle handle, Object owner, Object listener) {
+        Object[] current;
+        do {
+            current = (Object[]) handle.getVolatile(owner);
+        } while (!handle.compareAndSet(owner, current, with(current, listener)));
+    }
+
+    /** Remove the first occurrence (by identity) from the array held in the field. */
+    static void remove(VarHandle handle, Object owner, Object listener) {
+        Object[] current;
+        Object[] next;
+        do {
+            current = (Object[]) handle.getVolatile(owner);
+            next = without(current, listener);
+            if (next == current) return;
+        } while (!handle.compareAndSet(owner, current, next));
+    }
+
+    static <L> L[] with(L[] array, L listener) {
+        L[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = listener;
+        return copy;
+    }
+
+    /** The array without the first occurrence of the listener (same array if absent). */
+    static <L> L[] without(L[] array, L listener) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == listener) {
+                L[] copy = Arrays.copyOf(array, array.length - 1);
+                System.arraycopy(array, i + 1, copy, i, array.length - i - 1);
+                return copy;
+            }
+        }
+        return array;
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import java.util.Map;
+
+/**
+ * One change of a {@link ReactiveMap}, by key.
+ *
+ * @param type     PUT (added or replaced) or REMOVE
+ * @param key      the key
+ * @param oldValue the value before, or null if the key was absent
+ * @param newValue the value after, or null on REMOVE
+ */
+public record MapChange<K, V>(Type type, K key, V oldValue, V newValue) {
+
+    public enum Type { PUT, REMOVE }
+
+    public static <K, V> MapChange<K, V> put(K key, V oldValue, V newValue) {
+        return new MapChange<>(Type.PUT, key, oldValue, newValue);
+    }
+
+    public static <K, V> MapChange<K, V> remove(K key, V oldValue) {
+        return new MapChange<>(Type.REMOVE, key, oldValue, null);
+    }
+
+    /** Replay this change on a map that mirrors the state right before it. */
+    public void applyTo(Map<K, V> target) {
+        if (type == Type.PUT) target.put(key, newValue);
+        else target.remove(key);
+    }
+}
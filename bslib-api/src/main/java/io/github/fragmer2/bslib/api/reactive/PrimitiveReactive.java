@@ -0,0 +1,111 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Shared part of {@link ReactiveInt}, {@link ReactiveLong} and {@link ReactiveDouble}:
+ * the boxed view, transaction commit and lifecycle. Values and listeners stay
+ * primitive in the subclasses.
+ *
+ * The view is a read-only derived node of this value. A change propagates to it
+ * like to any dependent — in the same pass as the change, in a transaction in
+ * the commit's single pass — so nodes built on it recompute once per change.
+ */
+abstract class PrimitiveReactive<B extends Number> implements ReactiveNumber {
+    private static final Reactive<?>[] NO_VIEW = new Reactive<?>[0];
+
+    private volatile Reactive.PrimitiveView<B> view;
+    volatile Delivery delivery = Delivery.caller();
+    volatile boolean destroyed = false;
+
+    PrimitiveReactive() {}
+
+    @Override
+    public abstract B getNumber();
+
+    /** Run this value's primitive listeners for a committed change. */
+    abstract void notifyCommitted(B oldValue, B newValue);
+
+    public abstract void clearListeners();
+
+    // ========== Listeners ==========
+
+    @Override
+    public Subscription subscribeAny(Runnable listener) {
+        return subscribeAny(listener, delivery);
+    }
+
+    // ========== Dispatch ==========
+
+    /** Whether a boxed view exists, i.e. a change has to propagate. */
+    final boolean hasView() {
+        return view != null;
+    }
+
+    /** Propagate a change to the view (if any), then run {@code notification}. */
+    final void propagate(Runnable notification) {
+        Propagation.run(viewAsDependents(), notification);
+    }
+
+    /** Follow a silent change in the view. */
+    final void changedSilently() {
+        Reactive.PrimitiveView<B> current = view;
+        if (current != null) current.recomputeSilently();
+    }
+
+    /**
+     * Transaction commit: the change from the value before the transaction to
+     * the current one, or null if it ended where it started.
+     */
+    @SuppressWarnings("unchecked")
+    final Propagation.Change commitChange(Object oldValue) {
+        B current = getNumber();
+        if (destroyed || Objects.equals(oldValue, current)) return null;
+        return new Propagation.Change(viewAsDependents(), () -> notifyCommitted((B) oldValue, current));
+    }
+
+    private Reactive<?>[] viewAsDependents() {
+        Reactive<?> current = view;
+        return current != null ? new Reactive<?>[]{current} : NO_VIEW;
+    }
+
+    // ========== Interop ==========
+
+    /**
+     * Boxed view of this value, created on first call and kept up to date from
+     * then on. Read-only: setting it throws, set this value instead.
+     */
+    @Override
+    public Reactive<B> asReactive() {
+        Reactive<B> current = view;
+        if (current != null) return current;
+        synchronized (this) {
+            if (view == null) view = new Reactive.PrimitiveView<>(this::getNumber);
+            return view;
+        }
+    }
+
+    /** For Button.bind() — returns a Supplier that tracks version. */
+    public Supplier<Object> asBindable() {
+        return this::version;
+    }
+
+    // ========== Lifecycle ==========
+
+    public void destroy() {
+        Reactive<B> current;
+        synchronized (this) {
+            if (destroyed) return;
+            destroyed = true;
+            clearListeners();
+            current = view;
+            view = null;
+        }
+        if (current != null) current.destroy();
+    }
+
+    public boolean isDestroyed() {
+        return destroyed;
+    }
+}
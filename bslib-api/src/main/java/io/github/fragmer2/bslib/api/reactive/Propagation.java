@@ -0,0 +1,101 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import java.util.*;
+
+/**
+ * One change travelling through a Reactive graph, run on the thread that made it.
+ *
+ * Derived nodes (map / combine) are queued by height — a source is 0, a derived
+ * node is one more than its highest input — and recomputed lowest first. Every
+ * input of a node is therefore final before the node runs, so each node is
+ * recomputed at most once per change and never sees half-updated inputs:
+ *
+ *   a ──► b = a.map(f) ──┐
+ *    └──► c = a.map(g) ──┴──► d = combine(b, c)     d recomputes once, after b and c
+ *
+ * Listeners are collected while the graph settles and run afterwards, in the
+ * order the nodes changed. A listener that sets a Reactive starts a new propagation.
+ */
+final class Propagation {
+    private static final ThreadLocal<Propagation> CURRENT = new ThreadLocal<>();
+
+    private final List<ArrayDeque<Reactive<?>>> levels = new ArrayList<>();
+    private final Set<Reactive<?>> queued = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<Runnable> notifications = new ArrayList<>();
+    private int cursor = Integer.MAX_VALUE;
+
+    /** A changed node: its dependents and the notification of its listeners. */
+    record Change(Reactive<?>[] dependents, Runnable notification) {}
+
+    private Propagation() {}
+
+    /**
+     * Propagate a node's change: recompute its dependents, then run listeners.
+     * Inside a running propagation (a mapper that sets another Reactive), the
+     * work joins that propagation instead. A node nothing depends on notifies
+     * directly, without setting up a propagation.
+     */
+    static void run(Reactive<?>[] dependents, Runnable notification) {
+        Propagation current = CURRENT.get();
+        if (current == null && dependents.length == 0) {
+            notification.run();
+            return;
+        }
+        run(List.of(new Change(dependents, notification)));
+    }
+
+    /**
+     * Propagate several changes in one pass (a transaction commit): a node
+     * depending on more than one of them still recomputes once.
+     */
+    static void run(List<Change> changes) {
+        Propagation current = CURRENT.get();
+        if (current != null) {
+            changes.forEach(current::add);
+            return;
+        }
+
+        Propagation propagation = new Propagation();
+        changes.forEach(propagation::add);
+        CURRENT.set(propagation);
+        try {
+            propagation.settle();
+        } finally {
+            CURRENT.remove();
+        }
+        for (Runnable n : propagation.notifications) {
+            n.run();
+        }
+    }
+
+    private void add(Change change) {
+        notifications.add(change.notification());
+        for (Reactive<?> dependent : change.dependents()) {
+            enqueue(dependent);
+        }
+    }
+
+    private void enqueue(Reactive<?> node) {
+        if (!queued.add(node)) return;
+        int height = node.height();
+        while (levels.size() <= height) levels.add(new ArrayDeque<>());
+        levels.get(height).add(node);
+        if (height < cursor) cursor = height;
+    }
+
+    private void settle() {
+        while (cursor < levels.size()) {
+            Reactive<?> node = levels.get(cursor).poll();
+            if (node == null) {
+                cursor++;
+                continue;
+            }
+            queued.remove(node);
+            try {
+                node.recompute();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
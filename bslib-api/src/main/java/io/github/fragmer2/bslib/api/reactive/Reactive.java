@@ -1,5 +1,7 @@
 package io.github.fragmer2.bslib.api.reactive;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -11,24 +13,65 @@ import java.util.function.Function;
 
 /**
  * Observable reactive value — state-driven development for Paper.
+ *
+ * Derived values (map, combine) update glitch-free: a change recomputes every
+ * affected derived value exactly once, in dependency order, and listeners run
+ * only after the whole graph is consistent (see {@link Propagation}).
+ *
+ * Reads, writes and dispatch are lock-free: the value is swapped atomically,
+ * and listeners / dependents live in immutable arrays replaced by CAS on
+ * subscribe (see {@link ListenerArrays}), so a set iterates the current arrays
+ * as-is instead of copying them. A set nobody listens to allocates nothing.
  */
 public class Reactive<T> {
     private static final Object NULL_SENTINEL = new Object();
+    private static final Object NO_BATCHED = new Object();
+    private static final BiConsumer<?, ?>[] NO_CHANGE_LISTENERS = new BiConsumer<?, ?>[0];
+    private static final Consumer<?>[] NO_SET_LISTENERS = new Consumer<?>[0];
+    private static final Reactive<?>[] NO_DEPENDENTS = new Reactive<?>[0];
+
+    private static final VarHandle VALUE;
+    private static final VarHandle VERSION;
+    private static final VarHandle CHANGE_LISTENERS;
+    private static final VarHandle SET_LISTENERS;
+    private static final VarHandle DEPENDENTS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            VALUE = lookup.findVarHandle(Reactive.class, "value", Object.class);
+            VERSION = lookup.findVarHandle(Reactive.class, "version", long.class);
+            CHANGE_LISTENERS = lookup.findVarHandle(Reactive.class, "changeListeners", BiConsumer[].class);
+            SET_LISTENERS = lookup.findVarHandle(Reactive.class, "setListeners", Consumer[].class);
+            DEPENDENTS = lookup.findVarHandle(Reactive.class, "dependents", Reactive[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
     private volatile T value;
-    private final List<BiConsumer<T, T>> changeListeners = new CopyOnWriteArrayList<>();
-    private final List<Consumer<T>> setListeners = new CopyOnWriteArrayList<>();
-    private final List<Reactive<?>> dependents = new CopyOnWriteArrayList<>();
+    @SuppressWarnings("unchecked")
+    private volatile BiConsumer<T, T>[] changeListeners = (BiConsumer<T, T>[]) NO_CHANGE_LISTENERS;
+    @SuppressWarnings("unchecked")
+    private volatile Consumer<T>[] setListeners = (Consumer<T>[]) NO_SET_LISTENERS;
+    private volatile Reactive<?>[] dependents = NO_DEPENDENTS;
     private final List<Subscription> upstreamSubscriptions = new CopyOnWriteArrayList<>();
     private final List<Runnable> destroyHooks = new CopyOnWriteArrayList<>();
 
+    private volatile Delivery delivery = Delivery.caller();
     private volatile long version = 0;
     private volatile boolean batching = false;
-    private T batchedValue;
+    private Object batchedValue = NO_BATCHED;
     private volatile boolean destroyed = false;
+    private final int height;
 
     private Reactive(T initial) {
+        this(initial, 0);
+    }
+
+    private Reactive(T initial, int height) {
         this.value = initial;
+        this.height = height;
     }
 
     public static <T> Reactive<T> of(T initial) {
@@ -42,66 +85,129 @@ public class Reactive<T> {
 
     public T get() { return value; }
 
+    @SuppressWarnings("unchecked")
     public void set(T newValue) {
-        ChangeDispatch<T> dispatch;
-        synchronized (this) {
-            dispatch = prepareSetLocked(newValue, true);
-        }
-        dispatchOutsideLock(dispatch);
+        if (destroyed || (batching && batch(newValue))) return;
+        T old = (T) VALUE.getAndSet(this, newValue);
+        VERSION.getAndAdd(this, 1L);
+        changed(old, newValue);
     }
 
+    /**
+     * Atomically replace the value with {@code updater.apply(current)}. Under
+     * contention the updater may run more than once, so it should be side-effect free.
+     */
+    @SuppressWarnings("unchecked")
     public void update(Function<T, T> updater) {
-        ChangeDispatch<T> dispatch;
-        synchronized (this) {
-            dispatch = prepareSetLocked(updater.apply(value), true);
+        if (destroyed) return;
+        if (batching) {
+            synchronized (this) {
+                if (batching) {
+                    batchedValue = updater.apply(batchedValue == NO_BATCHED ? value : (T) batchedValue);
+                    return;
+                }
+            }
         }
-        dispatchOutsideLock(dispatch);
+        T old;
+        T next;
+        do {
+            old = value;
+            next = updater.apply(old);
+        } while (!VALUE.compareAndSet(this, old, next));
+        VERSION.getAndAdd(this, 1L);
+        changed(old, next);
     }
 
     public void setSilent(T newValue) {
-        synchronized (this) {
-            if (destroyed) return;
-            value = newValue;
-            version++;
-            if (batching) {
-                batchedValue = newValue;
+        if (destroyed) return;
+        if (batching) {
+            synchronized (this) {
+                if (batching) batchedValue = newValue;
             }
         }
+        value = newValue;
+        VERSION.getAndAdd(this, 1L);
     }
 
     public synchronized Reactive<T> beginBatch() {
         if (destroyed) return this;
         batching = true;
-        batchedValue = value;
+        batchedValue = NO_BATCHED;
         return this;
     }
 
+    @SuppressWarnings("unchecked")
     public Reactive<T> endBatch() {
-        ChangeDispatch<T> dispatch = null;
+        Object pending;
         synchronized (this) {
-            if (destroyed) return this;
-            if (batching) {
-                T pending = batchedValue;
-                batching = false;
-                batchedValue = null;
-                dispatch = prepareSetLocked(pending, false);
-            }
+            if (destroyed || !batching) return this;
+            pending = batchedValue;
+            batching = false;
+            batchedValue = NO_BATCHED;
         }
-        dispatchOutsideLock(dispatch);
+        if (pending != NO_BATCHED) set((T) pending);
         return this;
     }
 
+    /** Hold a set made during a batch; false if the batch just ended (set normally). */
+    private synchronized boolean batch(T newValue) {
+        if (!batching) return false;
+        batchedValue = newValue;
+        return true;
+    }
+
     public long version() { return version; }
 
+    /** Registered change and set listeners (derived reactives not included). */
+    public int listenerCount() {
+        return changeListeners.length + setListeners.length;
+    }
+
+    /**
+     * Run a block of changes as one update. Values change immediately, but no
+     * listener or derived value hears about them until the block ends; then each
+     * changed Reactive notifies once (old value before the block → final value),
+     * derived values recompute once, and list/map listeners fire once.
+     *
+     *   Reactive.transaction(() -> {
+     *       coins.set(coins.get() - price);
+     *       level.increment();
+     *       xp.set(0);
+     *   });  // → one menu re-render, one scoreboard update
+     *
+     * Nested transactions join the outermost one. The scope is per thread, so it
+     * is safe from async tasks; listeners run on the committing thread. Changes
+     * are not rolled back if the block throws — they are still flushed.
+     * Derived values read inside the block are not updated yet.
+     */
+    public static void transaction(Runnable body) {
+        Transaction.run(body);
+    }
+
+    /**
+     * Run listeners added from now on via {@code delivery} (e.g. the main thread)
+     * instead of on the thread that made the change. See {@link Delivery}.
+     */
+    public Reactive<T> deliverOn(Delivery delivery) {
+        this.delivery = Objects.requireNonNull(delivery, "delivery");
+        return this;
+    }
+
     public Reactive<T> onChange(BiConsumer<T, T> listener) {
         subscribeChange(listener);
         return this;
     }
 
     public Subscription subscribeChange(BiConsumer<T, T> listener) {
+        return subscribeChange(listener, delivery);
+    }
+
+    /** Subscribe with the listener running via {@code delivery}; queued changes coalesce. */
+    public Subscription subscribeChange(BiConsumer<T, T> listener, Delivery delivery) {
         if (destroyed) return () -> {};
-        changeListeners.add(listener);
-        return () -> changeListeners.remove(listener);
+        BiConsumer<T, T> registered = delivery == Delivery.caller() ? listener : new Delivered.Values<>(delivery, listener);
+        ListenerArrays.add(CHANGE_LISTENERS, this, registered);
+        return ReactiveLeaks.track(this, () -> ListenerArrays.remove(CHANGE_LISTENERS, this, registered));
     }
 
     public Reactive<T> onSet(Consumer<T> listener) {
@@ -110,33 +216,44 @@ public class Reactive<T> {
     }
 
     public Subscription subscribeSet(Consumer<T> listener) {
+        return subscribeSet(listener, delivery);
+    }
+
+    /** Subscribe with the listener running via {@code delivery}; queued changes coalesce. */
+    public Subscription subscribeSet(Consumer<T> listener, Delivery delivery) {
         if (destroyed) return () -> {};
-        setListeners.add(listener);
-        return () -> setListeners.remove(listener);
+        Consumer<T> registered = delivery == Delivery.caller()
+                ? listener
+                : new Delivered.Values<T>(delivery, (old, now) -> listener.accept(now));
+        ListenerArrays.add(SET_LISTENERS, this, registered);
+        return ReactiveLeaks.track(this, () -> ListenerArrays.remove(SET_LISTENERS, this, registered));
     }
 
+    @SuppressWarnings("unchecked")
     public void clearListeners() {
-        changeListeners.clear();
-        setListeners.clear();
+        changeListeners = (BiConsumer<T, T>[]) NO_CHANGE_LISTENERS;
+        setListeners = (Consumer<T>[]) NO_SET_LISTENERS;
     }
 
     public <R> Reactive<R> map(Function<T, R> mapper) {
         MappedReactive<T, R> mapped = new MappedReactive<>(this, mapper);
-        this.dependents.add(mapped);
-        mapped.registerDestroyHook(() -> this.dependents.remove(mapped));
+        this.addDependent(mapped);
         return mapped;
     }
 
     public static <A, B, R> Reactive<R> combine(Reactive<A> a, Reactive<B> b,
                                                 java.util.function.BiFunction<A, B, R> combiner) {
         CombinedReactive<A, B, R> combined = new CombinedReactive<>(a, b, combiner);
-        a.dependents.add(combined);
-        b.dependents.add(combined);
-        combined.registerDestroyHook(() -> a.dependents.remove(combined));
-        combined.registerDestroyHook(() -> b.dependents.remove(combined));
+        a.addDependent(combined);
+        b.addDependent(combined);
         return combined;
     }
 
+    private void addDependent(Reactive<?> dependent) {
+        ListenerArrays.add(DEPENDENTS, this, dependent);
+        dependent.registerDestroyHook(() -> ListenerArrays.remove(DEPENDENTS, this, dependent));
+    }
+
     public Reactive<T> distinctUntilChanged() {
         Reactive<T> out = Reactive.of(get());
         Object[] last = new Object[] { get() == null ? NULL_SENTINEL : get() };
@@ -197,12 +314,18 @@ public class Reactive<T> {
         // only derived types recompute
     }
 
+    /** Longest path from a source: 0 for plain values, inputs' max + 1 for derived ones. */
+    int height() {
+        return height;
+    }
+
     public void destroy() {
         if (destroyed) return;
         destroyed = true;
 
-        List<Reactive<?>> dependentSnapshot = List.copyOf(dependents);
-        dependentSnapshot.forEach(Reactive::destroy);
+        for (Reactive<?> dependent : dependents) {
+            dependent.destroy();
+        }
 
         clearListeners();
         upstreamSubscriptions.forEach(Subscription::unsubscribe);
@@ -212,7 +335,7 @@ public class Reactive<T> {
             try { h.run(); } catch (Exception ignored) {}
         });
         destroyHooks.clear();
-        dependents.clear();
+        dependents = NO_DEPENDENTS;
     }
 
     public boolean isDestroyed() {
@@ -239,63 +362,64 @@ public class Reactive<T> {
         io.github.fragmer2.bslib.api.task.Tasks.compute(asyncLoader).thenSync(this::set);
     }
 
-    @SuppressWarnings("unchecked")
-    public void increment() {
-        if (value instanceof Integer i) set((T) Integer.valueOf(i + 1));
-        else if (value instanceof Long l) set((T) Long.valueOf(l + 1));
-        else if (value instanceof Double d) set((T) Double.valueOf(d + 1));
-    }
+    public void increment() { add(1); }
 
-    @SuppressWarnings("unchecked")
-    public void decrement() {
-        if (value instanceof Integer i) set((T) Integer.valueOf(i - 1));
-        else if (value instanceof Long l) set((T) Long.valueOf(l - 1));
-        else if (value instanceof Double d) set((T) Double.valueOf(d - 1));
-    }
+    public void decrement() { add(-1); }
 
+    /** Atomically add to an Integer, Long or Double value; other values are left alone. */
     @SuppressWarnings("unchecked")
     public void add(Number amount) {
-        if (value instanceof Integer i) set((T) Integer.valueOf(i + amount.intValue()));
-        else if (value instanceof Long l) set((T) Long.valueOf(l + amount.longValue()));
-        else if (value instanceof Double d) set((T) Double.valueOf(d + amount.doubleValue()));
+        T current = value;
+        if (!(current instanceof Integer || current instanceof Long || current instanceof Double)) return;
+        update(v -> (T) plus(v, amount));
     }
 
-    @Override
-    public String toString() { return "Reactive{" + value + "}"; }
-
-    private synchronized ChangeDispatch<T> prepareSetLocked(T newValue, boolean honorBatching) {
-        if (destroyed) return null;
-
-        if (honorBatching && batching) {
-            batchedValue = newValue;
-            return null;
-        }
-
-        T old = this.value;
-        this.value = newValue;
-        this.version++;
-
-        if (Objects.equals(old, newValue)) {
-            return null;
-        }
-
-        return new ChangeDispatch<>(old, newValue,
-                List.copyOf(changeListeners),
-                List.copyOf(setListeners),
-                List.copyOf(dependents));
+    private static Object plus(Object value, Number amount) {
+        if (value instanceof Integer i) return i + amount.intValue();
+        if (value instanceof Long l) return l + amount.longValue();
+        if (value instanceof Double d) return d + amount.doubleValue();
+        return value;
     }
 
-    private void dispatchOutsideLock(ChangeDispatch<T> dispatch) {
-        if (dispatch == null || destroyed) return;
+    @Override
+    public String toString() { return "Reactive{" + value + "}"; }
 
-        for (BiConsumer<T, T> listener : dispatch.changeSnapshot()) {
-            try { listener.accept(dispatch.oldValue(), dispatch.newValue()); } catch (Exception e) { e.printStackTrace(); }
-        }
-        for (Consumer<T> listener : dispatch.setSnapshot()) {
-            try { listener.accept(dispatch.newValue()); } catch (Exception e) { e.printStackTrace(); }
+    /**
+     * Dispatch one change: held back inside a transaction, otherwise propagated
+     * to dependents, then listeners. Iterates the registries' current arrays
+     * directly; returns before allocating anything when nobody is listening.
+     */
+    private void changed(T old, T newValue) {
+        if (Objects.equals(old, newValue) || destroyed) return;
+        BiConsumer<T, T>[] changeSnapshot = changeListeners;
+        Consumer<T>[] setSnapshot = setListeners;
+        Reactive<?>[] dependentSnapshot = dependents;
+        if (Transaction.record(this, old)) return;
+        if (changeSnapshot.length == 0 && setSnapshot.length == 0 && dependentSnapshot.length == 0) return;
+        Propagation.run(dependentSnapshot, () -> notifyListeners(changeSnapshot, setSnapshot, old, newValue));
+    }
+
+    /**
+     * Transaction commit: the change from the value before the transaction to
+     * the current one, or null if it ended where it started.
+     */
+    @SuppressWarnings("unchecked")
+    Propagation.Change commitChange(Object oldValue) {
+        T current = value;
+        if (destroyed || Objects.equals(oldValue, current)) return null;
+        BiConsumer<T, T>[] changeSnapshot = changeListeners;
+        Consumer<T>[] setSnapshot = setListeners;
+        return new Propagation.Change(dependents,
+                () -> notifyListeners(changeSnapshot, setSnapshot, (T) oldValue, current));
+    }
+
+    private static <T> void notifyListeners(BiConsumer<T, T>[] changeSnapshot, Consumer<T>[] setSnapshot,
+                                            T oldValue, T newValue) {
+        for (BiConsumer<T, T> listener : changeSnapshot) {
+            try { listener.accept(oldValue, newValue); } catch (Exception e) { e.printStackTrace(); }
         }
-        for (Reactive<?> dep : dispatch.dependentSnapshot()) {
-            dep.recompute();
+        for (Consumer<T> listener : setSnapshot) {
+            try { listener.accept(newValue); } catch (Exception e) { e.printStackTrace(); }
         }
     }
 
@@ -310,17 +434,12 @@ public class Reactive<T> {
         if (hook != null) destroyHooks.add(hook);
     }
 
-    private record ChangeDispatch<T>(T oldValue, T newValue,
-                                     List<BiConsumer<T, T>> changeSnapshot,
-                                     List<Consumer<T>> setSnapshot,
-                                     List<Reactive<?>> dependentSnapshot) {}
-
     private static class MappedReactive<S, R> extends Reactive<R> {
         private final Reactive<S> source;
         private final Function<S, R> mapper;
 
         MappedReactive(Reactive<S> source, Function<S, R> mapper) {
-            super(mapper.apply(source.get()));
+            super(mapper.apply(source.get()), source.height() + 1);
             this.source = source;
             this.mapper = mapper;
         }
@@ -331,13 +450,57 @@ public class Reactive<T> {
         }
     }
 
+    /**
+     * Boxed view of a primitive reactive: a derived node one above its source,
+     * recomputed in the source's propagation. Read-only — it only follows.
+     */
+    static final class PrimitiveView<T> extends Reactive<T> {
+        private final java.util.function.Supplier<T> source;
+
+        PrimitiveView(java.util.function.Supplier<T> source) {
+            super(source.get(), 1);
+            this.source = source;
+        }
+
+        @Override
+        void recompute() {
+            // Re-read until stable, so a racing write on another thread can't leave the view behind
+            T next;
+            do {
+                next = source.get();
+                super.set(next);
+            } while (!Objects.equals(next, source.get()));
+        }
+
+        /** Follow a silent change of the source. */
+        void recomputeSilently() {
+            super.setSilent(source.get());
+        }
+
+        @Override
+        public void set(T newValue) { throw readOnly(); }
+
+        @Override
+        public void update(Function<T, T> updater) { throw readOnly(); }
+
+        @Override
+        public void setSilent(T newValue) { throw readOnly(); }
+
+        @Override
+        public synchronized Reactive<T> beginBatch() { throw readOnly(); }
+
+        private static UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("read-only view of a primitive reactive; set the source instead");
+        }
+    }
+
     private static class CombinedReactive<A, B, R> extends Reactive<R> {
         private final Reactive<A> sourceA;
         private final Reactive<B> sourceB;
         private final java.util.function.BiFunction<A, B, R> combiner;
 
         CombinedReactive(Reactive<A> a, Reactive<B> b, java.util.function.BiFunction<A, B, R> combiner) {
-            super(combiner.apply(a.get(), b.get()));
+            super(combiner.apply(a.get(), b.get()), Math.max(a.height(), b.height()) + 1);
             this.sourceA = a;
             this.sourceB = b;
             this.combiner = combiner;
@@ -1,16 +1,16 @@
 package io.github.fragmer2.bslib.api.reactive;
 
-import io.github.fragmer2.bslib.api.task.Tasks;
+import io.github.fragmer2.bslib.api.message.Components;
 import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.scoreboard.*;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -25,6 +25,12 @@ import java.util.function.Supplier;
  *       .line(3, rank)
  *       .build(plugin);
  *
+ *   // A ReactiveList as consecutive lines; only the lines a change touches are rewritten
+ *   ReactiveBinding.scoreboard(player, "Top Killers")
+ *       .line(0, "§7Leaders:")
+ *       .lines(1, topKillers)
+ *       .build(plugin);
+ *
  * ===== BossBar =====
  *   ReactiveBinding.bossbar(player, BossBar.Color.RED)
  *       .title(hp.map(h -> "<red>Boss HP: " + h + "%"))
@@ -36,12 +42,13 @@ import java.util.function.Supplier;
  *       .text(balance.map(b -> "<gold>" + b + " coins"))
  *       .build(plugin);
  *
- * All bindings auto-update when the bound Reactive changes.
+ * All bindings auto-update when the bound Reactive changes. Changes are
+ * rendered by {@link BindingRenderer}: at most once per frame, with the latest
+ * value, spread across ticks.
  * Call .destroy() to stop and clean up.
  */
 public final class ReactiveBinding {
-    private static final MiniMessage MM = MiniMessage.miniMessage();
-    private static final Map<UUID, List<Destroyable>> playerBindings = new ConcurrentHashMap<>();
+    private static final Map<UUID, Set<Destroyable>> playerBindings = new ConcurrentHashMap<>();
 
     private ReactiveBinding() {}
 
@@ -61,16 +68,18 @@ public final class ReactiveBinding {
 
     /** Destroy all bindings for a player (call on quit). */
     public static void destroyAll(Player player) {
-        List<Destroyable> bindings = playerBindings.remove(player.getUniqueId());
+        Set<Destroyable> bindings = playerBindings.remove(player.getUniqueId());
         if (bindings != null) {
-            bindings.forEach(Destroyable::destroy);
+            List.copyOf(bindings).forEach(Destroyable::destroy);
         }
+        BindingRenderer.forget(player.getUniqueId());
     }
 
     /** Destroy all bindings globally (call on disable). */
     public static void clear() {
-        playerBindings.values().forEach(list -> list.forEach(Destroyable::destroy));
+        playerBindings.values().forEach(set -> List.copyOf(set).forEach(Destroyable::destroy));
         playerBindings.clear();
+        BindingRenderer.clear();
     }
 
     public static int activePlayerCount() {
@@ -78,11 +87,61 @@ public final class ReactiveBinding {
     }
 
     public static int activeBindingCount() {
-        return playerBindings.values().stream().mapToInt(List::size).sum();
+        return playerBindings.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /** Actionbars kept up by the shared resender. */
+    public static int activeActionBarCount() {
+        return ActionBarSlots.size();
+    }
+
+    /** Actionbar sends caused by text changes. */
+    public static long actionBarSentCount() {
+        return ActionBarSlots.sentCount();
+    }
+
+    /** Periodic actionbar resends of unchanged text. */
+    public static long actionBarResentCount() {
+        return ActionBarSlots.resentCount();
+    }
+
+    /** Register a player's binding; destroying it also removes it from the registry. */
+    private static Destroyable track(Player player, Destroyable binding) {
+        UUID id = player.getUniqueId();
+        Set<Destroyable> bindings = playerBindings.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet());
+        Destroyable tracked = new Destroyable() {
+            private final AtomicBoolean destroyed = new AtomicBoolean();
+
+            @Override
+            public void destroy() {
+                if (!destroyed.compareAndSet(false, true)) return;
+                bindings.remove(this);
+                playerBindings.computeIfPresent(id, (k, set) -> set.isEmpty() ? null : set);
+                binding.destroy();
+            }
+        };
+        bindings.add(tracked);
+        return tracked;
     }
 
-    private static void track(Player player, Destroyable binding) {
-        playerBindings.computeIfAbsent(player.getUniqueId(), k -> new ArrayList<>()).add(binding);
+    /**
+     * Re-apply {@code value} on the player's next frame after it changes. The
+     * value is read at render time, so a burst of changes costs one render, and
+     * a value that ends up where it was costs none.
+     */
+    private static <T> Subscription renderOnChange(Player player, String label, Reactive<T> value, Consumer<T> apply) {
+        Object[] shown = {value.get()};
+        BindingRenderer.Binding binding = BindingRenderer.register(player.getUniqueId(), label, () -> {
+            T current = value.get();
+            if (!player.isOnline() || Objects.equals(current, shown[0])) return;
+            shown[0] = current;
+            apply.accept(current);
+        });
+        Subscription subscription = ReactiveLeaks.owned(player.getUniqueId(), value.subscribeSet(val -> binding.markDirty()));
+        return () -> {
+            subscription.unsubscribe();
+            binding.cancel();
+        };
     }
 
     // ========== Interfaces ==========
@@ -97,6 +156,8 @@ public final class ReactiveBinding {
         private final Player player;
         private final String title;
         private final Map<Integer, Reactive<String>> lines = new TreeMap<>();
+        private ReactiveList<String> listLines;
+        private int listFrom;
 
         ScoreboardBuilder(Player player, String title) {
             this.player = player;
@@ -118,14 +179,25 @@ public final class ReactiveBinding {
             return this;
         }
 
+        /**
+         * Bind consecutive lines, starting at {@code from}, to a ReactiveList:
+         * element i is line from + i. Applied from the list's deltas, so an
+         * insert rewrites the lines below it and an update only its own line.
+         */
+        public ScoreboardBuilder lines(int from, ReactiveList<String> list) {
+            this.listFrom = from;
+            this.listLines = list;
+            return this;
+        }
+
         public Destroyable build(Plugin plugin) {
             ScoreboardManager manager = org.bukkit.Bukkit.getScoreboardManager();
             Scoreboard board = manager.getNewScoreboard();
             Objective obj = board.registerNewObjective("bslib_sb", Criteria.DUMMY,
-                    MM.deserialize(title));
+                    Components.parse(title));
             obj.setDisplaySlot(DisplaySlot.SIDEBAR);
 
-            int maxScore = lines.size();
+            int maxScore = lines.size() + (listLines != null ? listLines.size() : 0);
             Map<Integer, Team> teams = new HashMap<>();
             Map<Integer, String> entries = new HashMap<>();
 
@@ -141,7 +213,7 @@ public final class ReactiveBinding {
                 entries.put(idx, entryName);
 
                 // Set initial value
-                team.prefix(MM.deserialize(entry.getValue().get()));
+                team.prefix(Components.parse(entry.getValue().get()));
             }
 
             player.setScoreboard(board);
@@ -150,14 +222,27 @@ public final class ReactiveBinding {
             List<Subscription> subscriptions = new ArrayList<>();
             for (Map.Entry<Integer, Reactive<String>> entry : lines.entrySet()) {
                 int idx = entry.getKey();
-                Reactive<String> reactive = entry.getValue();
                 Team team = teams.get(idx);
+                subscriptions.add(renderOnChange(player, "scoreboard line " + idx, entry.getValue(),
+                        val -> team.prefix(Components.parse(val))));
+            }
 
-                subscriptions.add(reactive.subscribeSet(val -> {
-                    if (player.isOnline()) {
-                        Tasks.sync().run(() -> team.prefix(MM.deserialize(val)));
-                    }
-                }));
+            if (listLines != null) {
+                ListLines list = new ListLines(board, obj, maxScore);
+                list.reset(listLines.asList());
+                BindingRenderer.Binding render = BindingRenderer.register(player.getUniqueId(), "scoreboard list",
+                        () -> {
+                            if (player.isOnline()) list.renderDirty();
+                        });
+                // Deltas are replayed in order on the main thread; the lines they touch render on the next frame
+                Subscription deltas = ReactiveLeaks.owned(player.getUniqueId(), listLines.subscribeDelta(changes -> {
+                    list.apply(changes);
+                    render.markDirty();
+                }, Delivery.mainThread()));
+                subscriptions.add(() -> {
+                    deltas.unsubscribe();
+                    render.cancel();
+                });
             }
 
             Destroyable binding = () -> {
@@ -166,8 +251,71 @@ public final class ReactiveBinding {
                     player.setScoreboard(manager.getMainScoreboard());
                 }
             };
-            track(player, binding);
-            return binding;
+            return track(player, binding);
+        }
+
+        /**
+         * Lines mirrored from a ReactiveList. Deltas are replayed on the main
+         * thread, in order, on a local copy; the affected lines are collected
+         * and rewritten once per frame.
+         */
+        private final class ListLines {
+            private static final int MAX_LINE = 15;
+
+            private final Scoreboard board;
+            private final Objective obj;
+            private final int maxScore;
+            private final List<String> mirror = new ArrayList<>();
+            private int dirtyFirst = Integer.MAX_VALUE;
+            private int dirtyLast = -1;
+
+            ListLines(Scoreboard board, Objective obj, int maxScore) {
+                this.board = board;
+                this.obj = obj;
+                this.maxScore = maxScore;
+            }
+
+            void reset(List<String> values) {
+                mirror.addAll(values);
+                render(0, mirror.size() - 1);
+            }
+
+            void apply(List<ListChange<String>> changes) {
+                for (ListChange<String> change : changes) {
+                    int sizeBefore = mirror.size();
+                    change.applyTo(mirror);
+                    int last = Math.min(change.lastAffected(), Math.max(sizeBefore, mirror.size()) - 1);
+                    dirtyFirst = Math.min(dirtyFirst, change.firstAffected());
+                    dirtyLast = Math.max(dirtyLast, last);
+                }
+            }
+
+            void renderDirty() {
+                int first = dirtyFirst;
+                int last = dirtyLast;
+                dirtyFirst = Integer.MAX_VALUE;
+                dirtyLast = -1;
+                render(first, last);
+            }
+
+            private void render(int first, int last) {
+                for (int i = first; i <= last && listFrom + i <= MAX_LINE; i++) {
+                    int idx = listFrom + i;
+                    String entryName = "§" + Integer.toHexString(idx) + "§r";
+                    Team team = board.getTeam("line_" + idx);
+                    if (i >= mirror.size()) {
+                        if (team != null) team.unregister();
+                        board.resetScores(entryName);
+                        continue;
+                    }
+                    if (team == null) {
+                        team = board.registerNewTeam("line_" + idx);
+                        team.addEntry(entryName);
+                        obj.getScore(entryName).setScore(maxScore - idx);
+                    }
+                    team.prefix(Components.parse(mirror.get(i)));
+                }
+            }
         }
     }
 
@@ -215,7 +363,7 @@ public final class ReactiveBinding {
             float initialProgress = progress != null ? Math.max(0, Math.min(1, progress.get())) : 1.0f;
 
             BossBar bar = BossBar.bossBar(
-                    MM.deserialize(initialTitle),
+                    Components.parse(initialTitle),
                     initialProgress,
                     color,
                     overlay
@@ -224,22 +372,19 @@ public final class ReactiveBinding {
 
             List<Subscription> subscriptions = new ArrayList<>();
             if (title != null) {
-                subscriptions.add(title.subscribeSet(val -> {
-                    if (player.isOnline()) bar.name(MM.deserialize(val));
-                }));
+                subscriptions.add(renderOnChange(player, "bossbar title", title,
+                        val -> bar.name(Components.parse(val))));
             }
             if (progress != null) {
-                subscriptions.add(progress.subscribeSet(val -> {
-                    if (player.isOnline()) bar.progress(Math.max(0, Math.min(1, val)));
-                }));
+                subscriptions.add(renderOnChange(player, "bossbar progress", progress,
+                        val -> bar.progress(Math.max(0, Math.min(1, val)))));
             }
 
             Destroyable binding = () -> {
                 subscriptions.forEach(Subscription::unsubscribe);
                 if (player.isOnline()) player.hideBossBar(bar);
             };
-            track(player, binding);
-            return binding;
+            return track(player, binding);
         }
     }
 
@@ -273,16 +418,15 @@ public final class ReactiveBinding {
         public Destroyable build(Plugin plugin) {
             if (text == null) throw new IllegalStateException("ActionBar text not set");
 
-            // ActionBar needs periodic resend because it fades
-            BukkitTask task = Tasks.sync().repeat(intervalTicks).run(() -> {
-                if (player.isOnline()) {
-                    player.sendActionBar(MM.deserialize(text.get()));
-                }
-            });
+            // ActionBar needs periodic resend because it fades; one shared table does it for all players
+            ActionBarSlots.Slot slot = ActionBarSlots.add(player, Components.parse(text.get()), intervalTicks);
+            Subscription changes = renderOnChange(player, "actionbar", text, val -> slot.show(Components.parse(val)));
 
-            Destroyable binding = task::cancel;
-            track(player, binding);
-            return binding;
+            Destroyable binding = () -> {
+                changes.unsubscribe();
+                ActionBarSlots.remove(slot);
+            };
+            return track(player, binding);
         }
     }
 }
@@ -0,0 +1,212 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Observable double without boxing — for fractional values updated every
+ * tick (regenerating mana, stamina, charge progress) on many players.
+ *
+ * Usage:
+ *   ReactiveDouble stamina = ReactiveDouble.of(20.0);
+ *   stamina.onChange((old, now) -> bar.progress((float) (now / 20.0)));
+ *   stamina.add(-0.25);
+ *
+ * A change with no listeners allocates nothing; listeners receive primitive
+ * values. Works with the rest of the reactive API through a read-only boxed
+ * view that is only created (and only kept up to date) once asked for:
+ *   Reactive<String> label = stamina.map(s -> String.format("§eStamina: %.1f", s));
+ *   Reactive.combine(stamina.asReactive(), maxStamina.asReactive(), (s, max) -> s / max);
+ *   Button.dynamic(view -> ...).bind(stamina);
+ *
+ * Values compare like {@link Double#equals}: NaN equals NaN, 0.0 differs from -0.0.
+ *
+ * In a {@link Reactive#transaction(Runnable)} listeners fire once at commit,
+ * with the value from before the transaction as old value.
+ */
+public final class ReactiveDouble extends PrimitiveReactive<Double> {
+
+    /** Change listener receiving primitive values. */
+    @FunctionalInterface
+    public interface Listener {
+        void onChange(double oldValue, double newValue);
+    }
+
+    private static final Listener[] NO_LISTENERS = new Listener[0];
+
+    private static final VarHandle VALUE;
+    private static final VarHandle VERSION;
+    private static final VarHandle LISTENERS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            VALUE = lookup.findVarHandle(ReactiveDouble.class, "value", double.class);
+            VERSION = lookup.findVarHandle(ReactiveDouble.class, "version", long.class);
+            LISTENERS = lookup.findVarHandle(ReactiveDouble.class, "listeners", Listener[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile double value;
+    private volatile long version = 0;
+    private volatile Listener[] listeners = NO_LISTENERS;
+
+    private ReactiveDouble(double initial) {
+        this.value = initial;
+    }
+
+    public static ReactiveDouble of(double initial) {
+        return new ReactiveDouble(initial);
+    }
+
+    public double get() { return value; }
+
+    public void set(double newValue) {
+        if (destroyed) return;
+        double old = (double) VALUE.getAndSet(this, newValue);
+        if (same(old, newValue)) return;
+        VERSION.getAndAdd(this, 1L);
+        changed(old, newValue);
+    }
+
+    /**
+     * Atomically replace the value with {@code updater.applyAsDouble(current)}. Under
+     * contention the updater may run more than once, so it should be side-effect free.
+     */
+    public void update(DoubleUnaryOperator updater) {
+        if (destroyed) return;
+        double old;
+        double next;
+        do {
+            old = value;
+            next = updater.applyAsDouble(old);
+            if (same(old, next)) return;
+        } while (!VALUE.compareAndSet(this, old, next));
+        VERSION.getAndAdd(this, 1L);
+        changed(old, next);
+    }
+
+    public void add(double amount) {
+        if (destroyed) return;
+        double old;
+        double next;
+        do {
+            old = value;
+            next = old + amount;
+            if (same(old, next)) return;
+        } while (!VALUE.compareAndSet(this, old, next));
+        VERSION.getAndAdd(this, 1L);
+        changed(old, next);
+    }
+
+    public void increment() { add(1); }
+
+    public void decrement() { add(-1); }
+
+    public void setSilent(double newValue) {
+        if (destroyed) return;
+        value = newValue;
+        VERSION.getAndAdd(this, 1L);
+        changedSilently();
+    }
+
+    @Override
+    public long version() { return version; }
+
+    // ========== Listeners ==========
+
+    /**
+     * Run listeners added from now on via {@code delivery} (e.g. the main thread)
+     * instead of on the thread that made the change. See {@link Delivery}.
+     */
+    public ReactiveDouble deliverOn(Delivery delivery) {
+        this.delivery = Objects.requireNonNull(delivery, "delivery");
+        return this;
+    }
+
+    public ReactiveDouble onChange(Listener listener) {
+        subscribeChange(listener);
+        return this;
+    }
+
+    public Subscription subscribeChange(Listener listener) {
+        return subscribeChange(listener, delivery);
+    }
+
+    /**
+     * Subscribe with the listener running via {@code delivery}; queued changes
+     * coalesce. Only a delivery other than the caller boxes the values.
+     */
+    public Subscription subscribeChange(Listener listener, Delivery delivery) {
+        if (destroyed) return () -> {};
+        Listener registered = delivery == Delivery.caller() ? listener : delivered(listener, delivery);
+        ListenerArrays.add(LISTENERS, this, registered);
+        return ReactiveLeaks.track(this, () -> ListenerArrays.remove(LISTENERS, this, registered));
+    }
+
+    @Override
+    public Subscription subscribeAny(Runnable listener, Delivery delivery) {
+        return subscribeChange((old, now) -> listener.run(), delivery);
+    }
+
+    private static Listener delivered(Listener listener, Delivery delivery) {
+        Delivered.Values<Double> values = new Delivered.Values<>(delivery, listener::onChange);
+        return (old, now) -> values.accept(old, now);
+    }
+
+    @Override
+    public void clearListeners() {
+        listeners = NO_LISTENERS;
+    }
+
+    private void changed(double old, double now) {
+        Listener[] snapshot = listeners;
+        if (snapshot.length == 0 && !hasView()) return;
+        if (Transaction.record(this, old)) return;
+        if (hasView()) propagate(() -> notifyListeners(snapshot, old, now));
+        else notifyListeners(snapshot, old, now);
+    }
+
+    private void notifyListeners(Listener[] snapshot, double old, double now) {
+        for (Listener listener : snapshot) {
+            try { listener.onChange(old, now); } catch (Exception e) { e.printStackTrace(); }
+        }
+    }
+
+    @Override
+    void notifyCommitted(Double oldValue, Double newValue) {
+        notifyListeners(listeners, oldValue, newValue);
+    }
+
+    // ========== Interop ==========
+
+    public <R> Reactive<R> map(DoubleFunction<R> mapper) {
+        return asReactive().map(v -> mapper.apply(v));
+    }
+
+    public ReactiveDouble asPlaceholder(String key) {
+        io.github.fragmer2.bslib.api.placeholder.Placeholders.register(key, player -> String.valueOf(value));
+        return this;
+    }
+
+    @Override
+    public Double getNumber() { return value; }
+
+    @Override
+    public void setNumber(Number value) { set(value.doubleValue()); }
+
+    @Override
+    public void setNumberSilent(Number value) { setSilent(value.doubleValue()); }
+
+    private static boolean same(double a, double b) {
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+
+    @Override
+    public String toString() { return "ReactiveDouble{" + value + "}"; }
+}
@@ -0,0 +1,200 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Observable int without boxing — for counters updated every tick
+ * (mana, combo, cooldown timers) on many players.
+ *
+ * Usage:
+ *   ReactiveInt mana = ReactiveInt.of(100);
+ *   mana.onChange((old, now) -> bar.progress(now / 100f));
+ *   mana.add(-15);
+ *
+ * A change with no listeners allocates nothing; listeners receive primitive
+ * values. Works with the rest of the reactive API through a read-only boxed
+ * view that is only created (and only kept up to date) once asked for:
+ *   Reactive<String> label = mana.map(m -> "§bMana: " + m);
+ *   Reactive.combine(mana.asReactive(), maxMana.asReactive(), (m, max) -> m * 100 / max);
+ *   Button.dynamic(view -> ...).bind(mana);
+ *
+ * In a {@link Reactive#transaction(Runnable)} listeners fire once at commit,
+ * with the value from before the transaction as old value.
+ */
+public final class ReactiveInt extends PrimitiveReactive<Integer> {
+
+    /** Change listener receiving primitive values. */
+    @FunctionalInterface
+    public interface Listener {
+        void onChange(int oldValue, int newValue);
+    }
+
+    private static final Listener[] NO_LISTENERS = new Listener[0];
+
+    private static final VarHandle VALUE;
+    private static final VarHandle VERSION;
+    private static final VarHandle LISTENERS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            VALUE = lookup.findVarHandle(ReactiveInt.class, "value", int.class);
+            VERSION = lookup.findVarHandle(ReactiveInt.class, "version", long.class);
+            LISTENERS = lookup.findVarHandle(ReactiveInt.class, "listeners", Listener[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile int value;
+    private volatile long version = 0;
+    private volatile Listener[] listeners = NO_LISTENERS;
+
+    private ReactiveInt(int initial) {
+        this.value = initial;
+    }
+
+    public static ReactiveInt of(int initial) {
+        return new ReactiveInt(initial);
+    }
+
+    public int get() { return value; }
+
+    public void set(int newValue) {
+        if (destroyed) return;
+        int old = (int) VALUE.getAndSet(this, newValue);
+        if (old == newValue) return;
+        VERSION.getAndAdd(this, 1L);
+        changed(old, newValue);
+    }
+
+    /**
+     * Atomically replace the value with {@code updater.applyAsInt(current)}. Under
+     * contention the updater may run more than once, so it should be side-effect free.
+     */
+    public void update(IntUnaryOperator updater) {
+        if (destroyed) return;
+        int old;
+        int next;
+        do {
+            old = value;
+            next = updater.applyAsInt(old);
+            if (old == next) return;
+        } while (!VALUE.compareAndSet(this, old, next));
+        VERSION.getAndAdd(this, 1L);
+        changed(old, next);
+    }
+
+    public void add(int amount) {
+        if (destroyed || amount == 0) return;
+        int old = (int) VALUE.getAndAdd(this, amount);
+        VERSION.getAndAdd(this, 1L);
+        changed(old, old + amount);
+    }
+
+    public void increment() { add(1); }
+
+    public void decrement() { add(-1); }
+
+    public void setSilent(int newValue) {
+        if (destroyed) return;
+        value = newValue;
+        VERSION.getAndAdd(this, 1L);
+        changedSilently();
+    }
+
+    @Override
+    public long version() { return version; }
+
+    // ========== Listeners ==========
+
+    /**
+     * Run listeners added from now on via {@code delivery} (e.g. the main thread)
+     * instead of on the thread that made the change. See {@link Delivery}.
+     */
+    public ReactiveInt deliverOn(Delivery delivery) {
+        this.delivery = Objects.requireNonNull(delivery, "delivery");
+        return this;
+    }
+
+    public ReactiveInt onChange(Listener listener) {
+        subscribeChange(listener);
+        return this;
+    }
+
+    public Subscription subscribeChange(Listener listener) {
+        return subscribeChange(listener, delivery);
+    }
+
+    /**
+     * Subscribe with the listener running via {@code delivery}; queued changes
+     * coalesce. Only a delivery other than the caller boxes the values.
+     */
+    public Subscription subscribeChange(Listener listener, Delivery delivery) {
+        if (destroyed) return () -> {};
+        Listener registered = delivery == Delivery.caller() ? listener : delivered(listener, delivery);
+        ListenerArrays.add(LISTENERS, this, registered);
+        return ReactiveLeaks.track(this, () -> ListenerArrays.remove(LISTENERS, this, registered));
+    }
+
+    @Override
+    public Subscription subscribeAny(Runnable listener, Delivery delivery) {
+        return subscribeChange((old, now) -> listener.run(), delivery);
+    }
+
+    private static Listener delivered(Listener listener, Delivery delivery) {
+        Delivered.Values<Integer> values = new Delivered.Values<>(delivery, listener::onChange);
+        return (old, now) -> values.accept(old, now);
+    }
+
+    @Override
+    public void clearListeners() {
+        listeners = NO_LISTENERS;
+    }
+
+    private void changed(int old, int now) {
+        Listener[] snapshot = listeners;
+        if (snapshot.length == 0 && !hasView()) return;
+        if (Transaction.record(this, old)) return;
+        if (hasView()) propagate(() -> notifyListeners(snapshot, old, now));
+        else notifyListeners(snapshot, old, now);
+    }
+
+    private void notifyListeners(Listener[] snapshot, int old, int now) {
+        for (Listener listener : snapshot) {
+            try { listener.onChange(old, now); } catch (Exception e) { e.printStackTrace(); }
+        }
+    }
+
+    @Override
+    void notifyCommitted(Integer oldValue, Integer newValue) {
+        notifyListeners(listeners, oldValue, newValue);
+    }
+
+    // ========== Interop ==========
+
+    public <R> Reactive<R> map(IntFunction<R> mapper) {
+        return asReactive().map(v -> mapper.apply(v));
+    }
+
+    public ReactiveInt asPlaceholder(String key) {
+        io.github.fragmer2.bslib.api.placeholder.Placeholders.register(key, player -> String.valueOf(value));
+        return this;
+    }
+
+    @Override
+    public Integer getNumber() { return value; }
+
+    @Override
+    public void setNumber(Number value) { set(value.intValue()); }
+
+    @Override
+    public void setNumberSilent(Number value) { setSilent(value.intValue()); }
+
+    @Override
+    public String toString() { return "ReactiveInt{" + value + "}"; }
+}
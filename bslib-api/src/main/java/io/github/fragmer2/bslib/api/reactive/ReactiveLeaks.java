@@ -0,0 +1,186 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import org.bukkit.Bukkit;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Subscription leak detector (debug mode, off by default).
+ *
+ * While enabled, every subscription to a Reactive, ReactiveList, ReactiveMap
+ * or primitive reactive records where it was created and, for player bindings,
+ * which player owns it, until it is unsubscribed. The report groups live
+ * subscriptions by reactive, so a global reactive collecting listeners stands
+ * out, and lists subscriptions whose owner is no longer online:
+ *
+ *   /bslib inspect leaks on
+ *   ... play for a while ...
+ *   /bslib inspect leaks
+ *
+ * Only subscriptions made while enabled are tracked. Disabled, subscribing
+ * costs one flag check; changes and listener calls are never touched.
+ */
+public final class ReactiveLeaks {
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    /** Frames skipped when looking for the code that subscribed. */
+    private static final List<String> INTERNAL = List.of(
+            ReactiveLeaks.class.getName(), Reactive.class.getName(), ReactiveList.class.getName(),
+            ReactiveMap.class.getName(), ReactiveInt.class.getName(), ReactiveLong.class.getName(),
+            ReactiveDouble.class.getName(), ReactiveBinding.class.getName());
+    private static final Set<Entry> live = ConcurrentHashMap.newKeySet();
+    private static volatile boolean enabled;
+
+    private ReactiveLeaks() {}
+
+    /**
+     * Live subscriptions of one reactive.
+     *
+     * @param source    the reactive, e.g. "Reactive@1b2c3d4e"
+     * @param listeners live subscriptions recorded for it
+     * @param sites     creation site → count, most frequent first
+     */
+    public record SourceReport(String source, int listeners, Map<String, Integer> sites) {}
+
+    /**
+     * A subscription whose owner went offline without it being destroyed.
+     *
+     * @param source    the reactive it listens to
+     * @param site      where it was created
+     * @param owner     the offline player
+     * @param ageMillis time since it was created
+     */
+    public record Leak(String source, String site, UUID owner, long ageMillis) {}
+
+    // ========== Mode ==========
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    /** Stop tracking and forget what was recorded. */
+    public static void disable() {
+        enabled = false;
+        live.clear();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // ========== Recording ==========
+
+    /** Record {@code subscription} of {@code source} if enabled; otherwise returned as is. */
+    static Subscription track(Object source, Subscription subscription) {
+        if (!enabled) return subscription;
+        Entry entry = new Entry(source, callerSite());
+        live.add(entry);
+        return new Tracked(subscription, entry);
+    }
+
+    /** Attribute a tracked subscription to a player, so it is reported if it outlives them. */
+    static Subscription owned(UUID owner, Subscription subscription) {
+        if (subscription instanceof Tracked tracked) tracked.entry.owner = owner;
+        return subscription;
+    }
+
+    private static String callerSite() {
+        return WALKER.walk(frames -> frames
+                .filter(f -> !isInternal(f.getClassName()))
+                .findFirst()
+                .map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    private static boolean isInternal(String className) {
+        for (String internal : INTERNAL) {
+            if (className.equals(internal) || className.startsWith(internal + "$")) return true;
+        }
+        return false;
+    }
+
+    // ========== Report ==========
+
+    /** Subscriptions made while enabled and still live. */
+    public static int trackedCount() {
+        purge();
+        return live.size();
+    }
+
+    /** Live subscriptions grouped by reactive, most listeners first. */
+    public static List<SourceReport> graph() {
+        purge();
+        Map<String, Map<String, Integer>> bySource = new HashMap<>();
+        for (Entry entry : live) {
+            bySource.computeIfAbsent(entry.sourceName, k -> new HashMap<>()).merge(entry.site, 1, Integer::sum);
+        }
+        List<SourceReport> result = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Integer>> entry : bySource.entrySet()) {
+            Map<String, Integer> sites = new LinkedHashMap<>();
+            entry.getValue().entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .forEach(e -> sites.put(e.getKey(), e.getValue()));
+            int total = sites.values().stream().mapToInt(Integer::intValue).sum();
+            result.add(new SourceReport(entry.getKey(), total, sites));
+        }
+        result.sort(Comparator.comparingInt(SourceReport::listeners).reversed());
+        return result;
+    }
+
+    /** Subscriptions whose owning player is offline. */
+    public static List<Leak> offlineOwned() {
+        return offlineOwned(owner -> Bukkit.getPlayer(owner) != null);
+    }
+
+    static List<Leak> offlineOwned(Predicate<UUID> isOnline) {
+        purge();
+        long now = System.currentTimeMillis();
+        List<Leak> leaks = new ArrayList<>();
+        for (Entry entry : live) {
+            UUID owner = entry.owner;
+            if (owner != null && !isOnline.test(owner)) {
+                leaks.add(new Leak(entry.sourceName, entry.site, owner, now - entry.createdMillis));
+            }
+        }
+        leaks.sort(Comparator.comparingLong(Leak::ageMillis).reversed());
+        return leaks;
+    }
+
+    /** Drop records of reactives that were garbage collected. */
+    private static void purge() {
+        live.removeIf(entry -> entry.source.get() == null);
+    }
+
+    // ========== Internals ==========
+
+    private static final class Entry {
+        final WeakReference<Object> source;
+        final String sourceName;
+        final String site;
+        final long createdMillis = System.currentTimeMillis();
+        volatile UUID owner;
+
+        Entry(Object source, String site) {
+            this.source = new WeakReference<>(source);
+            this.sourceName = source.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(source));
+            this.site = site;
+        }
+    }
+
+    private record Tracked(Subscription delegate, Entry entry) implements Subscription {
+        @Override
+        public void unsubscribe() {
+            delegate.unsubscribe();
+            live.remove(entry);
+        }
+    }
+}
@@ -13,6 +13,15 @@ import java.util.function.Consumer;
  *   friends.add("Notch");  // → scoreboard updates
  *   friends.remove("Alex"); // → scoreboard updates
  *
+ * Deltas — each mutation is also described by position ({@link ListChange}),
+ * so a large list can be mirrored without re-rendering everything:
+ *   auctions.subscribeDelta(changes -> changes.forEach(c -> c.applyTo(page)));
+ *   auctions.add(listing);  // → [INSERT at 812]
+ *
+ * The full-list snapshot handed to onChange listeners is a copy; it is only
+ * made when such listeners exist (once per batch). Delta listeners and
+ * Button.bind() never copy the list.
+ *
  * Bind to GUI:
  *   // Paginated friend list in menu
  *   for (int i = 0; i < 9; i++) {
@@ -26,6 +35,9 @@ import java.util.function.Consumer;
 public class ReactiveList<T> {
     private final List<T> list;
     private final List<Consumer<List<T>>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<List<ListChange<T>>>> deltaListeners = new CopyOnWriteArrayList<>();
+    private final ChangeQueue<ListChange<T>> changes = new ChangeQueue<>(this::deliver);
+    private volatile Delivery delivery = Delivery.caller();
     private volatile long version = 0;
 
     private ReactiveList(List<T> initial) {
@@ -48,50 +60,112 @@ public class ReactiveList<T> {
     // ========== Mutate (all fire listeners) ==========
 
     public void add(T item) {
-        list.add(item);
+        synchronized (this) {
+            list.add(item);
+            version++;
+            record(ListChange.insert(list.size() - 1, item));
+        }
         fire();
     }
 
     public void add(int index, T item) {
-        list.add(index, item);
+        synchronized (this) {
+            list.add(index, item);
+            version++;
+            record(ListChange.insert(index, item));
+        }
         fire();
     }
 
     public boolean remove(T item) {
-        boolean removed = list.remove(item);
-        if (removed) fire();
-        return removed;
+        synchronized (this) {
+            int index = list.indexOf(item);
+            if (index < 0) return false;
+            T removed = list.remove(index);
+            version++;
+            record(ListChange.remove(index, removed));
+        }
+        fire();
+        return true;
     }
 
     public T remove(int index) {
-        T removed = list.remove(index);
+        T removed;
+        synchronized (this) {
+            removed = list.remove(index);
+            version++;
+            record(ListChange.remove(index, removed));
+        }
         fire();
         return removed;
     }
 
     public void set(int index, T item) {
-        list.set(index, item);
+        synchronized (this) {
+            T old = list.set(index, item);
+            version++;
+            record(ListChange.update(index, old, item));
+        }
+        fire();
+    }
+
+    /** Move the element at {@code from} to {@code to} (one MOVE change). */
+    public void move(int from, int to) {
+        synchronized (this) {
+            Objects.checkIndex(from, list.size());
+            Objects.checkIndex(to, list.size());
+            if (from == to) return;
+            T item = list.remove(from);
+            list.add(to, item);
+            version++;
+            record(ListChange.move(from, to, item));
+        }
         fire();
     }
 
     public void clear() {
-        list.clear();
+        synchronized (this) {
+            if (observed()) {
+                for (int i = list.size() - 1; i >= 0; i--) changes.add(ListChange.remove(i, list.get(i)));
+            }
+            list.clear();
+            version++;
+        }
         fire();
     }
 
     public void addAll(Collection<T> items) {
-        list.addAll(items);
+        synchronized (this) {
+            int start = list.size();
+            list.addAll(items);
+            version++;
+            if (observed()) {
+                for (int i = start; i < list.size(); i++) changes.add(ListChange.insert(i, list.get(i)));
+            }
+        }
         fire();
     }
 
+    /** Replace the contents; reported as the positions that actually differ. */
     public void replaceAll(Collection<T> items) {
-        list.clear();
-        list.addAll(items);
+        synchronized (this) {
+            Object[] before = observed() ? list.toArray() : null;
+            list.clear();
+            list.addAll(items);
+            version++;
+            if (before != null) recordDiff(before);
+        }
         fire();
     }
 
+    /** Sort in place; reported as updates of the positions whose element changed. */
     public void sort(Comparator<? super T> comparator) {
-        list.sort(comparator);
+        synchronized (this) {
+            Object[] before = observed() ? list.toArray() : null;
+            list.sort(comparator);
+            version++;
+            if (before != null) recordDiff(before);
+        }
         fire();
     }
 
@@ -107,18 +181,90 @@ public class ReactiveList<T> {
 
     // ========== Observe ==========
 
+    /**
+     * Run listeners added from now on via {@code delivery} (e.g. the main thread)
+     * instead of on the thread that made the change. See {@link Delivery}.
+     */
+    public ReactiveList<T> deliverOn(Delivery delivery) {
+        this.delivery = Objects.requireNonNull(delivery, "delivery");
+        return this;
+    }
+
+    /** Full-list listener: receives a snapshot copy after every change batch. */
     public ReactiveList<T> onChange(Consumer<List<T>> listener) {
-        listeners.add(listener);
+        subscribeChange(listener);
         return this;
     }
 
+    public Subscription subscribeChange(Consumer<List<T>> listener) {
+        return subscribeChange(listener, delivery);
+    }
+
+    /** Snapshot listener running via {@code delivery}; queued snapshots coalesce to the latest. */
+    public Subscription subscribeChange(Consumer<List<T>> listener, Delivery delivery) {
+        Consumer<List<T>> registered = delivery == Delivery.caller()
+                ? listener
+                : new Delivered.Values<List<T>>(delivery, (old, now) -> listener.accept(now));
+        listeners.add(registered);
+        return ReactiveLeaks.track(this, () -> listeners.remove(registered));
+    }
+
+    /** Delta listener: receives the positional changes of every batch, in order. */
+    public ReactiveList<T> onDelta(Consumer<List<ListChange<T>>> listener) {
+        subscribeDelta(listener);
+        return this;
+    }
+
+    public Subscription subscribeDelta(Consumer<List<ListChange<T>>> listener) {
+        return subscribeDelta(listener, delivery);
+    }
+
+    /** Delta listener running via {@code delivery}; queued batches are joined, order kept. */
+    public Subscription subscribeDelta(Consumer<List<ListChange<T>>> listener, Delivery delivery) {
+        Consumer<List<ListChange<T>>> registered = delivery == Delivery.caller()
+                ? listener
+                : new Delivered.Batches<>(delivery, listener);
+        deltaListeners.add(registered);
+        return ReactiveLeaks.track(this, () -> deltaListeners.remove(registered));
+    }
+
     /** For Button.bind() — returns a Supplier that tracks version. */
     public java.util.function.Supplier<Object> asBindable() {
         return this::version;
     }
 
+    private boolean observed() {
+        return !listeners.isEmpty() || !deltaListeners.isEmpty();
+    }
+
+    /** Caller holds the lock. Nothing is recorded when nobody listens. */
+    private void record(ListChange<T> change) {
+        if (observed()) changes.add(change);
+    }
+
+    /** Caller holds the lock: changes turning {@code before} into the current contents. */
+    @SuppressWarnings("unchecked")
+    private void recordDiff(Object[] before) {
+        int size = list.size();
+        int common = Math.min(before.length, size);
+        for (int i = 0; i < common; i++) {
+            T now = list.get(i);
+            if (!Objects.equals(before[i], now)) changes.add(ListChange.update(i, (T) before[i], now));
+        }
+        for (int i = before.length - 1; i >= size; i--) changes.add(ListChange.remove(i, (T) before[i]));
+        for (int i = before.length; i < size; i++) changes.add(ListChange.insert(i, list.get(i)));
+    }
+
     private void fire() {
-        version++;
+        if (observed()) changes.flush();
+    }
+
+    private void deliver(List<ListChange<T>> batch) {
+        List<ListChange<T>> view = Collections.unmodifiableList(batch);
+        for (Consumer<List<ListChange<T>>> listener : deltaListeners) {
+            try { listener.accept(view); } catch (Exception e) { e.printStackTrace(); }
+        }
+        if (listeners.isEmpty()) return;
         List<T> snapshot = Collections.unmodifiableList(new ArrayList<>(list));
         for (Consumer<List<T>> listener : listeners) {
             try { listener.accept(snapshot); } catch (Exception e) { e.printStackTrace(); }
@@ -0,0 +1,200 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.function.LongFunction;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Observable long without boxing — for large or ever-growing counters
+ * (play time in ticks, balances in cents, damage dealt).
+ *
+ * Usage:
+ *   ReactiveLong playTicks = ReactiveLong.of(0);
+ *   playTicks.onChange((old, now) -> { if (now % 72_000 == 0) reward(player); });
+ *   playTicks.increment();
+ *
+ * A change with no listeners allocates nothing; listeners receive primitive
+ * values. Works with the rest of the reactive API through a read-only boxed
+ * view that is only created (and only kept up to date) once asked for:
+ *   Reactive<String> label = playTicks.map(t -> "§7Played: " + t / 72_000 + "h");
+ *   Reactive.combine(playTicks.asReactive(), afkTicks.asReactive(), (p, a) -> p - a);
+ *   Button.dynamic(view -> ...).bind(playTicks);
+ *
+ * In a {@link Reactive#transaction(Runnable)} listeners fire once at commit,
+ * with the value from before the transaction as old value.
+ */
+public final class ReactiveLong extends PrimitiveReactive<Long> {
+
+    /** Change listener receiving primitive values. */
+    @FunctionalInterface
+    public interface Listener {
+        void onChange(long oldValue, long newValue);
+    }
+
+    private static final Listener[] NO_LISTENERS = new Listener[0];
+
+    private static final VarHandle VALUE;
+    private static final VarHandle VERSION;
+    private static final VarHandle LISTENERS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            VALUE = lookup.findVarHandle(ReactiveLong.class, "value", long.class);
+            VERSION = lookup.findVarHandle(ReactiveLong.class, "version", long.class);
+            LISTENERS = lookup.findVarHandle(ReactiveLong.class, "listeners", Listener[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long value;
+    private volatile long version = 0;
+    private volatile Listener[] listeners = NO_LISTENERS;
+
+    private ReactiveLong(long initial) {
+        this.value = initial;
+    }
+
+    public static ReactiveLong of(long initial) {
+        return new ReactiveLong(initial);
+    }
+
+    public long get() { return value; }
+
+    public void set(long newValue) {
+        if (destroyed) return;
+        long old = (long) VALUE.getAndSet(this, newValue);
+        if (old == newValue) return;
+        VERSION.getAndAdd(this, 1L);
+        changed(old, newValue);
+    }
+
+    /**
+     * Atomically replace the value with {@code updater.applyAsLong(current)}. Under
+     * contention the updater may run more than once, so it should be side-effect free.
+     */
+    public void update(LongUnaryOperator updater) {
+        if (destroyed) return;
+        long old;
+        long next;
+        do {
+            old = value;
+            next = updater.applyAsLong(old);
+            if (old == next) return;
+        } while (!VALUE.compareAndSet(this, old, next));
+        VERSION.getAndAdd(this, 1L);
+        changed(old, next);
+    }
+
+    public void add(long amount) {
+        if (destroyed || amount == 0) return;
+        long old = (long) VALUE.getAndAdd(this, amount);
+        VERSION.getAndAdd(this, 1L);
+        changed(old, old + amount);
+    }
+
+    public void increment() { add(1); }
+
+    public void decrement() { add(-1); }
+
+    public void setSilent(long newValue) {
+        if (destroyed) return;
+        value = newValue;
+        VERSION.getAndAdd(this, 1L);
+        changedSilently();
+    }
+
+    @Override
+    public long version() { return version; }
+
+    // ========== Listeners ==========
+
+    /**
+     * Run listeners added from now on via {@code delivery} (e.g. the main thread)
+     * instead of on the thread that made the change. See {@link Delivery}.
+     */
+    public ReactiveLong deliverOn(Delivery delivery) {
+        this.delivery = Objects.requireNonNull(delivery, "delivery");
+        return this;
+    }
+
+    public ReactiveLong onChange(Listener listener) {
+        subscribeChange(listener);
+        return this;
+    }
+
+    public Subscription subscribeChange(Listener listener) {
+        return subscribeChange(listener, delivery);
+    }
+
+    /**
+     * Subscribe with the listener running via {@code delivery}; queued changes
+     * coalesce. Only a delivery other than the caller boxes the values.
+     */
+    public Subscription subscribeChange(Listener listener, Delivery delivery) {
+        if (destroyed) return () -> {};
+        Listener registered = delivery == Delivery.caller() ? listener : delivered(listener, delivery);
+        ListenerArrays.add(LISTENERS, this, registered);
+        return ReactiveLeaks.track(this, () -> ListenerArrays.remove(LISTENERS, this, registered));
+    }
+
+    @Override
+    public Subscription subscribeAny(Runnable listener, Delivery delivery) {
+        return subscribeChange((old, now) -> listener.run(), delivery);
+    }
+
+    private static Listener delivered(Listener listener, Delivery delivery) {
+        Delivered.Values<Long> values = new Delivered.Values<>(delivery, listener::onChange);
+        return (old, now) -> values.accept(old, now);
+    }
+
+    @Override
+    public void clearListeners() {
+        listeners = NO_LISTENERS;
+    }
+
+    private void changed(long old, long now) {
+        Listener[] snapshot = listeners;
+        if (snapshot.length == 0 && !hasView()) return;
+        if (Transaction.record(this, old)) return;
+        if (hasView()) propagate(() -> notifyListeners(snapshot, old, now));
+        else notifyListeners(snapshot, old, now);
+    }
+
+    private void notifyListeners(Listener[] snapshot, long old, long now) {
+        for (Listener listener : snapshot) {
+            try { listener.onChange(old, now); } catch (Exception e) { e.printStackTrace(); }
+        }
+    }
+
+    @Override
+    void notifyCommitted(Long oldValue, Long newValue) {
+        notifyListeners(listeners, oldValue, newValue);
+    }
+
+    // ========== Interop ==========
+
+    public <R> Reactive<R> map(LongFunction<R> mapper) {
+        return asReactive().map(v -> mapper.apply(v));
+    }
+
+    public ReactiveLong asPlaceholder(String key) {
+        io.github.fragmer2.bslib.api.placeholder.Placeholders.register(key, player -> String.valueOf(value));
+        return this;
+    }
+
+    @Override
+    public Long getNumber() { return value; }
+
+    @Override
+    public void setNumber(Number value) { set(value.longValue()); }
+
+    @Override
+    public void setNumberSilent(Number value) { setSilent(value.longValue()); }
+
+    @Override
+    public String toString() { return "ReactiveLong{" + value + "}"; }
+}
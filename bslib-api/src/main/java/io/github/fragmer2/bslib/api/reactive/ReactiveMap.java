@@ -1,7 +1,9 @@
 package io.github.fragmer2.bslib.api.reactive;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.List;
@@ -15,11 +17,18 @@ import java.util.function.Consumer;
  *   stats.onChange((k, v) -> updateDisplay());
  *   stats.put("kills", 10);  // → triggers
  *   stats.put("deaths", 3);  // → triggers
+ *
+ * Every mutation is described per key ({@link MapChange}); putAll and clear
+ * report one change per affected key instead of a whole-map notification:
+ *   stats.subscribeDelta(changes -> changes.forEach(c -> c.applyTo(shown)));
  */
 public class ReactiveMap<K, V> {
     private final Map<K, V> map;
     private final List<Consumer<Map<K, V>>> mapListeners = new CopyOnWriteArrayList<>();
     private final List<BiConsumer<K, V>> entryListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<List<MapChange<K, V>>>> deltaListeners = new CopyOnWriteArrayList<>();
+    private final ChangeQueue<MapChange<K, V>> changes = new ChangeQueue<>(this::deliver);
+    private volatile Delivery delivery = Delivery.caller();
     private volatile long version = 0;
 
     private ReactiveMap(Map<K, V> initial) {
@@ -37,31 +46,45 @@ public class ReactiveMap<K, V> {
     // ========== Mutate ==========
 
     public V put(K key, V value) {
-        V old = map.put(key, value);
-        fire(key, value);
+        V old;
+        synchronized (this) {
+            old = map.put(key, value);
+            version++;
+            record(MapChange.put(key, old, value));
+        }
+        fire();
         return old;
     }
 
     public V remove(K key) {
-        V old = map.remove(key);
-        if (old != null) fire(key, null);
+        V old;
+        synchronized (this) {
+            old = map.remove(key);
+            if (old == null) return null;
+            version++;
+            record(MapChange.remove(key, old));
+        }
+        fire();
         return old;
     }
 
     public void putAll(Map<K, V> entries) {
-        map.putAll(entries);
-        version++;
-        for (Consumer<Map<K, V>> listener : mapListeners) {
-            try { listener.accept(asMap()); } catch (Exception e) { e.printStackTrace(); }
+        synchronized (this) {
+            entries.forEach((key, value) -> record(MapChange.put(key, map.put(key, value), value)));
+            version++;
         }
+        fire();
     }
 
     public void clear() {
-        map.clear();
-        version++;
-        for (Consumer<Map<K, V>> listener : mapListeners) {
-            try { listener.accept(asMap()); } catch (Exception e) { e.printStackTrace(); }
+        synchronized (this) {
+            if (observed()) {
+                map.forEach((key, value) -> changes.add(MapChange.remove(key, value)));
+            }
+            map.clear();
+            version++;
         }
+        fire();
     }
 
     // ========== Read ==========
@@ -76,9 +99,32 @@ public class ReactiveMap<K, V> {
 
     // ========== Observe ==========
 
-    /** Full map change listener. */
+    /** Full map change listener: receives a read-only live view once per change batch. */
     public ReactiveMap<K, V> onChange(Consumer<Map<K, V>> listener) {
-        mapListeners.add(listener);
+        subscribeChange(listener);
+        return this;
+    }
+
+    public Subscription subscribeChange(Consumer<Map<K, V>> listener) {
+        return subscribeChange(listener, delivery);
+    }
+
+    /** Map listener running via {@code delivery}; queued notifications coalesce. */
+    public Subscription subscribeChange(Consumer<Map<K, V>> listener, Delivery delivery) {
+        Consumer<Map<K, V>> registered = delivery == Delivery.caller()
+                ? listener
+                : new Delivered.Values<Map<K, V>>(delivery, (old, now) -> listener.accept(now));
+        mapListeners.add(registered);
+        return ReactiveLeaks.track(this, () -> mapListeners.remove(registered));
+    }
+
+    /**
+     * Run map and delta listeners added from now on via {@code delivery} (e.g. the
+     * main thread) instead of on the thread that made the change. Per-entry
+     * listeners always run on the changing thread. See {@link Delivery}.
+     */
+    public ReactiveMap<K, V> deliverOn(Delivery delivery) {
+        this.delivery = Objects.requireNonNull(delivery, "delivery");
         return this;
     }
 
@@ -88,18 +134,69 @@ public class ReactiveMap<K, V> {
         return this;
     }
 
+    /** Delta listener: receives the per-key changes of every batch, in order. */
+    public ReactiveMap<K, V> onDelta(Consumer<List<MapChange<K, V>>> listener) {
+        subscribeDelta(listener);
+        return this;
+    }
+
+    public Subscription subscribeDelta(Consumer<List<MapChange<K, V>>> listener) {
+        return subscribeDelta(listener, delivery);
+    }
+
+    /** Delta listener running via {@code delivery}; queued batches are joined, order kept. */
+    public Subscription subscribeDelta(Consumer<List<MapChange<K, V>>> listener, Delivery delivery) {
+        Consumer<List<MapChange<K, V>>> registered = delivery == Delivery.caller()
+                ? listener
+                : new Delivered.Batches<>(delivery, listener);
+        deltaListeners.add(registered);
+        return ReactiveLeaks.track(this, () -> deltaListeners.remove(registered));
+    }
+
     public java.util.function.Supplier<Object> asBindable() {
         return this::version;
     }
 
-    private void fire(K key, V value) {
-        version++;
-        for (BiConsumer<K, V> listener : entryListeners) {
-            try { listener.accept(key, value); } catch (Exception e) { e.printStackTrace(); }
+    private boolean observed() {
+        return !mapListeners.isEmpty() || !entryListeners.isEmpty() || !deltaListeners.isEmpty();
+    }
+
+    /** Caller holds the lock. Nothing is recorded when nobody listens. */
+    private void record(MapChange<K, V> change) {
+        if (observed()) changes.add(change);
+    }
+
+    private void fire() {
+        if (observed()) changes.flush();
+    }
+
+    /**
+     * Deltas go out as recorded; entry listeners hear the last value per key
+     * (a transaction touching a key twice notifies it once).
+     */
+    private void deliver(List<MapChange<K, V>> batch) {
+        List<MapChange<K, V>> view = Collections.unmodifiableList(batch);
+        for (Consumer<List<MapChange<K, V>>> listener : deltaListeners) {
+            try { listener.accept(view); } catch (Exception e) { e.printStackTrace(); }
+        }
+        if (!entryListeners.isEmpty()) {
+            if (batch.size() == 1) {
+                notifyEntryListeners(batch.get(0).key(), batch.get(0).newValue());
+            } else {
+                Map<K, V> last = new LinkedHashMap<>();
+                for (MapChange<K, V> change : batch) last.put(change.key(), change.newValue());
+                last.forEach(this::notifyEntryListeners);
+            }
         }
         Map<K, V> snapshot = asMap();
         for (Consumer<Map<K, V>> listener : mapListeners) {
             try { listener.accept(snapshot); } catch (Exception e) { e.printStackTrace(); }
         }
     }
+
+    private void notifyEntryListeners(K key, V value) {
+        for (BiConsumer<K, V> listener : entryListeners) {
+            try { listener.accept(key, value); } catch (Exception e) { e.printStackTrace(); }
+        }
+    }
 }
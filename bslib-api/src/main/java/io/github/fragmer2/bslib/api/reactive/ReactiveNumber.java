@@ -0,0 +1,30 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+/**
+ * Common view of the primitive reactives ({@link ReactiveInt}, {@link ReactiveLong},
+ * {@link ReactiveDouble}) for code that handles them generically — state
+ * persistence, bindings. Everything here boxes; hot paths use the typed API.
+ */
+public interface ReactiveNumber {
+
+    /** Current value, boxed. */
+    Number getNumber();
+
+    /** Set from any Number (converted to the primitive type), notifying listeners. */
+    void setNumber(Number value);
+
+    /** Set from any Number without notifying listeners. */
+    void setNumberSilent(Number value);
+
+    /** Bumped on every change; cheap change detection for bindings. */
+    long version();
+
+    /** Listen for changes without receiving the values (no boxing), via the value's delivery. */
+    Subscription subscribeAny(Runnable listener);
+
+    /** {@link #subscribeAny(Runnable)} with the listener running via {@code delivery}. */
+    Subscription subscribeAny(Runnable listener, Delivery delivery);
+
+    /** Boxed read-only view for map / combine and other Reactive APIs. */
+    Reactive<? extends Number> asReactive();
+}
@@ -0,0 +1,89 @@
+package io.github.fragmer2.bslib.api.reactive;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Notification scope of {@link Reactive#transaction(Runnable)}, one per thread.
+ *
+ * Inside it values change immediately, but notifications are held back: each
+ * Reactive remembers the value it had when first touched, lists and maps
+ * remember that they changed. At commit every Reactive and primitive
+ * reactive whose value really differs (first old → current) is propagated in
+ * one height-ordered pass, then list and map listeners fire once each.
+ */
+final class Transaction {
+    private static final ThreadLocal<Transaction> CURRENT = new ThreadLocal<>();
+
+    private final Map<Object, Object> firstValues = new LinkedHashMap<>();
+    private final Map<Object, Runnable> deferred = new LinkedHashMap<>();
+
+    private Transaction() {}
+
+    static void run(Runnable body) {
+        if (CURRENT.get() != null) {
+            body.run(); // nested: the outermost transaction commits
+            return;
+        }
+        Transaction tx = new Transaction();
+        CURRENT.set(tx);
+        try {
+            body.run();
+        } finally {
+            // Values are not rolled back on failure, so listeners still hear about them
+            CURRENT.remove();
+            tx.commit();
+        }
+    }
+
+    /** Whether this thread is inside a transaction. */
+    static boolean active() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Record a Reactive change made in the current transaction.
+     *
+     * @return false if there is no transaction (notify now)
+     */
+    static boolean record(Reactive<?> reactive, Object oldValue) {
+        return recordFirst(reactive, oldValue);
+    }
+
+    /** {@link #record(Reactive, Object)} for ReactiveInt / Long / Double, old value boxed. */
+    static boolean record(PrimitiveReactive<?> primitive, Object oldValue) {
+        return recordFirst(primitive, oldValue);
+    }
+
+    private static boolean recordFirst(Object source, Object oldValue) {
+        Transaction tx = CURRENT.get();
+        if (tx == null) return false;
+        if (!tx.firstValues.containsKey(source)) tx.firstValues.put(source, oldValue);
+        return true;
+    }
+
+    /**
+     * The commit-time flush registered for {@code owner} in the current
+     * transaction, created on first use; null if there is no transaction.
+     */
+    @SuppressWarnings("unchecked")
+    static <F extends Runnable> F deferred(Object owner, Supplier<F> factory) {
+        Transaction tx = CURRENT.get();
+        if (tx == null) return null;
+        return (F) tx.deferred.computeIfAbsent(owner, o -> factory.get());
+    }
+
+    private void commit() {
+        List<Propagation.Change> changes = new ArrayList<>(firstValues.size());
+        firstValues.forEach((source, old) -> {
+            Propagation.Change change = source instanceof Reactive<?> reactive
+                    ? reactive.commitChange(old)
+                    : ((PrimitiveReactive<?>) source).commitChange(old);
+            if (change != null) changes.add(change);
+        });
+        if (!changes.isEmpty()) Propagation.run(changes);
+        for (Runnable flush : deferred.values()) {
+            try { flush.run(); } catch (Exception e) { e.printStackTrace(); }
+        }
+    }
+}
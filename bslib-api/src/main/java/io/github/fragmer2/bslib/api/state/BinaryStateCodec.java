@@ -0,0 +1,307 @@
+package io.github.fragmer2.bslib.api.state;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compact binary snapshot format (the BINARY backend and LOG records).
+ *
+ * Layout:
+ *   header:  byte 0xB5, byte format version
+ *   body:    varint fieldCount, then per field: string name, value
+ *   value:   byte tag, then
+ *            INT/LONG       zigzag varint
+ *            FLOAT/DOUBLE   4/8 bytes IEEE 754
+ *            STRING/ENUM    varint byteLength + UTF-8
+ *            UUID           16 bytes
+ *            LIST           varint size + values
+ *            MAP            varint size + (key value, value) pairs
+ *
+ * Field names are stored per record, so adding, removing or reordering @State
+ * fields never breaks old data. Other value types are rejected on encode. Values keep their Java type (UUID stays UUID,
+ * int stays int) — no text parsing or number widening on load.
+ */
+final class BinaryStateCodec implements StateCodec {
+    static final BinaryStateCodec INSTANCE = new BinaryStateCodec();
+
+    private static final byte MAGIC = (byte) 0xB5;
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte T_NULL = 0;
+    private static final byte T_FALSE = 1;
+    private static final byte T_TRUE = 2;
+    private static final byte T_INT = 3;
+    private static final byte T_LONG = 4;
+    private static final byte T_DOUBLE = 5;
+    private static final byte T_FLOAT = 6;
+    private static final byte T_STRING = 7;
+    private static final byte T_UUID = 8;
+    private static final byte T_ENUM = 9;
+    private static final byte T_LIST = 10;
+    private static final byte T_MAP = 11;
+    private static final byte T_SHORT = 12;
+    private static final byte T_BYTE = 13;
+
+    private BinaryStateCodec() {}
+
+    @Override
+    public byte id() { return 'B'; }
+
+    @Override
+    public byte[] encode(Map<String, Object> data) throws IOException {
+        Out out = new Out(64 + data.size() * 24);
+        out.writeByte(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeVarInt(data.size());
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            out.writeString(entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Map<String, Object> decode(byte[] bytes) throws IOException {
+        In in = new In(bytes);
+        if (in.readByte() != MAGIC) throw new IOException("Not a binary state record");
+        int version = in.readByte();
+        if (version != FORMAT_VERSION) throw new IOException("Unsupported binary state version " + version);
+        int count = in.readCount(2);
+        Map<String, Object> map = new LinkedHashMap<>(capacity(count));
+        for (int i = 0; i < count; i++) {
+            String name = in.readString();
+            map.put(name, readValue(in));
+        }
+        return map;
+    }
+
+    // ========== Values ==========
+
+    private static void writeValue(Out out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(T_NULL);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(b ? T_TRUE : T_FALSE);
+        } else if (value instanceof Integer i) {
+            out.writeByte(T_INT);
+            out.writeVarLong(zigzag(i));
+        } else if (value instanceof Long l) {
+            out.writeByte(T_LONG);
+            out.writeVarLong(zigzag(l));
+        } else if (value instanceof Double d) {
+            out.writeByte(T_DOUBLE);
+            out.writeLong(Double.doubleToRawLongBits(d));
+        } else if (value instanceof Float f) {
+            out.writeByte(T_FLOAT);
+            out.writeInt(Float.floatToRawIntBits(f));
+        } else if (value instanceof String s) {
+            out.writeByte(T_STRING);
+            out.writeString(s);
+        } else if (value instanceof UUID uuid) {
+            out.writeByte(T_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else if (value instanceof Enum<?> e) {
+            out.writeByte(T_ENUM);
+            out.writeString(e.name());
+        } else if (value instanceof Short s) {
+            out.writeByte(T_SHORT);
+            out.writeVarLong(zigzag(s));
+        } else if (value instanceof Byte b) {
+            out.writeByte(T_BYTE);
+            out.writeByte(b);
+        } else if (value instanceof Collection<?> list) {
+            out.writeByte(T_LIST);
+            out.writeVarInt(list.size());
+            for (Object element : list) writeValue(out, element);
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(T_MAP);
+            out.writeVarInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else {
+            // A toString() here would not load back as the same value
+            throw new IOException("Unsupported value in binary state: " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(In in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case T_NULL -> null;
+            case T_FALSE -> Boolean.FALSE;
+            case T_TRUE -> Boolean.TRUE;
+            case T_INT -> (int) unzigzag(in.readVarLong());
+            case T_LONG -> unzigzag(in.readVarLong());
+            case T_DOUBLE -> Double.longBitsToDouble(in.readLong());
+            case T_FLOAT -> Float.intBitsToFloat(in.readInt());
+            case T_STRING, T_ENUM -> in.readString();
+            case T_UUID -> new UUID(in.readLong(), in.readLong());
+            case T_SHORT -> (short) unzigzag(in.readVarLong());
+            case T_BYTE -> in.readByte();
+            case T_LIST -> {
+                int size = in.readCount(1);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) list.add(readValue(in));
+                yield list;
+            }
+            case T_MAP -> {
+                int size = in.readCount(2);
+                Map<Object, Object> map = new LinkedHashMap<>(capacity(size));
+                for (int i = 0; i < size; i++) map.put(readValue(in), readValue(in));
+                yield map;
+            }
+            default -> throw new IOException("Unknown binary state tag " + tag);
+        };
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    // ========== Buffers ==========
+
+    private static final class Out {
+        private byte[] buf;
+        private int pos;
+
+        Out(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        void ensure(int n) {
+            if (pos + n > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeInt(int v) {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) buf[pos++] = (byte) (v >>> shift);
+        }
+
+        void writeLong(long v) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) buf[pos++] = (byte) (v >>> shift);
+        }
+
+        void writeVarInt(int v) {
+            writeVarLong(v & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        void writeString(String s) {
+            // Fast path for ASCII — no intermediate byte[]
+            int len = s.length();
+            boolean ascii = true;
+            for (int i = 0; i < len; i++) {
+                if (s.charAt(i) >= 0x80) { ascii = false; break; }
+            }
+            if (ascii) {
+                writeVarInt(len);
+                ensure(len);
+                for (int i = 0; i < len; i++) buf[pos++] = (byte) s.charAt(i);
+            } else {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(bytes.length);
+                ensure(bytes.length);
+                System.arraycopy(bytes, 0, buf, pos, bytes.length);
+                pos += bytes.length;
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+    }
+
+    private static final class In {
+        private final byte[] buf;
+        private int pos;
+
+        In(byte[] buf) {
+            this.buf = buf;
+        }
+
+        private void require(int n) throws IOException {
+            if (n < 0 || pos + n > buf.length) throw new IOException("Truncated binary state record");
+        }
+
+        byte readByte() throws IOException {
+            require(1);
+            return buf[pos++];
+        }
+
+        int readInt() throws IOException {
+            require(4);
+            int v = 0;
+            for (int i = 0; i < 4; i++) v = (v << 8) | (buf[pos++] & 0xFF);
+            return v;
+        }
+
+        long readLong() throws IOException {
+            require(8);
+            long v = 0;
+            for (int i = 0; i < 8; i++) v = (v << 8) | (buf[pos++] & 0xFF);
+            return v;
+        }
+
+        int readVarInt() throws IOException {
+            long v = readVarLong();
+            if (v < 0 || v > Integer.MAX_VALUE) throw new IOException("Invalid length in binary state record");
+            return (int) v;
+        }
+
+        /**
+         * An element count, checked against the bytes left before anything is
+         * allocated for it: each element takes at least {@code minBytes}.
+         */
+        int readCount(int minBytes) throws IOException {
+            int count = readVarInt();
+            if ((long) count * minBytes > buf.length - pos) {
+                throw new IOException("Count " + count + " exceeds the binary state record");
+            }
+            return count;
+        }
+
+        long readVarLong() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw new IOException("Malformed varint in binary state record");
+        }
+
+        String readString() throws IOException {
+            int len = readVarInt();
+            require(len);
+            String s = new String(buf, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return s;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.fragmer2.bslib.api.state;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * One file per key (the YAML, JSON and BINARY backends).
+ *
+ * Snapshots are streamed through the codec straight into the file channel.
+ * Files are never overwritten in place: the snapshot goes to key.ext.tmp,
+ * is fsynced, then atomically renamed over the old file. A crash leaves
+ * either the old or the new version, never a half-written one.
+ */
+final class FileStateStore implements StateStore {
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final Path dir;
+    private final String extension;
+    private final StateCodec codec;
+
+    FileStateStore(Path dir, String extension, StateCodec codec) throws IOException {
+        this.dir = dir;
+        this.extension = extension;
+        this.codec = codec;
+        Files.createDirectories(dir);
+        // Leftovers from a crash between write and rename — the target is still intact
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                if (p.getFileName().toString().endsWith(TMP_SUFFIX)) Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> read(String key) throws IOException {
+        Path file = file(key);
+        if (!Files.exists(file)) return null;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 8192)) {
+            return codec.decodeFrom(in);
+        }
+    }
+
+    @Override
+    public void write(Map<String, Map<String, Object>> batch, BiConsumer<String, Exception> onFailure) {
+        for (Map.Entry<String, Map<String, Object>> entry : batch.entrySet()) {
+            try {
+                writeAtomically(file(entry.getKey()), out -> codec.encodeTo(entry.getValue(), out));
+            } catch (Exception e) {
+                onFailure.accept(entry.getKey(), e);
+            }
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(file(key));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(file(key));
+    }
+
+    @Override
+    public Set<String> keys() {
+        Set<String> keys = new HashSet<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(p -> {
+                String name = p.getFileName().toString();
+                if (name.endsWith(extension)) keys.add(name.substring(0, name.length() - extension.length()));
+            });
+        } catch (IOException ignored) {}
+        return keys;
+    }
+
+    @Override
+    public void close() {}
+
+    private Path file(String key) {
+        return dir.resolve(key + extension);
+    }
+
+    /** Writes the file content; the stream is buffered and must not be closed. */
+    interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Write to a sibling temp file, fsync, then rename over the target.
+     */
+    static void writeAtomically(Path target, Content content) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + TMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 8192);
+            content.writeTo(out);
+            out.flush();
+            channel.force(true);
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
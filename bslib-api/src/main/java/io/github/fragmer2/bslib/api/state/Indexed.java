@@ -0,0 +1,27 @@
+package io.github.fragmer2.bslib.api.state;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a @State field as a secondary index, for lookups by something other than the key.
+ *
+ *   @State("player-data")
+ *   public class PlayerData {
+ *       @StateKey UUID uuid;
+ *       @Indexed Reactive<String> clan = Reactive.of(null);
+ *       @Indexed(ignoreCase = true) String lastName;
+ *   }
+ *
+ *   Set<String> members = States.findBy(PlayerData.class, "clan", clanId);
+ *
+ * Works on Reactive and plain fields holding a scalar (String, number, boolean,
+ * UUID, enum). Reactive fields update the index on change; plain fields when
+ * the entry is saved. Null values are not indexed.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Indexed {
+
+    /** Match String values regardless of case. */
+    boolean ignoreCase() default false;
+}
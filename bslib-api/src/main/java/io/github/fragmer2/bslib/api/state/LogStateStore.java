@@ -0,0 +1,384 @@
+package io.github.fragmer2.bslib.api.state;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Append-only log for one state type (the LOG backend).
+ *
+ * File layout:
+ *   header:  int magic "BSLG", int format version
+ *   record:  int bodyLength, body, int crc32(body)
+ *   body:    byte op (PUT/DELETE), short keyLength, key (UTF-8), byte codec, payload
+ *
+ * - Every save appends a record; an in-memory index maps key → latest record
+ * - One fsync per batch, not per key
+ * - A torn tail (crash mid-append) is detected by length/CRC on open and truncated;
+ *   a corrupt record or length with an intact record after it fails the open
+ *   instead (after a .corrupt copy)
+ * - When more than half of the file is superseded records, live records are copied
+ *   to a new file which atomically replaces the old one
+ */
+final class LogStateStore implements StateStore {
+    private static final int MAGIC = 0x42534C47; // "BSLG"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_OVERHEAD = 8; // length + crc
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final long COMPACT_MIN_BYTES = 1L << 20;
+    private static final double COMPACT_GARBAGE_RATIO = 0.5;
+
+    private record Location(long offset, int length) {}
+
+    private final Path file;
+    private final StateCodec codec;
+    private final Logger logger;
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    private long size;
+    private long liveBytes;
+
+    LogStateStore(Path file, StateCodec codec, Logger logger) throws IOException {
+        this.file = file;
+        this.codec = codec;
+        this.logger = logger;
+        Files.createDirectories(file.getParent());
+        Files.deleteIfExists(compactFile()); // unfinished compaction, the log itself is intact
+        this.channel = FileChannel.open(file, CREATE, READ, WRITE);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+            channel.write(header, 0);
+            channel.force(true);
+            size = HEADER_SIZE;
+        } else {
+            recover();
+        }
+    }
+
+    // ========== StateStore ==========
+
+    @Override
+    public Map<String, Object> read(String key) throws IOException {
+        lock.readLock().lock();
+        try {
+            Location loc = index.get(key);
+            if (loc == null) return null;
+            ByteBuffer record = readAt(loc.offset(), loc.length());
+            int bodyLength = record.getInt();
+            byte[] body = new byte[bodyLength];
+            record.get(body);
+            if (crc(body) != record.getInt()) {
+                throw new IOException("Corrupt state record for " + key + " in " + file);
+            }
+            ByteBuffer in = ByteBuffer.wrap(body);
+            in.get(); // op
+            in.position(in.position() + 2 + (in.getShort(1) & 0xFFFF));
+            byte codecId = in.get();
+            byte[] payload = new byte[in.remaining()];
+            in.get(payload);
+            StateCodec recordCodec = codecId == codec.id() ? codec : StateCodec.forId(codecId);
+            return recordCodec.decode(payload);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void write(Map<String, Map<String, Object>> batch, BiConsumer<String, Exception> onFailure) {
+        List<String> keys = new ArrayList<>(batch.size());
+        List<byte[]> records = new ArrayList<>(batch.size());
+        int total = 0;
+        for (Map.Entry<String, Map<String, Object>> entry : batch.entrySet()) {
+            try {
+                byte[] record = record(OP_PUT, entry.getKey(), codec.id(), codec.encode(entry.getValue()));
+                keys.add(entry.getKey());
+                records.add(record);
+                total += record.length;
+            } catch (Exception e) {
+                onFailure.accept(entry.getKey(), e);
+            }
+        }
+        if (records.isEmpty()) return;
+
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        records.forEach(buffer::put);
+        buffer.flip();
+
+        lock.writeLock().lock();
+        try {
+            long start = size;
+            try {
+                append(buffer);
+            } catch (IOException e) {
+                truncateQuietly(start);
+                keys.forEach(k -> onFailure.accept(k, e));
+                return;
+            }
+            long offset = start;
+            for (int i = 0; i < keys.size(); i++) {
+                int length = records.get(i).length;
+                Location previous = index.put(keys.get(i), new Location(offset, length));
+                if (previous != null) liveBytes -= previous.length();
+                liveBytes += length;
+                offset += length;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        maybeCompact();
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        if (!index.containsKey(key)) return;
+        byte[] record = record(OP_DELETE, key, (byte) 0, new byte[0]);
+        lock.writeLock().lock();
+        try {
+            append(ByteBuffer.wrap(record));
+            Location previous = index.remove(key);
+            if (previous != null) liveBytes -= previous.length();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return index.containsKey(key);
+    }
+
+    @Override
+    public Set<String> keys() {
+        return new HashSet<>(index.keySet());
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel.isOpen()) {
+                channel.force(true);
+                channel.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ========== Compaction ==========
+
+    /** Bytes taken by superseded and deleted records. */
+    long garbageBytes() {
+        return size - HEADER_SIZE - liveBytes;
+    }
+
+    long sizeBytes() {
+        return size;
+    }
+
+    private void maybeCompact() {
+        if (size < COMPACT_MIN_BYTES || garbageBytes() < size * COMPACT_GARBAGE_RATIO) return;
+        try {
+            compact();
+        } catch (IOException e) {
+            logger.warning("State log compaction failed for " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Copy live records into a fresh file and atomically swap it in.
+     */
+    void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            Path tmp = compactFile();
+            Map<String, Location> relocated = new HashMap<>();
+            long offset = HEADER_SIZE;
+            try (FileChannel out = FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+                out.write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION).flip());
+                for (Map.Entry<String, Location> entry : index.entrySet()) {
+                    Location loc = entry.getValue();
+                    ByteBuffer record = readAt(loc.offset(), loc.length());
+                    while (record.hasRemaining()) out.write(record);
+                    relocated.put(entry.getKey(), new Location(offset, loc.length()));
+                    offset += loc.length();
+                }
+                out.force(true);
+            }
+
+            // Closed for the swap (Windows can't replace an open file); reopened whether it worked or not
+            channel.close();
+            try {
+                try {
+                    Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            } finally {
+                channel = FileChannel.open(file, READ, WRITE);
+            }
+            index.putAll(relocated);
+            size = offset;
+            liveBytes = offset - HEADER_SIZE;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ========== Internal ==========
+
+    /**
+     * Rebuild the index by scanning the log; cut off a torn tail. A corrupt
+     * record with valid records after it is not cut off: the log is copied to
+     * a .corrupt file and opening fails, so no later record is lost.
+     */
+    private void recover() throws IOException {
+        long fileSize = channel.size();
+        long pos = HEADER_SIZE;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (fileSize < HEADER_SIZE || in.readInt() != MAGIC) {
+                throw new IOException("Not a BSLib state log: " + file);
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported state log version " + version + ": " + file);
+            }
+            while (pos + RECORD_OVERHEAD <= fileSize) {
+                int bodyLength = in.readInt();
+                long end = pos + RECORD_OVERHEAD + bodyLength;
+                if (bodyLength > 0 && end > fileSize) {
+                    // An append cut short by a crash, unless the length itself is damaged
+                    if (intactRecordAfter(pos + 4, fileSize)) throw corrupt(pos, "invalid record length " + bodyLength);
+                    break;
+                }
+                if (bodyLength <= 0) throw corrupt(pos, "invalid record length " + bodyLength);
+                byte[] body = new byte[bodyLength];
+                in.readFully(body);
+                if (crc(body) != in.readInt()) {
+                    if (end == fileSize) break;                 // last record, torn mid-write
+                    throw corrupt(pos, "checksum mismatch");
+                }
+
+                byte op = body[0];
+                int keyLength = ((body[1] & 0xFF) << 8) | (body[2] & 0xFF);
+                String key = new String(body, 3, keyLength, StandardCharsets.UTF_8);
+                int length = RECORD_OVERHEAD + bodyLength;
+                Location previous = op == OP_PUT
+                        ? index.put(key, new Location(pos, length))
+                        : index.remove(key);
+                if (previous != null) liveBytes -= previous.length();
+                if (op == OP_PUT) liveBytes += length;
+                pos += length;
+            }
+        }
+        if (pos < fileSize) {
+            logger.warning("Truncating " + (fileSize - pos) + " bytes of an incomplete last record in " + file);
+            channel.truncate(pos);
+            channel.force(true);
+        }
+        size = pos;
+    }
+
+    /**
+     * Whether a complete, CRC-valid record starts anywhere in [from, fileSize).
+     * A torn last append has none after it; a damaged length in mid-file does.
+     */
+    private boolean intactRecordAfter(long from, long fileSize) throws IOException {
+        long remaining = fileSize - from;
+        if (remaining > Integer.MAX_VALUE - 8) return true; // too much to be one torn append
+        ByteBuffer tail = readAt(from, (int) remaining);
+        byte[] bytes = tail.array();
+        for (int at = 0; at + RECORD_OVERHEAD + 3 <= bytes.length; at++) {
+            int bodyLength = ByteBuffer.wrap(bytes, at, 4).getInt();
+            if (bodyLength < 3 || bodyLength > bytes.length - at - RECORD_OVERHEAD) continue;
+            byte op = bytes[at + 4];
+            if (op != OP_PUT && op != OP_DELETE) continue;
+            int keyLength = ((bytes[at + 5] & 0xFF) << 8) | (bytes[at + 6] & 0xFF);
+            if (keyLength + 3 > bodyLength) continue;
+            CRC32 crc = new CRC32();
+            crc.update(bytes, at + 4, bodyLength);
+            int stored = ByteBuffer.wrap(bytes, at + 4 + bodyLength, 4).getInt();
+            if ((int) crc.getValue() == stored) return true;
+        }
+        return false;
+    }
+
+    /** Keep a copy of the damaged log for inspection and refuse to open it. */
+    private IOException corrupt(long offset, String reason) throws IOException {
+        Path backup = file.resolveSibling(file.getFileName() + ".corrupt-" + System.currentTimeMillis());
+        Files.copy(file, backup, StandardCopyOption.REPLACE_EXISTING);
+        channel.close();
+        return new IOException("Corrupt state log " + file + " at offset " + offset + " (" + reason +
+                "), records follow it; not truncating. A copy was saved to " + backup);
+    }
+
+    private void append(ByteBuffer buffer) throws IOException {
+        long pos = size;
+        while (buffer.hasRemaining()) {
+            pos += channel.write(buffer, pos);
+        }
+        channel.force(false);
+        size = pos;
+    }
+
+    private ByteBuffer readAt(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        long pos = offset;
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, pos);
+            if (n < 0) throw new EOFException("Truncated state record in " + file);
+            pos += n;
+        }
+        return buffer.flip();
+    }
+
+    private void truncateQuietly(long length) {
+        try {
+            channel.truncate(length);
+        } catch (IOException ignored) {}
+        size = length;
+    }
+
+    private Path compactFile() {
+        return file.resolveSibling(file.getFileName() + ".compact");
+    }
+
+    private static byte[] record(byte op, String key, byte codecId, byte[] payload) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > 0xFFFF) throw new IllegalArgumentException("State key too long: " + key);
+        int bodyLength = 1 + 2 + keyBytes.length + 1 + payload.length;
+        ByteBuffer body = ByteBuffer.allocate(RECORD_OVERHEAD + bodyLength);
+        body.putInt(bodyLength)
+                .put(op)
+                .putShort((short) keyBytes.length)
+                .put(keyBytes)
+                .put(codecId)
+                .put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(body.array(), 4, bodyLength);
+        body.putInt((int) crc.getValue());
+        return body.array();
+    }
+
+    private static int crc(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+}
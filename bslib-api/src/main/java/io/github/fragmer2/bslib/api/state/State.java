@@ -19,10 +19,24 @@ import java.lang.annotation.*;
  * - Auto-serializes Reactive fields, primitives, collections, maps
  * - Async save/load with sync callbacks
  * - Dirty tracking — only saves when data actually changed
- * - Autosave on interval
+ *   (plain fields and Reactive.setSilent() need States.markDirty(...))
+ * - Autosave on interval, written behind through a coalescing batch queue
+ * - Optional bounded cache (maxCached / idleSeconds / maxWeight); dirty entries
+ *   are saved before eviction, online players are never evicted
  * - Auto-save on quit, auto-load on join
  *
- * Backend options: YAML (default), JSON
+ * Backend options:
+ * - YAML (default), JSON: one file per key, replaced atomically on save
+ * - BINARY: one compact binary file per key; much faster to load and save than text
+ * - LOG: a single append-only log per type with an in-memory index;
+ *   fsynced per write batch and compacted automatically. Best for many keys.
+ *
+ * Schema changes: bump version and register StateMigration steps. Old records are
+ * upgraded lazily on load, or all at once with States.migrateAll(...).
+ * Stored values that no longer fit a field's type are skipped with a warning.
+ *
+ * Changing the backend of an existing type does not move its data; convert it with
+ * States.convert(type, oldBackend) or /bslib state convert <type> <oldBackend>.
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.TYPE)
@@ -33,8 +47,34 @@ public @interface State {
     /** Auto-save interval in seconds. 0 = no auto-save. Default: 300 (5 min). */
     int autosaveSeconds() default 300;
 
+    /** Max snapshots written per IO batch. A full batch is flushed immediately. Default: 64. */
+    int writeBatchSize() default 64;
+
+    /** Max time a queued save may wait before it is written, in milliseconds. Default: 1000. */
+    long maxWriteLatencyMillis() default 1000;
+
+    /** Max cached instances; least recently used ones are evicted beyond it. 0 = unbounded. */
+    int maxCached() default 0;
+
+    /** Evict instances not accessed for this many seconds. 0 = never. */
+    int idleSeconds() default 0;
+
+    /** Max total weight of cached instances (see {@link #weigher()}). 0 = unbounded. */
+    long maxWeight() default 0;
+
+    /** Weight function for {@link #maxWeight()}. Needs a no-arg constructor. */
+    @SuppressWarnings("rawtypes")
+    Class<? extends StateWeigher> weigher() default StateWeigher.Unit.class;
+
+    /**
+     * Schema version stored with every record. Bump it when renaming or retyping
+     * fields and register a {@link StateMigration} for the previous version.
+     * Default: 0 (unversioned).
+     */
+    int version() default 0;
+
     /** Storage backend. */
     Backend backend() default Backend.YAML;
 
-    enum Backend { YAML, JSON }
+    enum Backend { YAML, JSON, BINARY, LOG }
 }
@@ -0,0 +1,253 @@
+package io.github.fragmer2.bslib.api.state;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * In-memory cache of loaded @State instances with an eviction policy.
+ *
+ * - maxEntries / maxWeight bound the cache; when exceeded, the least recently
+ *   accessed entries are picked until it is back under 90% of the limit
+ * - idle entries (not accessed for idleNanos) are picked on every sweep
+ * - pinned keys (online players, globals) are never picked
+ *
+ * This class only selects victims; StateManager writes them back and removes them.
+ */
+public final class StateCache<T> {
+
+    static final class Entry<T> {
+        final T value;
+        volatile long lastAccess;
+        volatile int weight;
+
+        Entry(T value, int weight) {
+            this.value = value;
+            this.weight = weight;
+            this.lastAccess = System.nanoTime();
+        }
+    }
+
+    /**
+     * @param size      cached entries
+     * @param weight    total weight
+     * @param pinned    entries exempt from eviction
+     * @param hits      lookups served from the cache
+     * @param misses    lookups that went to storage
+     * @param evictions entries evicted by the policy
+     */
+    public record Stats(int size, long weight, int pinned, long hits, long misses, long evictions) {}
+
+    private final ConcurrentHashMap<String, Entry<T>> map = new ConcurrentHashMap<>();
+    private final Set<String> pinned = ConcurrentHashMap.newKeySet();
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long idleNanos;
+    private final StateWeigher<? super T> weigher;
+    private final AtomicLong totalWeight = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    // Size and weight the last scan left behind; pinned entries can keep them over the limit
+    private volatile int scannedSize;
+    private volatile long scannedWeight;
+
+    StateCache(int maxEntries, long maxWeight, long idleSeconds, StateWeigher<? super T> weigher) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.maxWeight = Math.max(0, maxWeight);
+        this.idleNanos = TimeUnit.SECONDS.toNanos(Math.max(0, idleSeconds));
+        this.weigher = weigher;
+    }
+
+    boolean isBounded() {
+        return maxEntries > 0 || maxWeight > 0 || idleNanos > 0;
+    }
+
+    // ========== Access ==========
+
+    /** Cached value (counts as an access), or null. */
+    T get(String key) {
+        Entry<T> entry = map.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        entry.lastAccess = System.nanoTime();
+        return entry.value;
+    }
+
+    /** Cached value without touching access time or stats. */
+    T peek(String key) {
+        Entry<T> entry = map.get(key);
+        return entry != null ? entry.value : null;
+    }
+
+    T computeIfAbsent(String key, Function<String, T> factory) {
+        Entry<T> entry = map.get(key);
+        if (entry == null) {
+            misses.increment();
+            entry = map.computeIfAbsent(key, k -> newEntry(factory.apply(k)));
+        } else {
+            hits.increment();
+        }
+        entry.lastAccess = System.nanoTime();
+        return entry.value;
+    }
+
+    /** Insert unless present; returns the value now cached. */
+    T putIfAbsent(String key, T value) {
+        Entry<T> created = newEntry(value);
+        Entry<T> existing = map.putIfAbsent(key, created);
+        if (existing != null) {
+            totalWeight.addAndGet(-created.weight);
+            existing.lastAccess = System.nanoTime();
+            return existing.value;
+        }
+        return value;
+    }
+
+    T remove(String key) {
+        Entry<T> entry = map.remove(key);
+        if (entry == null) return null;
+        removed(entry);
+        return entry.value;
+    }
+
+    /** Remove only if the key still maps to this exact instance. */
+    boolean remove(String key, T value) {
+        Entry<T> entry = map.get(key);
+        if (entry == null || entry.value != value || !map.remove(key, entry)) return false;
+        removed(entry);
+        evictions.increment();
+        return true;
+    }
+
+    private void removed(Entry<T> entry) {
+        long weight = totalWeight.addAndGet(-entry.weight);
+        if (scannedSize > map.size()) scannedSize = map.size();
+        if (scannedWeight > weight) scannedWeight = weight;
+    }
+
+    boolean contains(String key) {
+        return map.containsKey(key);
+    }
+
+    Set<String> keys() {
+        return map.keySet();
+    }
+
+    /** Live view of cached key → instance. */
+    Iterable<Map.Entry<String, T>> entries() {
+        return () -> map.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().value))
+                .iterator();
+    }
+
+    int size() {
+        return map.size();
+    }
+
+    void clear() {
+        map.clear();
+        pinned.clear();
+        totalWeight.set(0);
+        scannedSize = 0;
+        scannedWeight = 0;
+    }
+
+    // ========== Pinning ==========
+
+    void pin(String key) {
+        pinned.add(key);
+    }
+
+    void unpin(String key) {
+        pinned.remove(key);
+    }
+
+    boolean isPinned(String key) {
+        return pinned.contains(key);
+    }
+
+    // ========== Eviction ==========
+
+    boolean overCapacity() {
+        return (maxEntries > 0 && map.size() > maxEntries)
+                || (maxWeight > 0 && totalWeight.get() > maxWeight);
+    }
+
+    /**
+     * Over capacity and grown by a tenth of a limit since the last scan. When
+     * pinned entries alone exceed a limit, every scan comes up short; this keeps
+     * accesses from rescanning the whole cache each time.
+     */
+    boolean needsEviction() {
+        if (!overCapacity()) return false;
+        return (maxEntries > 0 && map.size() - scannedSize >= Math.max(1, maxEntries / 10))
+                || (maxWeight > 0 && totalWeight.get() - scannedWeight >= Math.max(1, maxWeight / 10));
+    }
+
+    /**
+     * Pick entries to evict: everything idle, then least-recently-used until the
+     * cache is back under 90% of its limits. Refreshes weights on the way.
+     */
+    List<Map.Entry<String, T>> victims() {
+        long now = System.nanoTime();
+        List<Map.Entry<String, T>> victims = new ArrayList<>();
+        List<Map.Entry<String, Entry<T>>> candidates = new ArrayList<>();
+        long weight = 0;
+
+        for (Map.Entry<String, Entry<T>> e : map.entrySet()) {
+            Entry<T> entry = e.getValue();
+            int w = weigh(entry.value);
+            totalWeight.addAndGet(w - entry.weight);
+            entry.weight = w;
+            weight += w;
+            if (pinned.contains(e.getKey())) continue;
+            if (idleNanos > 0 && now - entry.lastAccess > idleNanos) {
+                victims.add(Map.entry(e.getKey(), entry.value));
+                weight -= w;
+            } else {
+                candidates.add(e);
+            }
+        }
+
+        int size = map.size() - victims.size();
+        long entryTarget = maxEntries > 0 ? maxEntries * 9L / 10 : Long.MAX_VALUE;
+        long weightTarget = maxWeight > 0 ? maxWeight * 9 / 10 : Long.MAX_VALUE;
+        if (size > entryTarget || weight > weightTarget) {
+            candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+            for (Map.Entry<String, Entry<T>> e : candidates) {
+                if (size <= entryTarget && weight <= weightTarget) break;
+                victims.add(Map.entry(e.getKey(), e.getValue().value));
+                size--;
+                weight -= e.getValue().weight;
+            }
+        }
+        scannedSize = size;
+        scannedWeight = weight;
+        return victims;
+    }
+
+    Stats stats() {
+        return new Stats(map.size(), totalWeight.get(), pinned.size(), hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private Entry<T> newEntry(T value) {
+        Entry<T> entry = new Entry<>(value, weigh(value));
+        totalWeight.addAndGet(entry.weight);
+        return entry;
+    }
+
+    private int weigh(T value) {
+        try {
+            return Math.max(0, weigher.weigh(value));
+        } catch (RuntimeException e) {
+            return 1;
+        }
+    }
+}
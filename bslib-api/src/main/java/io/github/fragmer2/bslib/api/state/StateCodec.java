@@ -0,0 +1,126 @@
+package io.github.fragmer2.bslib.api.state;
+
+import io.github.fragmer2.bslib.api.json.JsonReader;
+import io.github.fragmer2.bslib.api.json.JsonWriter;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Turns a serialized snapshot (the map built by StateSerializer) into bytes and back.
+ *
+ * Snapshots may hold UUIDs and enums; text codecs convert them with
+ * StateSerializer.portable(), the binary codec stores them natively.
+ *
+ * The id byte is written with every LOG record, so records stay readable
+ * after the codec of a state type changes.
+ */
+interface StateCodec {
+
+    byte id();
+
+    byte[] encode(Map<String, Object> data) throws IOException;
+
+    Map<String, Object> decode(byte[] bytes) throws IOException;
+
+    /** Stream the encoded snapshot. Text codecs override this to skip the byte[]. */
+    default void encodeTo(Map<String, Object> data, OutputStream out) throws IOException {
+        out.write(encode(data));
+    }
+
+    default Map<String, Object> decodeFrom(InputStream in) throws IOException {
+        return decode(in.readAllBytes());
+    }
+
+    /** Bukkit YAML text. */
+    StateCodec YAML = new StateCodec() {
+        @Override
+        public byte id() { return 'Y'; }
+
+        @Override
+        public byte[] encode(Map<String, Object> data) {
+            YamlConfiguration yaml = new YamlConfiguration();
+            for (Map.Entry<String, Object> entry : StateSerializer.portable(data).entrySet()) {
+                yaml.set(entry.getKey(), entry.getValue());
+            }
+            return yaml.saveToString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Map<String, Object> decode(byte[] bytes) throws IOException {
+            YamlConfiguration yaml = new YamlConfiguration();
+            try {
+                yaml.loadFromString(new String(bytes, StandardCharsets.UTF_8));
+            } catch (Exception e) {
+                throw new IOException("Invalid YAML state", e);
+            }
+            return plain(yaml);
+        }
+    };
+
+    /** Nested YAML maps load as ConfigurationSections; snapshots hold plain maps. */
+    private static Map<String, Object> plain(ConfigurationSection section) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (String key : section.getKeys(false)) {
+            map.put(key, plain(section.get(key)));
+        }
+        return map;
+    }
+
+    private static Object plain(Object value) {
+        if (value instanceof ConfigurationSection section) return plain(section);
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object element : list) copy.add(plain(element));
+            return copy;
+        }
+        return value;
+    }
+
+    /** JSON text via the streaming {@link JsonWriter}/{@link JsonReader}. */
+    StateCodec JSON = new StateCodec() {
+        @Override
+        public byte id() { return 'J'; }
+
+        @Override
+        public byte[] encode(Map<String, Object> data) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            encodeTo(data, out);
+            return out.toByteArray();
+        }
+
+        @Override
+        public void encodeTo(Map<String, Object> data, OutputStream out) throws IOException {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            JsonWriter json = new JsonWriter(writer).indent("  ");
+            json.value(StateSerializer.portable(data));
+            writer.write('\n');
+            writer.flush();
+        }
+
+        @Override
+        public Map<String, Object> decode(byte[] bytes) throws IOException {
+            return decodeFrom(new ByteArrayInputStream(bytes));
+        }
+
+        @Override
+        public Map<String, Object> decodeFrom(InputStream in) throws IOException {
+            return new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8)).readObject();
+        }
+    };
+
+    /**
+     * Built-in codec for a stored id byte.
+     */
+    static StateCodec forId(byte id) throws IOException {
+        return switch (id) {
+            case 'Y' -> YAML;
+            case 'J' -> JSON;
+            case 'B' -> BinaryStateCodec.INSTANCE;
+            default -> throw new IOException("Unknown state codec: " + (char) id);
+        };
+    }
+}
@@ -0,0 +1,249 @@
+package io.github.fragmer2.bslib.api.state;
+
+import io.github.fragmer2.bslib.api.reactive.Reactive;
+import io.github.fragmer2.bslib.api.reactive.ReactiveNumber;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Secondary indexes of a @State type: for every {@link Indexed} field,
+ * value → keys and key → value maps, so findBy is a hash lookup.
+ *
+ * Values are normalized so stored and live data compare equal whatever the
+ * backend: UUIDs, enums and Strings by their text, integral numbers as Long,
+ * other numbers as Double.
+ *
+ * Lookups are lock-free; updates are serialized on the index. While a rebuild
+ * runs, live updates keep flowing in and keys touched by them win over what
+ * the rebuild read from storage.
+ */
+final class StateIndex {
+    private static final int FORMAT_VERSION = 1;
+
+    private final List<Field> fields;
+    private final Map<String, Field> byName;
+    private final Set<String> touched = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    StateIndex(StateSchema schema) {
+        List<Field> list = new ArrayList<>();
+        for (StateSchema.Property property : schema.properties()) {
+            Indexed indexed = property.indexed();
+            if (indexed == null) continue;
+            if (property.kind() == StateSchema.Kind.REACTIVE_LIST || property.kind() == StateSchema.Kind.REACTIVE_MAP) {
+                throw new IllegalArgumentException("@Indexed field " + schema.type().getName() + "." +
+                        property.name() + " must be a Reactive or plain scalar field");
+            }
+            list.add(new Field(list.size(), property, indexed.ignoreCase()));
+        }
+        this.fields = List.copyOf(list);
+        Map<String, Field> names = new HashMap<>();
+        for (Field f : fields) names.put(f.property.name(), f);
+        this.byName = names;
+    }
+
+    boolean isEmpty() {
+        return fields.isEmpty();
+    }
+
+    List<Field> fields() {
+        return fields;
+    }
+
+    // ========== Queries ==========
+
+    /** Keys whose field currently equals the value. */
+    Set<String> find(String field, Object value) {
+        Field f = byName.get(field);
+        if (f == null) throw new IllegalArgumentException("Field " + field + " is not @Indexed");
+        Object normalized = f.normalize(value);
+        if (normalized == null) return Set.of();
+        Set<String> keys = f.keysByValue.get(normalized);
+        return keys == null ? Set.of() : Collections.unmodifiableSet(keys);
+    }
+
+    // ========== Updates ==========
+
+    /** Index a live instance. */
+    synchronized void put(String key, Object instance) {
+        for (Field f : fields) {
+            f.set(key, f.normalize(unwrap(f.property.get(instance))));
+        }
+        if (rebuilding) touched.add(key);
+    }
+
+    /** Index plain fields from a save snapshot (Reactive fields track themselves). */
+    synchronized void putPlain(String key, Map<String, Object> snapshot) {
+        for (Field f : fields) {
+            if (f.property.kind() == StateSchema.Kind.PLAIN) {
+                f.set(key, f.normalize(snapshot.get(f.property.name())));
+            }
+        }
+        if (rebuilding) touched.add(key);
+    }
+
+    /** A Reactive indexed field changed. */
+    synchronized void update(String key, Field f, Object value) {
+        f.set(key, f.normalize(value));
+        if (rebuilding) touched.add(key);
+    }
+
+    synchronized void remove(String key) {
+        for (Field f : fields) f.set(key, null);
+        if (rebuilding) touched.add(key);
+    }
+
+    // ========== Rebuild ==========
+
+    synchronized void beginRebuild() {
+        touched.clear();
+        rebuilding = true;
+    }
+
+    /** Values of every indexed field in stored data, by field position. */
+    Object[] valuesOf(Map<String, Object> data) {
+        Object[] values = new Object[fields.size()];
+        for (Field f : fields) values[f.position] = f.normalize(data.get(f.property.name()));
+        return values;
+    }
+
+    /** Values of every indexed field of a live instance, by field position. */
+    Object[] valuesOfInstance(Object instance) {
+        Object[] values = new Object[fields.size()];
+        for (Field f : fields) values[f.position] = f.normalize(unwrap(f.property.get(instance)));
+        return values;
+    }
+
+    /**
+     * Replace the index with rebuilt contents, keeping keys updated live meanwhile.
+     */
+    synchronized void completeRebuild(Map<String, Object[]> rebuilt) {
+        for (Field f : fields) {
+            for (String key : new ArrayList<>(f.valueByKey.keySet())) {
+                if (!rebuilt.containsKey(key) && !touched.contains(key)) f.set(key, null);
+            }
+        }
+        rebuilt.forEach((key, values) -> {
+            if (touched.contains(key)) return;
+            for (Field f : fields) f.set(key, values[f.position]);
+        });
+        rebuilding = false;
+        touched.clear();
+    }
+
+    synchronized void abortRebuild() {
+        rebuilding = false;
+        touched.clear();
+    }
+
+    // ========== Persistence ==========
+
+    /**
+     * Write the index next to the data. Only done at shutdown, after the last
+     * flush, so a file on disk always matches the stored entries.
+     */
+    void save(Path file) throws IOException {
+        Map<String, Object[]> byKey = new HashMap<>();
+        for (Field f : fields) {
+            f.valueByKey.forEach((key, value) ->
+                    byKey.computeIfAbsent(key, k -> new Object[fields.size()])[f.position] = value);
+        }
+        Map<String, Object> entries = new LinkedHashMap<>();
+        byKey.forEach((key, values) -> entries.put(key, Arrays.asList(values)));
+
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("version", FORMAT_VERSION);
+        root.put("fields", fieldNames());
+        root.put("entries", entries);
+        FileStateStore.writeAtomically(file, out -> BinaryStateCodec.INSTANCE.encodeTo(root, out));
+    }
+
+    /**
+     * Load a persisted index and delete the file, so a crash before the next
+     * clean shutdown forces a rebuild.
+     *
+     * @return false if there was no usable file (a rebuild is needed)
+     */
+    @SuppressWarnings("unchecked")
+    synchronized boolean load(Path file) throws IOException {
+        if (!Files.exists(file)) return false;
+        Map<String, Object> root;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 8192)) {
+            root = BinaryStateCodec.INSTANCE.decodeFrom(in);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        if (!Objects.equals(root.get("version"), FORMAT_VERSION) || !fieldNames().equals(root.get("fields"))) {
+            return false; // indexed fields changed since it was written
+        }
+        Map<String, Object> entries = (Map<String, Object>) root.get("entries");
+        if (entries == null) return false;
+        entries.forEach((key, values) -> {
+            List<Object> list = (List<Object>) values;
+            for (Field f : fields) f.set(key, f.normalize(list.get(f.position)));
+        });
+        return true;
+    }
+
+    private List<String> fieldNames() {
+        List<String> names = new ArrayList<>(fields.size());
+        for (Field f : fields) names.add(f.property.name());
+        return names;
+    }
+
+    private static Object unwrap(Object value) {
+        if (value instanceof Reactive<?> r) return r.get();
+        if (value instanceof ReactiveNumber n) return n.getNumber();
+        return value;
+    }
+
+    // ========== Field ==========
+
+    static final class Field {
+        final int position;
+        final StateSchema.Property property;
+        private final boolean ignoreCase;
+        private final Map<Object, Set<String>> keysByValue = new ConcurrentHashMap<>();
+        private final Map<String, Object> valueByKey = new ConcurrentHashMap<>();
+
+        Field(int position, StateSchema.Property property, boolean ignoreCase) {
+            this.position = position;
+            this.property = property;
+            this.ignoreCase = ignoreCase;
+        }
+
+        /** Move a key to a new value (null = not indexed). Caller holds the index lock. */
+        void set(String key, Object value) {
+            Object old = value == null ? valueByKey.remove(key) : valueByKey.put(key, value);
+            if (Objects.equals(old, value)) return;
+            if (old != null) {
+                keysByValue.computeIfPresent(old, (v, keys) -> {
+                    keys.remove(key);
+                    return keys.isEmpty() ? null : keys;
+                });
+            }
+            if (value != null) {
+                keysByValue.computeIfAbsent(value, v -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+        }
+
+        Object normalize(Object value) {
+            if (value == null) return null;
+            if (value instanceof Enum<?> e) return e.name();
+            if (value instanceof String s) return ignoreCase ? s.toLowerCase(Locale.ROOT) : s;
+            if (value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long) {
+                return ((Number) value).longValue();
+            }
+            if (value instanceof Number n) return n.doubleValue();
+            if (value instanceof Boolean) return value;
+            String text = value.toString();
+            return ignoreCase ? text.toLowerCase(Locale.ROOT) : text;
+        }
+    }
+}
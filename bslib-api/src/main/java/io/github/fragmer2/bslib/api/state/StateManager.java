@@ -1,42 +1,66 @@
 package io.github.fragmer2.bslib.api.state;
 
+import io.github.fragmer2.bslib.api.reactive.Delivery;
 import io.github.fragmer2.bslib.api.reactive.Reactive;
+import io.github.fragmer2.bslib.api.reactive.ReactiveList;
+import io.github.fragmer2.bslib.api.reactive.ReactiveMap;
+import io.github.fragmer2.bslib.api.reactive.ReactiveNumber;
+import io.github.fragmer2.bslib.api.reactive.Subscription;
 import io.github.fragmer2.bslib.api.task.Tasks;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.io.*;
-import java.lang.reflect.Field;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.logging.Level;
 
 /**
  * Manages persistence for a single @State type.
  *
  * Each StateManager handles one type (e.g., PlayerData) and:
- * - Caches loaded instances in memory
- * - Tracks dirty state via Reactive.version()
- * - Saves async, loads async with sync callback
+ * - Caches loaded instances in memory, bounded by {@link State#maxCached()},
+ *   {@link State#maxWeight()} and {@link State#idleSeconds()}; dirty entries are
+ *   written back before eviction, pinned keys (online players) are never evicted
+ * - Tracks dirty keys: Reactive, ReactiveList and ReactiveMap fields mark their
+ *   key dirty on change, so autosave only visits changed entries
+ * - Saves through a write-behind queue: repeated saves of a key coalesce, writes
+ *   are flushed in batches (see {@link State#writeBatchSize()} and
+ *   {@link State#maxWriteLatencyMillis()}), reads see pending writes
+ * - Loads async (CompletableFuture or sync callback); concurrent loads of one key share one read
+ * - Upgrades records of older {@link State#version()}s through registered
+ *   {@link StateMigration} steps, lazily on load or in bulk ({@link #migrateAll})
+ * - Maintains in-memory indexes of {@link Indexed} fields for findBy lookups
+ * - Scans every stored entry in parallel for leaderboards and searches, without
+ *   touching the cache (see {@link #scan}, {@link #top}, {@link #aggregate})
  * - Auto-saves on configurable interval
  */
 public class StateManager<T> {
     private final Plugin plugin;
     private final Class<T> type;
     private final State stateAnnotation;
+    private final StateSchema schema;
+    private final StateMigrator migrator;
     private final File storageDir;
-    private final Map<String, T> cache = new ConcurrentHashMap<>();
-    private final Map<String, Long> savedVersions = new ConcurrentHashMap<>();
-    private final ExecutorService ioExecutor = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "BSLib-State-IO");
-        t.setDaemon(true);
-        return t;
-    });
+    private final StateStore store;
+    private final StateCache<T> cache;
+    private final Map<String, CompletableFuture<T>> inflightLoads = new ConcurrentHashMap<>();
+    private final Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+    private final Set<String> quarantined = ConcurrentHashMap.newKeySet();
+    private final Map<String, DirtyHooks> dirtyHooks = new ConcurrentHashMap<>();
+    private final StateWriteQueue writeQueue;
+    private final ExecutorService ioExecutor;
+    private final StateScanner<T> scanner;
+    private final StateIndex index;
+    private volatile CompletableFuture<Void> indexReady = CompletableFuture.completedFuture(null);
     private BukkitTask autosaveTask;
+    private BukkitTask evictionTask;
 
     public StateManager(Plugin plugin, Class<T> type) {
         this.plugin = plugin;
@@ -45,14 +69,33 @@ public class StateManager<T> {
         if (stateAnnotation == null) {
             throw new IllegalArgumentException(type.getName() + " is not annotated with @State");
         }
+        this.schema = StateSchema.of(type);
+        this.migrator = new StateMigrator(stateAnnotation.value(), plugin.getLogger(), stateAnnotation.version());
+        this.cache = new StateCache<>(stateAnnotation.maxCached(), stateAnnotation.maxWeight(),
+                stateAnnotation.idleSeconds(), createWeigher(stateAnnotation));
         this.storageDir = new File(plugin.getDataFolder(), "state/" + stateAnnotation.value());
-        storageDir.mkdirs();
+        try {
+            this.store = StateStore.open(storageDir, stateAnnotation.backend(), plugin.getLogger());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open state storage: " + storageDir, e);
+        }
+        this.writeQueue = new StateWriteQueue(stateAnnotation.value(), plugin.getLogger(), store::write,
+                stateAnnotation.writeBatchSize(), stateAnnotation.maxWriteLatencyMillis());
+        this.ioExecutor = writeQueue.executor();
+        this.scanner = new StateScanner<>(stateAnnotation.value(), plugin.getLogger(), this::allKeys, this::readDetached);
+        this.index = new StateIndex(schema);
+        openIndex();
+        warnAboutUnconvertedData();
 
         // Start autosave if configured
         if (stateAnnotation.autosaveSeconds() > 0) {
             long ticks = stateAnnotation.autosaveSeconds() * 20L;
             autosaveTask = Tasks.async().repeat(ticks).delay(ticks).run(this::saveAllDirty);
         }
+        if (cache.isBounded()) {
+            long ticks = 20L * Math.max(5, Math.min(60, stateAnnotation.idleSeconds() > 0 ? stateAnnotation.idleSeconds() / 2 : 30));
+            evictionTask = Tasks.async().repeat(ticks).delay(ticks).run(this::evict);
+        }
     }
 
     // ========== Get / Load ==========
@@ -60,14 +103,30 @@ public class StateManager<T> {
     /**
      * Get from cache, or create new default instance.
      * Does NOT load from disk — use load() for that.
+     *
+     * For a key whose stored record failed to load (see {@link #isQuarantined})
+     * the default instance is detached: neither cached nor saved, so it can't
+     * overwrite the record.
      */
     public T getOrCreate(String key) {
-        return cache.computeIfAbsent(key, k -> {
-            T instance = instantiate();
-            StateSerializer.setKey(instance, key);
-            hookDirtyTracking(key, instance);
-            return instance;
+        if (quarantined.contains(key)) return detached(key);
+        T instance = cache.computeIfAbsent(key, k -> {
+            T created = instantiate();
+            StateSerializer.setKey(created, key);
+            hookDirtyTracking(key, created);
+            dirtyKeys.add(key); // new defaults are persisted on next autosave
+            return created;
         });
+        evictIfOverCapacity();
+        return instance;
+    }
+
+    /**
+     * True if the key's stored record could not be migrated or decoded. Until a
+     * load succeeds, the key is read-only: the record on disk is left as is.
+     */
+    public boolean isQuarantined(String key) {
+        return quarantined.contains(key);
     }
 
     /**
@@ -88,31 +147,50 @@ public class StateManager<T> {
             return;
         }
 
-        ioExecutor.submit(() -> {
-            try {
-                Map<String, Object> data = readFromDisk(key);
-                Tasks.sync().run(() -> {
-                    T instance = instantiate();
-                    StateSerializer.setKey(instance, key);
-                    if (data != null) {
-                        StateSerializer.deserialize(instance, data);
-                    }
-                    hookDirtyTracking(key, instance);
-                    cache.put(key, instance);
-                    savedVersions.put(key, computeVersion(instance));
-                    callback.accept(instance);
-                });
-            } catch (Exception e) {
+        loadAsync(key).whenComplete((instance, error) -> {
+            if (error != null) {
                 plugin.getLogger().log(Level.WARNING, "Failed to load state " +
-                        stateAnnotation.value() + "/" + key, e);
-                Tasks.sync().run(() -> {
-                    T instance = getOrCreate(key);
-                    callback.accept(instance);
-                });
+                        stateAnnotation.value() + "/" + key, error);
+                // Detached default: changes to it are not saved over the stored record
+                Tasks.sync().run(() -> callback.accept(detached(key)));
+            } else {
+                Tasks.sync().run(() -> callback.accept(instance));
             }
         });
     }
 
+    /**
+     * Read-through load. Completes on the state IO thread with the cached instance,
+     * loading it from disk if needed. Concurrent calls for the same key share one read.
+     *
+     *   manager.loadAsync(uuid).thenAccept(data -> ...);
+     */
+    public CompletableFuture<T> loadAsync(String key) {
+        T cached = cache.get(key);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        CompletableFuture<T> created = new CompletableFuture<>();
+        CompletableFuture<T> existing = inflightLoads.putIfAbsent(key, created);
+        if (existing != null) return existing;
+
+        try {
+            ioExecutor.execute(() -> {
+                try {
+                    T instance = install(key);
+                    inflightLoads.remove(key, created);
+                    created.complete(instance);
+                } catch (Throwable t) {
+                    inflightLoads.remove(key, created);
+                    created.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inflightLoads.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
     /**
      * Load from disk (blocking). Use from async context only.
      */
@@ -120,87 +198,152 @@ public class StateManager<T> {
         T cached = cache.get(key);
         if (cached != null) return cached;
 
-        Map<String, Object> data = readFromDisk(key);
+        CompletableFuture<T> inflight = inflightLoads.get(key);
+        if (inflight != null) return inflight.join();
+        return install(key);
+    }
+
+    /**
+     * Build an instance from stored data and cache it, unless another thread
+     * cached one for the key first (that one wins and is returned). If reading,
+     * migrating or decoding fails, nothing is cached and the key is quarantined.
+     */
+    private T install(String key) {
+        boolean upgraded;
+        T instance;
+        try {
+            Map<String, Object> data = readFromDisk(key);
+            upgraded = data != null && migrator.migrate(key, data);
+            instance = decode(key, data);
+        } catch (RuntimeException e) {
+            if (quarantined.add(key)) {
+                plugin.getLogger().severe("State " + stateAnnotation.value() + "/" + key +
+                        " could not be loaded; its stored record is kept read-only: " + e);
+            }
+            throw e;
+        }
+        quarantined.remove(key);
+        T cached = cache.putIfAbsent(key, instance);
+        if (cached == instance) {
+            hookDirtyTracking(key, instance);
+            // An upgraded record is written back in the new layout on the next save
+            if (upgraded) dirtyKeys.add(key); else dirtyKeys.remove(key);
+            evictIfOverCapacity();
+        }
+        return cached;
+    }
+
+    /** Default instance for {@code key} that is neither cached nor dirty-tracked. */
+    private T detached(String key) {
+        T instance = instantiate();
+        StateSerializer.setKey(instance, key);
+        return instance;
+    }
+
+    /**
+     * New instance filled from (already migrated) stored data; fields whose
+     * stored value doesn't fit are logged and keep their default.
+     */
+    private T decode(String key, Map<String, Object> data) {
         T instance = instantiate();
         StateSerializer.setKey(instance, key);
         if (data != null) {
-            StateSerializer.deserialize(instance, data);
+            StateSerializer.deserialize(instance, data, (field, e) -> plugin.getLogger().warning(
+                    "Skipped field " + field + " of state " + stateAnnotation.value() + "/" + key + ": " + e.getMessage()));
         }
-        hookDirtyTracking(key, instance);
-        cache.put(key, instance);
-        savedVersions.put(key, computeVersion(instance));
         return instance;
     }
 
     // ========== Save ==========
 
     /**
-     * Save a specific key (async).
+     * Save a specific key (async). The snapshot is taken now and queued;
+     * saving again before the flush replaces it instead of writing twice.
      */
     public void save(String key) {
-        T instance = cache.get(key);
+        T instance = cache.peek(key);
         if (instance == null) return;
 
-        Map<String, Object> data = StateSerializer.serialize(instance);
-        savedVersions.put(key, computeVersion(instance));
-
-        ioExecutor.submit(() -> {
-            try {
-                writeToDisk(key, data);
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.WARNING, "Failed to save state " +
-                        stateAnnotation.value() + "/" + key, e);
-            }
-        });
+        dirtyKeys.remove(key);
+        writeQueue.enqueue(key, snapshot(key, instance));
     }
 
     /**
-     * Save a specific key (blocking). Use from async context.
+     * Save a specific key (blocking). Waits until the snapshot is on disk.
+     * Use from async context.
      */
     public void saveSync(String key) {
-        T instance = cache.get(key);
+        T instance = cache.peek(key);
         if (instance == null) return;
 
-        Map<String, Object> data = StateSerializer.serialize(instance);
-        savedVersions.put(key, computeVersion(instance));
-        writeToDisk(key, data);
+        dirtyKeys.remove(key);
+        writeQueue.writeNow(key, snapshot(key, instance));
     }
 
     /**
-     * Save all dirty (changed since last save) instances.
+     * Queue all dirty (changed since last save) instances.
+     * Visits only keys marked dirty — O(changed), not O(cached).
+     * Only snapshots are taken here; the IO thread writes them in batches.
      */
     public void saveAllDirty() {
-        for (Map.Entry<String, T> entry : cache.entrySet()) {
-            String key = entry.getKey();
-            T instance = entry.getValue();
-            long currentVersion = computeVersion(instance);
-            Long lastSaved = savedVersions.get(key);
-            if (lastSaved == null || currentVersion != lastSaved) {
-                Map<String, Object> data = StateSerializer.serialize(instance);
-                savedVersions.put(key, currentVersion);
-                try {
-                    writeToDisk(key, data);
-                } catch (Exception e) {
-                    plugin.getLogger().log(Level.WARNING, "Autosave failed: " +
-                            stateAnnotation.value() + "/" + key, e);
-                }
-            }
+        for (String key : dirtyKeys) {
+            // Clear before snapshotting: a change racing with the save re-marks the key
+            if (!dirtyKeys.remove(key)) continue;
+            T instance = cache.peek(key);
+            if (instance == null) continue;
+            writeQueue.enqueue(key, snapshot(key, instance));
         }
     }
 
     /**
-     * Save ALL cached instances (for shutdown).
+     * Save ALL cached instances and wait for the queue to drain (for shutdown).
      */
     public void saveAll() {
-        for (Map.Entry<String, T> entry : cache.entrySet()) {
+        for (Map.Entry<String, T> entry : cache.entries()) {
+            dirtyKeys.remove(entry.getKey());
             try {
-                Map<String, Object> data = StateSerializer.serialize(entry.getValue());
-                writeToDisk(entry.getKey(), data);
+                writeQueue.enqueue(entry.getKey(), snapshot(entry.getKey(), entry.getValue()));
             } catch (Exception e) {
                 plugin.getLogger().log(Level.WARNING, "Save failed: " +
                         stateAnnotation.value() + "/" + entry.getKey(), e);
             }
         }
+        writeQueue.drain();
+    }
+
+    /**
+     * Block until every queued write is on disk.
+     */
+    public void flush() {
+        writeQueue.drain();
+    }
+
+    /** Write-behind queue metrics (depth, coalescing, flush latency). */
+    public StateWriteQueue.Stats writeStats() {
+        return writeQueue.stats();
+    }
+
+    // ========== Dirty tracking ==========
+
+    /**
+     * Mark a key as changed so the next autosave writes it.
+     * Needed for changes that listeners can't see: Reactive.setSilent()
+     * and direct writes to plain (non-reactive) fields.
+     */
+    public void markDirty(String key) {
+        if (cache.contains(key)) {
+            dirtyKeys.add(key);
+        }
+    }
+
+    /** True if the key has unsaved changes. */
+    public boolean isDirty(String key) {
+        return dirtyKeys.contains(key);
+    }
+
+    /** Number of cached entries with unsaved changes. */
+    public int dirtyCount() {
+        return dirtyKeys.size();
     }
 
     // ========== Cache management ==========
@@ -210,204 +353,532 @@ public class StateManager<T> {
      */
     public void unload(String key) {
         save(key); // save before unloading
+        unhookDirtyTracking(key);
         cache.remove(key);
-        savedVersions.remove(key);
+        cache.unpin(key);
+        dirtyKeys.remove(key);
+    }
+
+    /**
+     * Exempt a key from eviction until it is unloaded (done for online players).
+     */
+    public void pin(String key) {
+        cache.pin(key);
+    }
+
+    public void unpin(String key) {
+        cache.unpin(key);
+    }
+
+    /**
+     * Run the eviction policy now: idle entries, then least-recently-used ones
+     * while over capacity. Dirty entries are queued for saving first.
+     *
+     * @return number of evicted entries
+     */
+    public int evict() {
+        int evicted = 0;
+        for (Map.Entry<String, T> victim : cache.victims()) {
+            String key = victim.getKey();
+            T instance = victim.getValue();
+            if (cache.isPinned(key)) continue;
+            // Queue the write-back before removal, so a concurrent load sees either
+            // the cached instance or the pending snapshot — never stale storage
+            if (dirtyKeys.remove(key)) {
+                writeQueue.enqueue(key, snapshot(key, instance));
+            }
+            if (!cache.remove(key, instance)) continue;
+            unhookDirtyTracking(key, instance);
+            if (dirtyKeys.remove(key)) {
+                // Changed between snapshot and removal
+                writeQueue.enqueue(key, snapshot(key, instance));
+            }
+            evicted++;
+        }
+        return evicted;
+    }
+
+    /** Cache size, weight, hit/miss and eviction counters. */
+    public StateCache.Stats cacheStats() {
+        return cache.stats();
+    }
+
+    private void evictIfOverCapacity() {
+        if (cache.needsEviction()) evict();
     }
 
     /**
      * Remove from cache and delete from disk.
      */
     public void delete(String key) {
+        unhookDirtyTracking(key);
         cache.remove(key);
-        savedVersions.remove(key);
-        File file = getFile(key);
-        if (file.exists()) file.delete();
+        cache.unpin(key);
+        dirtyKeys.remove(key);
+        index.remove(key);
+        writeQueue.discard(key);
+        // On the IO thread, so an in-flight write of this key can't recreate the file
+        ioExecutor.execute(() -> {
+            try {
+                store.delete(key);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to delete state " +
+                        stateAnnotation.value() + "/" + key, e);
+            }
+        });
     }
 
-    /** Check if key exists on disk. */
+    /** Check if key exists in cache, in the write queue or on disk. */
     public boolean exists(String key) {
-        return cache.containsKey(key) || getFile(key).exists();
+        return cache.contains(key) || writeQueue.isPending(key) || store.exists(key);
     }
 
     /** Get all cached keys. */
     public Set<String> cachedKeys() {
-        return Collections.unmodifiableSet(cache.keySet());
+        return Collections.unmodifiableSet(cache.keys());
     }
 
-    /** Get all keys on disk. */
+    /** Get all keys: cached, queued for writing and on disk. */
     public Set<String> allKeys() {
-        Set<String> keys = new HashSet<>(cache.keySet());
-        File[] files = storageDir.listFiles();
-        if (files != null) {
-            for (File f : files) {
-                String name = f.getName();
-                if (name.endsWith(".yml")) keys.add(name.replace(".yml", ""));
-                if (name.endsWith(".json")) keys.add(name.replace(".json", ""));
-            }
-        }
+        Set<String> keys = new HashSet<>(cache.keys());
+        keys.addAll(writeQueue.pendingKeys());
+        keys.addAll(store.keys());
         return keys;
     }
 
-    // ========== Shutdown ==========
+    // ========== Indexes ==========
 
-    public void shutdown() {
-        if (autosaveTask != null) autosaveTask.cancel();
-        saveAll();
-        ioExecutor.shutdown();
-        try {
-            ioExecutor.awaitTermination(5, TimeUnit.SECONDS);
-        } catch (InterruptedException ignored) {}
-        cache.clear();
-        savedVersions.clear();
+    /**
+     * Keys whose {@link Indexed} field equals the value — a hash lookup, no scan.
+     * Covers cached and stored entries. Until {@link #indexReady()} completes
+     * after a startup rebuild, stored entries may be missing.
+     *
+     *   Set<String> members = manager.findBy("clan", clanId);
+     *
+     * @throws IllegalArgumentException if the field is not @Indexed
+     */
+    public Set<String> findBy(String field, Object value) {
+        return index.find(field, value);
     }
 
-    // ========== Internal: Disk I/O ==========
+    /** Completes once the indexes cover every stored entry. */
+    public CompletableFuture<Void> indexReady() {
+        return indexReady;
+    }
+
+    /**
+     * Use the index persisted at the last clean shutdown, or rebuild it in the background.
+     */
+    private void openIndex() {
+        if (index.isEmpty()) return;
+        try {
+            if (index.load(indexFile()) || store.keys().isEmpty()) return;
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to load state index " + stateAnnotation.value() + ", rebuilding", e);
+        }
+        rebuildIndex();
+    }
 
-    private File getFile(String key) {
-        String ext = stateAnnotation.backend() == State.Backend.JSON ? ".json" : ".yml";
-        return new File(storageDir, key + ext);
+    private void rebuildIndex() {
+        if (index.isEmpty()) return;
+        index.beginRebuild();
+        indexReady = scanner.collect(this::allKeys, this::readIndexValues, v -> true,
+                        Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> b))
+                .thenAccept(index::completeRebuild)
+                .whenComplete((v, error) -> {
+                    if (error != null) {
+                        index.abortRebuild();
+                        plugin.getLogger().log(Level.WARNING, "Failed to rebuild state index " + stateAnnotation.value(), error);
+                    }
+                });
     }
 
-    private Map<String, Object> readFromDisk(String key) {
-        File file = getFile(key);
-        if (!file.exists()) return null;
+    private Map.Entry<String, Object[]> readIndexValues(String key) {
+        T cached = cache.peek(key);
+        if (cached != null) return Map.entry(key, index.valuesOfInstance(cached));
+        Map<String, Object> data = readFromDisk(key);
+        if (data == null) return null;
+        migrator.migrate(key, data);
+        return Map.entry(key, index.valuesOf(data));
+    }
 
-        if (stateAnnotation.backend() == State.Backend.YAML) {
-            return readYaml(file);
-        } else {
-            return readJson(file);
+    /**
+     * Persist the index for the next start. Skipped if a rebuild doesn't finish
+     * in time — the next start rebuilds instead.
+     */
+    private void saveIndex() {
+        if (index.isEmpty()) return;
+        try {
+            indexReady.get(30, TimeUnit.SECONDS);
+            index.save(indexFile());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            plugin.getLogger().warning("State index " + stateAnnotation.value() + " not saved, it will be rebuilt on next start");
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to save state index " + stateAnnotation.value(), e);
         }
     }
 
-    private void writeToDisk(String key, Map<String, Object> data) {
-        File file = getFile(key);
-        storageDir.mkdirs();
+    private java.nio.file.Path indexFile() {
+        return storageDir.toPath().resolve(".index");
+    }
 
-        if (stateAnnotation.backend() == State.Backend.YAML) {
-            writeYaml(file, data);
-        } else {
-            writeJson(file, data);
-        }
+    // ========== Bulk queries ==========
+
+    /**
+     * Every entry matching the filter. Stored entries are decoded in parallel off
+     * the main thread and are not cached; cached keys yield the live instance.
+     * Completes on a scan thread — hop back with Tasks.sync() to touch Bukkit.
+     *
+     *   manager.scan(p -> p.banned).thenAccept(list -> ...);
+     */
+    public CompletableFuture<List<T>> scan(Predicate<? super T> filter) {
+        return scanner.collect(filter, Collectors.toList());
     }
 
-    private Map<String, Object> readYaml(File file) {
-        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
-        Map<String, Object> map = new LinkedHashMap<>();
-        for (String key : yaml.getKeys(false)) {
-            map.put(key, yaml.get(key));
-        }
-        return map;
+    /**
+     * The {@code limit} greatest entries by {@code order}, greatest first.
+     * Only {@code limit} entries per scan thread are held in memory.
+     *
+     *   manager.top(10, Comparator.comparingInt(p -> p.coins.get()));
+     */
+    public CompletableFuture<List<T>> top(int limit, Comparator<? super T> order) {
+        return scanner.collect(v -> true, StateScanner.top(limit, order));
+    }
+
+    /**
+     * Fold every entry into a collector (sum, count, grouping...).
+     * The collector must support combining partial results.
+     *
+     *   manager.aggregate(Collectors.summingLong(p -> p.coins.get()));
+     */
+    public <R> CompletableFuture<R> aggregate(Collector<? super T, ?, R> collector) {
+        return scanner.collect(v -> true, collector);
     }
 
-    private void writeYaml(File file, Map<String, Object> data) {
-        YamlConfiguration yaml = new YamlConfiguration();
-        for (Map.Entry<String, Object> entry : data.entrySet()) {
-            yaml.set(entry.getKey(), entry.getValue());
+    /**
+     * Lazy stream over every entry, decoded ahead in parallel. Blocking — use
+     * from async context, and close it when stopping early.
+     *
+     *   try (Stream<PlayerData> all = manager.stream()) { ... }
+     */
+    public Stream<T> stream() {
+        return scanner.stream();
+    }
+
+    /**
+     * Cached instance, or a detached one decoded from storage. Null if gone.
+     */
+    private T readDetached(String key) {
+        T cached = cache.peek(key);
+        if (cached != null) return cached;
+        Map<String, Object> data = readFromDisk(key);
+        if (data == null) return null;
+        migrator.migrate(key, data);
+        return decode(key, data);
+    }
+
+    // ========== Migrations ==========
+
+    /**
+     * Register the step upgrading records of {@code fromVersion} to {@code fromVersion + 1}.
+     * Register all steps right after the type, before anything is loaded.
+     */
+    public void migration(int fromVersion, StateMigration step) {
+        migrator.register(fromVersion, step);
+    }
+
+    /**
+     * Upgrade and rewrite every stored record of an older version in the background,
+     * so players don't pay for it on join. Records are read in parallel on the scan
+     * pool and written in batches at the disk's pace; cached entries are left to the
+     * normal save path. {@code listener} gets progress every 500 keys and at the end,
+     * on a scan thread.
+     */
+    public CompletableFuture<StateMigration.Progress> migrateAll(Consumer<StateMigration.Progress> listener) {
+        if (migrator.current() == 0) {
+            StateMigration.Progress none = new StateMigration.Progress(0, 0, 0, 0);
+            listener.accept(none);
+            return CompletableFuture.completedFuture(none);
         }
+        AtomicInteger total = new AtomicInteger();
+        AtomicInteger scanned = new AtomicInteger();
+        AtomicInteger migrated = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Runnable report = () -> listener.accept(new StateMigration.Progress(
+                total.get(), scanned.get(), migrated.get(), failed.get()));
+        Consumer<Map<String, Map<String, Object>>> flush = batch -> {
+            migrated.addAndGet(writeQueue.writeBulk(batch, cache::contains));
+            batch.clear();
+        };
+
+        return scanner.<Map.Entry<String, Map<String, Object>>, Map<String, Map<String, Object>>, StateMigration.Progress>collect(
+                () -> {
+                    Set<String> keys = allKeys();
+                    total.set(keys.size());
+                    return keys;
+                },
+                key -> {
+                    try {
+                        return upgradeStored(key);
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        plugin.getLogger().log(Level.WARNING, "Failed to migrate state " + stateAnnotation.value() + "/" + key, e);
+                        return null;
+                    } finally {
+                        if (scanned.incrementAndGet() % 500 == 0) report.run();
+                    }
+                },
+                upgraded -> true,
+                Collector.of(
+                        LinkedHashMap::new,
+                        (batch, upgraded) -> {
+                            batch.put(upgraded.getKey(), upgraded.getValue());
+                            if (batch.size() >= stateAnnotation.writeBatchSize()) flush.accept(batch);
+                        },
+                        (a, b) -> {
+                            a.putAll(b);
+                            return a;
+                        },
+                        batch -> {
+                            flush.accept(batch);
+                            StateMigration.Progress done = new StateMigration.Progress(
+                                    total.get(), scanned.get(), migrated.get(), failed.get());
+                            listener.accept(done);
+                            return done;
+                        }));
+    }
+
+    /**
+     * Migrated snapshot of a stored, uncached record, or null if there is nothing to rewrite.
+     */
+    private Map.Entry<String, Map<String, Object>> upgradeStored(String key) {
+        // Cached or queued data is already in the current layout
+        if (cache.contains(key) || writeQueue.isPending(key)) return null;
+        Map<String, Object> data;
         try {
-            yaml.save(file);
+            data = store.read(key);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to write YAML: " + file, e);
+            throw new RuntimeException("Failed to read state " + stateAnnotation.value() + "/" + key, e);
         }
+        if (data == null || !migrator.isOutdated(data)) return null;
+        migrator.migrate(key, data);
+        T upgraded = decode(key, data);
+        if (!index.isEmpty()) index.put(key, upgraded);
+        Map<String, Object> snapshot = StateSerializer.snapshot(upgraded);
+        migrator.stamp(snapshot);
+        return Map.entry(key, snapshot);
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> readJson(File file) {
+    // ========== Backend conversion ==========
+
+    /**
+     * Copy every entry stored with another backend into this manager's backend.
+     * Entries already present in the current backend are kept. The old files are
+     * left in place. Blocking — use from async context.
+     *
+     * @return number of entries converted
+     */
+    public int convertFrom(State.Backend source) {
+        if (source == stateAnnotation.backend()) return 0;
+        writeQueue.drain();
         try {
-            String content = Files.readString(file.toPath(), StandardCharsets.UTF_8);
-            // Minimal JSON parser — supports flat key-value maps
-            // For production, use Gson. This handles basic types.
-            return parseSimpleJson(content);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to read JSON: " + file, e);
+            return ioExecutor.submit(() -> {
+                StateStore from = StateStore.open(storageDir, source, plugin.getLogger());
+                try {
+                    int converted = 0;
+                    Map<String, Map<String, Object>> batch = new LinkedHashMap<>();
+                    for (String key : from.keys()) {
+                        if (store.exists(key)) continue;
+                        Map<String, Object> data = from.read(key);
+                        if (data == null) continue;
+                        batch.put(key, data);
+                        if (batch.size() >= stateAnnotation.writeBatchSize()) {
+                            converted += writeConverted(batch);
+                        }
+                    }
+                    converted += writeConverted(batch);
+                    if (converted > 0) rebuildIndex();
+                    return converted;
+                } finally {
+                    from.close();
+                }
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to convert state " + stateAnnotation.value() + " from " + source, e.getCause());
         }
     }
 
-    private void writeJson(File file, Map<String, Object> data) {
-        try (Writer w = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8))) {
-            w.write("{\n");
-            Iterator<Map.Entry<String, Object>> it = data.entrySet().iterator();
-            while (it.hasNext()) {
-                Map.Entry<String, Object> entry = it.next();
-                w.write("  \"" + entry.getKey() + "\": " + toJsonValue(entry.getValue()));
-                if (it.hasNext()) w.write(",");
-                w.write("\n");
+    private int writeConverted(Map<String, Map<String, Object>> batch) {
+        int[] failures = {0};
+        int size = batch.size();
+        store.write(batch, (key, e) -> {
+            failures[0]++;
+            plugin.getLogger().log(Level.WARNING, "Failed to convert state " +
+                    stateAnnotation.value() + "/" + key, e);
+        });
+        batch.clear();
+        return size - failures[0];
+    }
+
+    /**
+     * The backend is picked by the annotation, so switching it silently hides old data.
+     */
+    private void warnAboutUnconvertedData() {
+        if (!store.keys().isEmpty()) return;
+        for (State.Backend backend : State.Backend.values()) {
+            if (backend == stateAnnotation.backend()) continue;
+            String marker = switch (backend) {
+                case YAML -> ".yml";
+                case JSON -> ".json";
+                case BINARY -> ".bin";
+                case LOG -> "data.log";
+            };
+            String[] files = storageDir.list((dir, name) -> name.endsWith(marker));
+            if (files != null && files.length > 0) {
+                plugin.getLogger().warning("State " + stateAnnotation.value() + " uses " + stateAnnotation.backend() +
+                        " but has " + backend + " data. Run /bslib state convert " + type.getSimpleName() + " " + backend);
             }
-            w.write("}\n");
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to write JSON: " + file, e);
         }
     }
 
-    private String toJsonValue(Object val) {
-        if (val == null) return "null";
-        if (val instanceof String s) return "\"" + s.replace("\"", "\\\"") + "\"";
-        if (val instanceof Number || val instanceof Boolean) return val.toString();
-        if (val instanceof List<?> list) {
-            StringBuilder sb = new StringBuilder("[");
-            for (int i = 0; i < list.size(); i++) {
-                if (i > 0) sb.append(", ");
-                sb.append(toJsonValue(list.get(i)));
-            }
-            return sb.append("]").toString();
+    // ========== Shutdown ==========
+
+    public void shutdown() {
+        if (autosaveTask != null) autosaveTask.cancel();
+        if (evictionTask != null) evictionTask.cancel();
+        saveAll();
+        writeQueue.shutdown();
+        saveIndex();
+        scanner.shutdown();
+        try {
+            store.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to close state storage " + stateAnnotation.value(), e);
         }
-        if (val instanceof Map<?, ?> map) {
-            StringBuilder sb = new StringBuilder("{");
-            Iterator<?> it = map.entrySet().iterator();
-            while (it.hasNext()) {
-                Map.Entry<?, ?> e = (Map.Entry<?, ?>) it.next();
-                sb.append("\"").append(e.getKey()).append("\": ").append(toJsonValue(e.getValue()));
-                if (it.hasNext()) sb.append(", ");
-            }
-            return sb.append("}").toString();
+        dirtyHooks.values().forEach(DirtyHooks::unsubscribe);
+        dirtyHooks.clear();
+        cache.clear();
+        dirtyKeys.clear();
+    }
+
+    // ========== Internal: Disk I/O ==========
+
+    /**
+     * Snapshot for the write queue, stamped with the schema version;
+     * plain @Indexed fields are re-indexed from it.
+     */
+    private Map<String, Object> snapshot(String key, T instance) {
+        Map<String, Object> snapshot = StateSerializer.snapshot(instance);
+        migrator.stamp(snapshot);
+        if (!index.isEmpty()) index.putPlain(key, snapshot);
+        return snapshot;
+    }
+
+    private Map<String, Object> readFromDisk(String key) {
+        // A queued snapshot is newer than the stored one
+        Map<String, Object> pending = writeQueue.pendingSnapshot(key);
+        if (pending != null) return copyOf(pending);
+
+        try {
+            return store.read(key);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read state " + stateAnnotation.value() + "/" + key, e);
         }
-        return "\"" + val + "\"";
     }
 
+    /**
+     * Deep copy of a queued snapshot: plain List/Map fields are restored by
+     * reference, so they must not share structure with a pending write.
+     */
     @SuppressWarnings("unchecked")
-    private Map<String, Object> parseSimpleJson(String json) {
-        // Delegate to Bukkit's YAML parser (handles JSON subset)
-        // This is a pragmatic choice — works for flat structures
-        YamlConfiguration yaml = new YamlConfiguration();
-        try {
-            // YAML is a superset of JSON
-            yaml.loadFromString(json);
-            Map<String, Object> map = new LinkedHashMap<>();
-            for (String key : yaml.getKeys(false)) {
-                map.put(key, yaml.get(key));
-            }
-            return map;
-        } catch (Exception e) {
-            return Collections.emptyMap();
+    private static <V> V copyOf(V value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            map.forEach((k, v) -> copy.put(k, copyOf(v)));
+            return (V) copy;
         }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object o : list) copy.add(copyOf(o));
+            return (V) copy;
+        }
+        return value;
     }
 
     // ========== Internal: Dirty tracking ==========
 
     /**
-     * Compute a version hash from all Reactive fields.
+     * Subscribe to every Reactive, ReactiveList and ReactiveMap field so that
+     * any change pushes the key into the dirty set. Also indexes the instance and
+     * keeps Reactive @Indexed fields in sync. Replaces hooks of a previous
+     * instance cached under the same key.
+     *
+     * The hooks run on the changing thread whatever a field's deliverOn(): a
+     * dirty mark queued for later could land after the entry was evicted as clean.
      */
-    private long computeVersion(T instance) {
-        long version = 0;
-        for (Field field : instance.getClass().getDeclaredFields()) {
-            field.setAccessible(true);
-            try {
-                Object val = field.get(instance);
-                if (val instanceof Reactive<?> r) {
-                    version += r.version();
+    private void hookDirtyTracking(String key, T instance) {
+        List<Subscription> hooks = new ArrayList<>();
+        if (!index.isEmpty()) {
+            index.put(key, instance);
+            for (StateIndex.Field field : index.fields()) {
+                Object value = field.property.get(instance);
+                if (value instanceof Reactive<?> r) {
+                    hooks.add(r.subscribeSet(v -> index.update(key, field, v), Delivery.caller()));
+                } else if (value instanceof ReactiveNumber n) {
+                    hooks.add(n.subscribeAny(() -> index.update(key, field, n.getNumber()), Delivery.caller()));
                 }
-            } catch (Exception ignored) {}
+            }
+        }
+        for (StateSchema.Property property : schema.properties()) {
+            Object value = property.get(instance);
+            if (value instanceof Reactive<?> r) {
+                hooks.add(r.subscribeSet(v -> dirtyKeys.add(key), Delivery.caller()));
+            } else if (value instanceof ReactiveNumber n) {
+                hooks.add(n.subscribeAny(() -> dirtyKeys.add(key), Delivery.caller()));
+            } else if (value instanceof ReactiveList<?> rl) {
+                hooks.add(rl.subscribeDelta(changes -> dirtyKeys.add(key), Delivery.caller()));
+            } else if (value instanceof ReactiveMap<?, ?> rm) {
+                hooks.add(rm.subscribeDelta(changes -> dirtyKeys.add(key), Delivery.caller()));
+            }
         }
-        return version;
+        DirtyHooks previous = dirtyHooks.put(key, new DirtyHooks(instance, hooks));
+        if (previous != null) previous.unsubscribe();
     }
 
-    /**
-     * Hook Reactive fields to mark cache entry as potentially dirty.
-     * This is lightweight — actual dirty check happens on save via version comparison.
-     */
-    private void hookDirtyTracking(String key, T instance) {
-        // No-op: dirty tracking uses version comparison (computeVersion)
-        // This avoids listener overhead on every Reactive.set()
+    private void unhookDirtyTracking(String key) {
+        DirtyHooks hooks = dirtyHooks.remove(key);
+        if (hooks != null) hooks.unsubscribe();
+    }
+
+    /** Unhook only if the hooks still belong to this instance (it may have been replaced). */
+    private void unhookDirtyTracking(String key, T instance) {
+        DirtyHooks hooks = dirtyHooks.get(key);
+        if (hooks != null && hooks.owner() == instance && dirtyHooks.remove(key, hooks)) {
+            hooks.unsubscribe();
+        }
+    }
+
+    private record DirtyHooks(Object owner, List<Subscription> subscriptions) {
+        void unsubscribe() {
+            subscriptions.forEach(Subscription::unsubscribe);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> StateWeigher<? super T> createWeigher(State state) {
+        try {
+            var ctor = state.weigher().getDeclaredConstructor();
+            ctor.setAccessible(true);
+            return (StateWeigher<? super T>) ctor.newInstance();
+        } catch (Exception e) {
+            throw new RuntimeException("Cannot instantiate StateWeigher " + state.weigher().getName() +
+                    ". Ensure it has a no-arg constructor.", e);
+        }
     }
 
     private T instantiate() {
@@ -0,0 +1,73 @@
+package io.github.fragmer2.bslib.api.state;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * One upgrade step of a @State type's stored data, from version N to N + 1.
+ *
+ * Usage:
+ *   @State(value = "player-data", version = 2)
+ *   public class PlayerData { ... }
+ *
+ *   States.register(plugin, PlayerData.class);
+ *   States.migration(PlayerData.class, 0, StateMigration.rename("money", "coins"));
+ *   States.migration(PlayerData.class, 1, StateMigration.convert("rank", r -> r.toString().toUpperCase()));
+ *
+ * Steps edit the raw stored map (field name → numbers, strings, booleans, lists,
+ * maps; UUIDs and enums may be stored as strings). Records written before the
+ * type had a version are version 0. A version without a step is upgraded as-is,
+ * so adding a field with a default needs no step.
+ *
+ * Steps run lazily when a record is loaded; the upgraded record is written back
+ * on the next save. States.migrateAll(...) rewrites every stored record in the
+ * background instead.
+ */
+@FunctionalInterface
+public interface StateMigration {
+
+    void migrate(Map<String, Object> data);
+
+    default StateMigration andThen(StateMigration next) {
+        return data -> {
+            migrate(data);
+            next.migrate(data);
+        };
+    }
+
+    /** Move a field's stored value to a new name. */
+    static StateMigration rename(String from, String to) {
+        return data -> {
+            if (data.containsKey(from)) data.put(to, data.remove(from));
+        };
+    }
+
+    /** Drop fields that no longer exist. */
+    static StateMigration remove(String... fields) {
+        return data -> {
+            for (String field : fields) data.remove(field);
+        };
+    }
+
+    /** Rewrite a field's stored value (skipped when the field is absent or null). */
+    static StateMigration convert(String field, Function<Object, Object> converter) {
+        return data -> {
+            Object value = data.get(field);
+            if (value != null) data.put(field, converter.apply(value));
+        };
+    }
+
+    /**
+     * Progress of a bulk migration.
+     *
+     * @param total    keys to visit
+     * @param scanned  keys visited so far
+     * @param migrated records upgraded and rewritten
+     * @param failed   records that could not be read, migrated or written
+     */
+    record Progress(int total, int scanned, int migrated, int failed) {
+        public boolean done() {
+            return scanned >= total;
+        }
+    }
+}
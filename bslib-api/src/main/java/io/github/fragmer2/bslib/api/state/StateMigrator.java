@@ -0,0 +1,83 @@
+package io.github.fragmer2.bslib.api.state;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Registered {@link StateMigration} steps of one @State type and the
+ * version stamp stored with every record.
+ */
+final class StateMigrator {
+    /** Stored alongside the fields; not a valid field name of a normal class. */
+    static final String VERSION_FIELD = "__version";
+
+    private final String name;
+    private final Logger logger;
+    private final int current;
+    private final Map<Integer, StateMigration> steps = new ConcurrentHashMap<>();
+    private volatile boolean warnedNewer;
+
+    StateMigrator(String name, Logger logger, int current) {
+        if (current < 0) throw new IllegalArgumentException("@State version of " + name + " must be >= 0");
+        this.name = name;
+        this.logger = logger;
+        this.current = current;
+    }
+
+    int current() {
+        return current;
+    }
+
+    void register(int fromVersion, StateMigration step) {
+        if (fromVersion < 0 || fromVersion >= current) {
+            throw new IllegalArgumentException("Migration of " + name + " from version " + fromVersion +
+                    " is outside 0.." + (current - 1) + " (current version " + current + ")");
+        }
+        if (steps.putIfAbsent(fromVersion, step) != null) {
+            throw new IllegalStateException("Migration of " + name + " from version " + fromVersion + " is already registered");
+        }
+    }
+
+    static int version(Map<String, Object> data) {
+        return data.get(VERSION_FIELD) instanceof Number n ? n.intValue() : 0;
+    }
+
+    boolean isOutdated(Map<String, Object> data) {
+        return version(data) < current;
+    }
+
+    /**
+     * Upgrade a record in place to the current version.
+     *
+     * @return true if steps ran and the record should be written back
+     */
+    boolean migrate(String key, Map<String, Object> data) {
+        int version = version(data);
+        if (version > current) {
+            if (!warnedNewer) {
+                warnedNewer = true;
+                logger.warning("State " + name + "/" + key + " has version " + version + ", newer than " + current +
+                        " — was it written by a newer plugin build? Loading it as-is.");
+            }
+            return false;
+        }
+        if (version == current) return false;
+        for (int v = version; v < current; v++) {
+            StateMigration step = steps.get(v);
+            if (step == null) continue;
+            try {
+                step.migrate(data);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Failed to migrate state " + name + "/" + key + " from version " + v, e);
+            }
+        }
+        data.put(VERSION_FIELD, current);
+        return true;
+    }
+
+    /** Stamp a snapshot about to be stored. Unversioned types store no stamp. */
+    void stamp(Map<String, Object> snapshot) {
+        if (current > 0) snapshot.put(VERSION_FIELD, current);
+    }
+}
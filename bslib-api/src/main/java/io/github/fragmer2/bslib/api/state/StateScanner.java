@@ -0,0 +1,239 @@
+package io.github.fragmer2.bslib.api.state;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Read-only bulk scans over every stored entry of a @State type.
+ *
+ * Keys are read and decoded in parallel on a small bounded pool (at most 4
+ * threads, idle threads exit). Entries that are not cached are decoded into
+ * detached instances that never enter the cache, so a scan over 200k profiles
+ * doesn't evict online players. Cached instances are used as-is.
+ *
+ * Each worker folds its share of keys into its own accumulator, so aggregates
+ * and top-N queries keep only their result in memory, not every decoded entry.
+ * Unreadable entries are logged and skipped.
+ */
+final class StateScanner<T> {
+    private static final int CHUNK = 256;
+
+    private final String name;
+    private final Logger logger;
+    private final Supplier<Collection<String>> keys;
+    private final Function<String, T> reader;
+    private final int parallelism;
+    private final ThreadPoolExecutor pool;
+
+    /**
+     * @param keys   all keys to visit
+     * @param reader key → instance, or null if the entry no longer exists
+     */
+    StateScanner(String name, Logger logger, Supplier<Collection<String>> keys, Function<String, T> reader) {
+        this.name = name;
+        this.logger = logger;
+        this.keys = keys;
+        this.reader = reader;
+        this.parallelism = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "BSLib-State-Scan-" + name + "-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    // ========== Collect ==========
+
+    /**
+     * Fold every entry matching the filter into the collector.
+     * Completes on a scan thread.
+     */
+    <A, R> CompletableFuture<R> collect(Predicate<? super T> filter, Collector<? super T, A, R> collector) {
+        return collect(keys, reader, filter, collector);
+    }
+
+    /**
+     * Same as {@link #collect(Predicate, Collector)} with custom keys and a custom
+     * per-key reader (e.g. raw field values instead of decoded instances).
+     */
+    <V, A, R> CompletableFuture<R> collect(Supplier<? extends Collection<String>> keys, Function<String, V> reader,
+                                           Predicate<? super V> filter, Collector<? super V, A, R> collector) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        try {
+            pool.execute(() -> {
+                try {
+                    List<String> all = new ArrayList<>(keys.get());
+                    AtomicInteger cursor = new AtomicInteger();
+                    List<CompletableFuture<A>> workers = new ArrayList<>();
+                    int count = Math.max(1, Math.min(parallelism, (all.size() + CHUNK - 1) / CHUNK));
+                    for (int i = 0; i < count; i++) {
+                        workers.add(CompletableFuture.supplyAsync(() -> fold(all, cursor, reader, filter, collector), pool));
+                    }
+                    CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).whenComplete((v, error) -> {
+                        if (error != null) {
+                            result.completeExceptionally(error);
+                            return;
+                        }
+                        A combined = workers.get(0).join();
+                        for (int i = 1; i < workers.size(); i++) {
+                            combined = collector.combiner().apply(combined, workers.get(i).join());
+                        }
+                        result.complete(collector.finisher().apply(combined));
+                    });
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private <V, A> A fold(List<String> all, AtomicInteger cursor, Function<String, V> reader,
+                          Predicate<? super V> filter, Collector<? super V, A, ?> collector) {
+        A acc = collector.supplier().get();
+        int start;
+        while ((start = cursor.getAndAdd(CHUNK)) < all.size()) {
+            int end = Math.min(all.size(), start + CHUNK);
+            for (int i = start; i < end; i++) {
+                V value = readQuietly(reader, all.get(i));
+                if (value != null && filter.test(value)) {
+                    collector.accumulator().accept(acc, value);
+                }
+            }
+        }
+        return acc;
+    }
+
+    // ========== Stream ==========
+
+    /**
+     * Lazy stream over every entry. Chunks are decoded ahead in parallel, a few
+     * at a time; the stream itself is consumed on the calling thread.
+     * Blocking — close it when stopping early.
+     */
+    Stream<T> stream() {
+        ChunkIterator iterator = new ChunkIterator(new ArrayList<>(keys.get()));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                        Spliterator.NONNULL | Spliterator.DISTINCT), false)
+                .onClose(iterator::cancel);
+    }
+
+    private final class ChunkIterator implements Iterator<T> {
+        private final List<String> all;
+        private final Deque<Future<List<T>>> ahead = new ArrayDeque<>();
+        private int submitted;
+        private Iterator<T> current = Collections.emptyIterator();
+
+        ChunkIterator(List<String> all) {
+            this.all = all;
+            for (int i = 0; i < parallelism * 2; i++) submitNext();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                Future<List<T>> next = ahead.poll();
+                if (next == null) return false;
+                submitNext();
+                try {
+                    current = next.get().iterator();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                    return false;
+                } catch (ExecutionException e) {
+                    cancel();
+                    throw new RuntimeException("Failed to scan state " + name, e.getCause());
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return current.next();
+        }
+
+        private void submitNext() {
+            if (submitted >= all.size()) return;
+            int start = submitted;
+            int end = Math.min(all.size(), start + CHUNK);
+            submitted = end;
+            ahead.add(pool.submit(() -> {
+                List<T> chunk = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    T value = readQuietly(reader, all.get(i));
+                    if (value != null) chunk.add(value);
+                }
+                return chunk;
+            }));
+        }
+
+        void cancel() {
+            ahead.forEach(f -> f.cancel(false));
+            ahead.clear();
+            submitted = all.size();
+        }
+    }
+
+    // ========== Helpers ==========
+
+    /**
+     * Collector keeping the {@code limit} greatest elements, greatest first.
+     * Holds at most {@code limit} elements per accumulator.
+     */
+    static <T> Collector<T, ?, List<T>> top(int limit, Comparator<? super T> order) {
+        if (limit < 0) throw new IllegalArgumentException("limit must be >= 0");
+        return Collector.<T, PriorityQueue<T>, List<T>>of(
+                () -> new PriorityQueue<>(order),
+                (heap, value) -> {
+                    if (limit == 0) return;
+                    if (heap.size() < limit) {
+                        heap.add(value);
+                    } else if (order.compare(value, heap.peek()) > 0) {
+                        heap.poll();
+                        heap.add(value);
+                    }
+                },
+                (a, b) -> {
+                    for (T value : b) {
+                        a.add(value);
+                        if (a.size() > limit) a.poll();
+                    }
+                    return a;
+                },
+                heap -> {
+                    List<T> list = new ArrayList<>(heap);
+                    list.sort(order.reversed());
+                    return list;
+                });
+    }
+
+    private <V> V readQuietly(Function<String, V> reader, String key) {
+        try {
+            return reader.apply(key);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Skipping unreadable state " + name + "/" + key + " during scan", e);
+            return null;
+        }
+    }
+
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
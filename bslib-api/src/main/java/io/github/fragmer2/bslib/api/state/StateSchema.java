@@ -0,0 +1,222 @@
+package io.github.fragmer2.bslib.api.state;
+
+import io.github.fragmer2.bslib.api.reactive.Reactive;
+import io.github.fragmer2.bslib.api.reactive.ReactiveDouble;
+import io.github.fragmer2.bslib.api.reactive.ReactiveInt;
+import io.github.fragmer2.bslib.api.reactive.ReactiveList;
+import io.github.fragmer2.bslib.api.reactive.ReactiveLong;
+import io.github.fragmer2.bslib.api.reactive.ReactiveMap;
+import io.github.fragmer2.bslib.api.reactive.ReactiveNumber;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+
+/**
+ * Precompiled field layout of a @State class.
+ *
+ * Built once per class and cached, so serializers and dirty checks never touch
+ * getDeclaredFields()/setAccessible() on the hot path:
+ *
+ *   StateSchema schema = StateSchema.of(PlayerData.class);
+ *   for (StateSchema.Property p : schema.properties()) {
+ *       Object raw = p.get(instance);
+ *   }
+ *
+ * Accessors are MethodHandles adapted to (Object)Object / (Object,Object)void,
+ * so every call site goes through the same erased signature.
+ */
+public final class StateSchema {
+    // Stored with the class itself, so a plugin's schemas go when its classloader does
+    private static final ClassValue<StateSchema> CACHE = new ClassValue<>() {
+        @Override
+        protected StateSchema computeValue(Class<?> type) {
+            return new StateSchema(type);
+        }
+    };
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<?> type;
+    private final Property key;
+    private final List<Property> properties;
+    private final List<Property> reactiveProperties;
+    private final Map<String, Property> byName;
+
+    private StateSchema(Class<?> type) {
+        this.type = type;
+        Property keyProperty = null;
+        List<Property> props = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            int mods = field.getModifiers();
+            if (Modifier.isStatic(mods) || Modifier.isTransient(mods)) continue;
+            if (field.isAnnotationPresent(StateKey.class)) {
+                if (keyProperty == null) keyProperty = new Property(field);
+                continue;
+            }
+            props.add(new Property(field));
+        }
+        this.key = keyProperty;
+        this.properties = List.copyOf(props);
+
+        List<Property> reactive = new ArrayList<>();
+        Map<String, Property> names = new LinkedHashMap<>();
+        for (Property p : properties) {
+            if (p.kind() == Kind.REACTIVE || p.kind() == Kind.REACTIVE_NUMBER) reactive.add(p);
+            names.put(p.name(), p);
+        }
+        this.reactiveProperties = List.copyOf(reactive);
+        this.byName = Collections.unmodifiableMap(names);
+    }
+
+    /**
+     * Get (or build and cache) the schema for a class.
+     */
+    public static StateSchema of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    public Class<?> type() { return type; }
+
+    /** The @StateKey property, or null if the class has none. */
+    public Property key() { return key; }
+
+    /** Serializable properties in declaration order (key, static and transient fields excluded). */
+    public List<Property> properties() { return properties; }
+
+    /** Properties holding a {@link Reactive} or {@link ReactiveNumber} (used for version checks). */
+    public List<Property> reactiveProperties() { return reactiveProperties; }
+
+    public Property property(String name) { return byName.get(name); }
+
+    /**
+     * Sum of version() over all reactive fields.
+     */
+    public long version(Object instance) {
+        long version = 0;
+        for (Property p : reactiveProperties) {
+            Object value = p.get(instance);
+            if (value instanceof Reactive<?> r) {
+                version += r.version();
+            } else if (value instanceof ReactiveNumber n) {
+                version += n.version();
+            }
+        }
+        return version;
+    }
+
+    // ========== Property ==========
+
+    /** How a field is stored and restored. */
+    public enum Kind { REACTIVE, REACTIVE_NUMBER, REACTIVE_LIST, REACTIVE_MAP, PLAIN }
+
+    /**
+     * A single field with precompiled accessors.
+     */
+    public static final class Property {
+        private final String name;
+        private final Class<?> fieldType;
+        private final Class<?> valueType;
+        private final Kind kind;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final Indexed indexed;
+
+        Property(Field field) {
+            this.name = field.getName();
+            this.indexed = field.getAnnotation(Indexed.class);
+            this.fieldType = field.getType();
+            this.kind = kindOf(fieldType);
+            this.valueType = switch (kind) {
+                case PLAIN -> fieldType;
+                case REACTIVE_NUMBER -> numberType(fieldType);
+                default -> typeArgument(field.getGenericType());
+            };
+            try {
+                field.setAccessible(true);
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+                this.setter = setter(lookup, field);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new IllegalArgumentException("Cannot access @State field " +
+                        field.getDeclaringClass().getName() + "." + name, e);
+            }
+        }
+
+        /**
+         * Final instance fields are written like any other once made accessible;
+         * only those of records and hidden classes stay read-only (null).
+         */
+        private static MethodHandle setter(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            try {
+                return lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                if (!Modifier.isFinal(field.getModifiers())) throw e;
+                return null;
+            }
+        }
+
+        public String name() { return name; }
+        public Class<?> fieldType() { return fieldType; }
+
+        /**
+         * Declared value type: the field type for plain fields, the first type argument
+         * for Reactive/ReactiveList (element), the boxed type for ReactiveInt/Long/Double,
+         * or null if it cannot be resolved.
+         */
+        public Class<?> valueType() { return valueType; }
+        public Kind kind() { return kind; }
+        public boolean isWritable() { return setter != null; }
+
+        /** The field's @Indexed annotation, or null. */
+        public Indexed indexed() { return indexed; }
+
+        public Object get(Object instance) {
+            try {
+                return getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw new IllegalStateException("Failed to read field " + name, t);
+            }
+        }
+
+        public void set(Object instance, Object value) {
+            if (setter == null) {
+                throw new IllegalStateException("Field " + name + " is final");
+            }
+            try {
+                setter.invokeExact(instance, value);
+            } catch (Throwable t) {
+                throw new IllegalStateException("Failed to write field " + name, t);
+            }
+        }
+
+        private static Kind kindOf(Class<?> type) {
+            if (Reactive.class.isAssignableFrom(type)) return Kind.REACTIVE;
+            if (ReactiveNumber.class.isAssignableFrom(type)) return Kind.REACTIVE_NUMBER;
+            if (ReactiveList.class.isAssignableFrom(type)) return Kind.REACTIVE_LIST;
+            if (ReactiveMap.class.isAssignableFrom(type)) return Kind.REACTIVE_MAP;
+            return Kind.PLAIN;
+        }
+
+        private static Class<?> numberType(Class<?> type) {
+            if (type == ReactiveInt.class) return Integer.class;
+            if (type == ReactiveLong.class) return Long.class;
+            if (type == ReactiveDouble.class) return Double.class;
+            return null;
+        }
+
+        private static Class<?> typeArgument(Type generic) {
+            if (generic instanceof ParameterizedType pt && pt.getActualTypeArguments().length > 0) {
+                Type arg = pt.getActualTypeArguments()[0];
+                if (arg instanceof Class<?> c) return c;
+                if (arg instanceof ParameterizedType inner && inner.getRawType() instanceof Class<?> c) return c;
+            }
+            return null;
+        }
+    }
+}
@@ -3,40 +3,51 @@ package io.github.fragmer2.bslib.api.state;
 import io.github.fragmer2.bslib.api.reactive.Reactive;
 import io.github.fragmer2.bslib.api.reactive.ReactiveList;
 import io.github.fragmer2.bslib.api.reactive.ReactiveMap;
+import io.github.fragmer2.bslib.api.reactive.ReactiveNumber;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.function.BiConsumer;
 
 /**
  * Serializes @State objects to/from Map<String, Object> for storage.
- * Handles: Reactive, ReactiveList, ReactiveMap, primitives, String, UUID, List, Map.
+ * Handles: Reactive, ReactiveInt/Long/Double, ReactiveList, ReactiveMap, primitives, String, UUID, enums, List, Map.
  */
 public final class StateSerializer {
 
     private StateSerializer() {}
 
     /**
-     * Serialize a @State object to a flat map.
+     * Serialize a @State object to a flat map of portable values
+     * (UUIDs and enums as strings).
      */
     public static Map<String, Object> serialize(Object state) {
+        return portable(snapshot(state));
+    }
+
+    /**
+     * Copy a @State object's values into a flat map, keeping UUIDs and enums typed.
+     * This is what StateManager hands to the storage codecs.
+     */
+    static Map<String, Object> snapshot(Object state) {
+        StateSchema schema = StateSchema.of(state.getClass());
         Map<String, Object> map = new LinkedHashMap<>();
-        for (Field field : getSerializableFields(state.getClass())) {
-            field.setAccessible(true);
+        for (StateSchema.Property property : schema.properties()) {
             try {
-                Object value = field.get(state);
+                Object value = property.get(state);
                 if (value == null) continue;
 
-                String key = field.getName();
+                String key = property.name();
 
                 if (value instanceof Reactive<?> r) {
-                    map.put(key, toSerializable(r.get()));
+                    map.put(key, r.get());
+                } else if (value instanceof ReactiveNumber n) {
+                    map.put(key, n.getNumber());
                 } else if (value instanceof ReactiveList<?> rl) {
                     map.put(key, new ArrayList<>(rl.asList()));
                 } else if (value instanceof ReactiveMap<?, ?> rm) {
                     map.put(key, new LinkedHashMap<>(rm.asMap()));
                 } else {
-                    map.put(key, toSerializable(value));
+                    map.put(key, value);
                 }
             } catch (Exception e) {
                 // Skip fields that can't be serialized
@@ -48,36 +59,45 @@ public final class StateSerializer {
     /**
      * Deserialize a map into a @State object.
      * Updates existing Reactive fields in-place (triggers listeners).
+     * Values that can't be converted to the field's type are skipped.
      */
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public static void deserialize(Object state, Map<String, Object> data) {
-        for (Field field : getSerializableFields(state.getClass())) {
-            field.setAccessible(true);
-            String key = field.getName();
-            Object stored = data.get(key);
+        deserialize(state, data, null);
+    }
+
+    /**
+     * Deserialize, reporting each skipped field (name, cause) to {@code onSkipped}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static void deserialize(Object state, Map<String, Object> data, BiConsumer<String, Exception> onSkipped) {
+        StateSchema schema = StateSchema.of(state.getClass());
+        for (StateSchema.Property property : schema.properties()) {
+            Object stored = data.get(property.name());
             if (stored == null) continue;
 
             try {
-                Object current = field.get(state);
+                Object current = property.get(state);
 
                 if (current instanceof Reactive r) {
                     // Update Reactive in-place (triggers listeners!)
-                    r.setSilent(convertValue(stored, guessReactiveType(r)));
+                    Class<?> valueType = property.valueType() != null ? property.valueType() : guessReactiveType(r);
+                    r.setSilent(convertValue(stored, valueType));
+                } else if (current instanceof ReactiveNumber n) {
+                    n.setNumberSilent((Number) convertValue(stored, property.valueType()));
                 } else if (current instanceof ReactiveList rl) {
-                    if (stored instanceof List list) {
-                        rl.replaceAll(list);
-                    }
+                    if (!(stored instanceof List list)) throw cannotConvert(stored, List.class);
+                    rl.replaceAll(list);
                 } else if (current instanceof ReactiveMap rm) {
-                    if (stored instanceof Map map) {
-                        rm.clear();
-                        rm.putAll(map);
-                    }
+                    if (!(stored instanceof Map map)) throw cannotConvert(stored, Map.class);
+                    rm.clear();
+                    rm.putAll(map);
                 } else {
-                    // Direct field set
-                    field.set(state, convertValue(stored, field.getType()));
+                    // Direct field set; a read-only field throws and is reported as skipped
+                    property.set(state, convertValue(stored, property.fieldType()));
                 }
             } catch (Exception e) {
-                // Skip fields that fail
+                // Skip fields that fail — the field keeps its default
+                if (onSkipped != null) onSkipped.accept(property.name(), e);
             }
         }
     }
@@ -86,65 +106,66 @@ public final class StateSerializer {
      * Get the key value from a @State object.
      */
     public static String getKey(Object state) {
-        for (Field field : state.getClass().getDeclaredFields()) {
-            if (field.isAnnotationPresent(StateKey.class)) {
-                field.setAccessible(true);
-                try {
-                    Object val = field.get(state);
-                    return val != null ? val.toString() : null;
-                } catch (Exception e) {
-                    return null;
-                }
-            }
+        StateSchema.Property key = StateSchema.of(state.getClass()).key();
+        if (key == null) return null;
+        try {
+            Object val = key.get(state);
+            return val != null ? val.toString() : null;
+        } catch (Exception e) {
+            return null;
         }
-        return null;
     }
 
     /**
      * Set the key value on a @State object.
      */
     public static void setKey(Object state, String keyValue) {
-        for (Field field : state.getClass().getDeclaredFields()) {
-            if (field.isAnnotationPresent(StateKey.class)) {
-                field.setAccessible(true);
-                try {
-                    if (field.getType() == UUID.class) {
-                        field.set(state, UUID.fromString(keyValue));
-                    } else if (field.getType() == String.class) {
-                        field.set(state, keyValue);
-                    } else {
-                        field.set(state, keyValue);
-                    }
-                } catch (Exception e) {
-                    // ignore
-                }
-                return;
+        StateSchema.Property key = StateSchema.of(state.getClass()).key();
+        if (key == null || !key.isWritable()) return;
+        try {
+            if (key.fieldType() == UUID.class) {
+                key.set(state, UUID.fromString(keyValue));
+            } else {
+                key.set(state, keyValue);
             }
+        } catch (Exception e) {
+            // ignore
         }
     }
 
-    // ========== Internal ==========
-
-    private static List<Field> getSerializableFields(Class<?> clazz) {
-        List<Field> fields = new ArrayList<>();
-        for (Field field : clazz.getDeclaredFields()) {
-            if (Modifier.isStatic(field.getModifiers())) continue;
-            if (Modifier.isTransient(field.getModifiers())) continue;
-            if (field.isAnnotationPresent(StateKey.class)) continue; // key handled separately
-            fields.add(field);
+    /**
+     * Convert a snapshot to values every text format can hold: UUIDs and enums
+     * become strings, also inside lists and maps.
+     */
+    static Map<String, Object> portable(Map<String, Object> snapshot) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : snapshot.entrySet()) {
+            map.put(entry.getKey(), toSerializable(entry.getValue()));
         }
-        return fields;
+        return map;
     }
 
+    // ========== Internal ==========
+
     private static Object toSerializable(Object value) {
         if (value == null) return null;
         if (value instanceof UUID uuid) return uuid.toString();
         if (value instanceof Enum<?> e) return e.name();
-        // Primitives, String, Number, Boolean, List, Map — already serializable
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object o : list) copy.add(toSerializable(o));
+            return copy;
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            map.forEach((k, v) -> copy.put(toSerializable(k), toSerializable(v)));
+            return copy;
+        }
+        // Primitives, String, Number, Boolean — already serializable
         return value;
     }
 
-    @SuppressWarnings("unchecked")
+    @SuppressWarnings({"unchecked", "rawtypes"})
     private static Object convertValue(Object stored, Class<?> targetType) {
         if (stored == null) return null;
         if (targetType == null) return stored;
@@ -158,15 +179,20 @@ public final class StateSerializer {
             if (targetType == long.class || targetType == Long.class) return num.longValue();
             if (targetType == double.class || targetType == Double.class) return num.doubleValue();
             if (targetType == float.class || targetType == Float.class) return num.floatValue();
+            if (targetType == short.class || targetType == Short.class) return num.shortValue();
+            if (targetType == byte.class || targetType == Byte.class) return num.byteValue();
+            if (targetType == String.class) return num.toString();
         }
 
         // String conversions
         if (stored instanceof String s) {
             if (targetType == UUID.class) return UUID.fromString(s);
+            if (targetType.isEnum()) return Enum.valueOf((Class<? extends Enum>) targetType, s);
             if (targetType == int.class || targetType == Integer.class) return Integer.parseInt(s);
             if (targetType == long.class || targetType == Long.class) return Long.parseLong(s);
             if (targetType == double.class || targetType == Double.class) return Double.parseDouble(s);
             if (targetType == boolean.class || targetType == Boolean.class) return Boolean.parseBoolean(s);
+            if ((targetType == char.class || targetType == Character.class) && s.length() == 1) return s.charAt(0);
         }
 
         // Boolean from various types
@@ -174,8 +200,15 @@ public final class StateSerializer {
             if (stored instanceof Boolean b) return b;
             return Boolean.parseBoolean(stored.toString());
         }
+        if (targetType == String.class && stored instanceof Boolean) return stored.toString();
+
+        // A retyped field: keeping the raw value would put the wrong type in the field
+        throw cannotConvert(stored, targetType);
+    }
 
-        return stored;
+    private static IllegalArgumentException cannotConvert(Object stored, Class<?> targetType) {
+        return new IllegalArgumentException("Cannot convert stored " + stored.getClass().getSimpleName() +
+                " to " + targetType.getSimpleName());
     }
 
     /**
@@ -0,0 +1,46 @@
+package io.github.fragmer2.bslib.api.state;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Storage behind a StateManager.
+ *
+ * Writes and deletes are only issued from the state IO thread;
+ * read/exists/keys may be called from any thread.
+ */
+interface StateStore {
+
+    /** Stored snapshot of a key, or null if absent. */
+    Map<String, Object> read(String key) throws IOException;
+
+    /**
+     * Persist a batch. The batch is durable when this returns; keys that
+     * could not be written are reported to onFailure.
+     */
+    void write(Map<String, Map<String, Object>> batch, BiConsumer<String, Exception> onFailure);
+
+    void delete(String key) throws IOException;
+
+    boolean exists(String key);
+
+    Set<String> keys();
+
+    void close() throws IOException;
+
+    /**
+     * Open the store for a backend in a state type's storage directory.
+     */
+    static StateStore open(File dir, State.Backend backend, Logger logger) throws IOException {
+        return switch (backend) {
+            case YAML -> new FileStateStore(dir.toPath(), ".yml", StateCodec.YAML);
+            case JSON -> new FileStateStore(dir.toPath(), ".json", StateCodec.JSON);
+            case BINARY -> new FileStateStore(dir.toPath(), ".bin", BinaryStateCodec.INSTANCE);
+            case LOG -> new LogStateStore(dir.toPath().resolve("data.log"), BinaryStateCodec.INSTANCE, logger);
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.fragmer2.bslib.api.state;
+
+/**
+ * Weight of a cached @State instance, for {@link State#maxWeight()}.
+ *
+ * Usage:
+ *   public class ProfileWeigher implements StateWeigher<Profile> {
+ *       public int weigh(Profile p) { return 1 + p.homes.size() + p.mail.size(); }
+ *   }
+ *
+ *   @State(value = "profile", maxWeight = 50_000, weigher = ProfileWeigher.class)
+ *
+ * Implementations need a no-arg constructor. Weights are taken when an entry is
+ * cached and refreshed on every eviction sweep, so they may be approximate.
+ */
+@FunctionalInterface
+public interface StateWeigher<T> {
+
+    int weigh(T state);
+
+    /** Every entry weighs 1. */
+    final class Unit implements StateWeigher<Object> {
+        @Override
+        public int weigh(Object state) {
+            return 1;
+        }
+    }
+}
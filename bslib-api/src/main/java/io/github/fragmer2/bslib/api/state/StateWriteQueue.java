@@ -0,0 +1,313 @@
+package io.github.fragmer2.bslib.api.state;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind queue for one StateManager.
+ *
+ * - Repeated saves of one key coalesce into a single pending write of the latest snapshot
+ * - Writes are flushed in batches of at most batchSize on the IO thread
+ * - Nothing stays queued longer than maxLatency: the first enqueue arms a flush timer,
+ *   a full batch flushes immediately
+ * - Pending (not yet written) snapshots are visible to readers, so a quick
+ *   unload → load never reads a stale file
+ *
+ * All disk writes run on the single IO thread, so writes of one key never overlap.
+ */
+public final class StateWriteQueue {
+
+    /** Persists one batch of snapshots. Runs on the IO thread only. */
+    interface BatchWriter {
+        void write(Map<String, Map<String, Object>> batch, BiConsumer<String, Exception> onFailure);
+    }
+
+    private final String name;
+    private final Logger logger;
+    private final ScheduledExecutorService executor;
+    private final BatchWriter writer;
+    private final int batchSize;
+    private final long maxLatencyMillis;
+
+    private final ConcurrentHashMap<String, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<String, Pending> inFlight = new ConcurrentHashMap<>();
+    private final AtomicBoolean timerArmed = new AtomicBoolean(false);
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final AtomicLong flushNanosTotal = new AtomicLong();
+    private final AtomicLong flushNanosMax = new AtomicLong();
+    private final AtomicLong latencyNanosTotal = new AtomicLong();
+    private final AtomicLong latencyNanosMax = new AtomicLong();
+
+    private volatile Thread ioThread;
+
+    private record Pending(Map<String, Object> data, long firstQueuedNanos) {}
+
+    /**
+     * Snapshot of queue metrics.
+     *
+     * @param queueDepth       keys waiting to be written
+     * @param enqueued         total save requests
+     * @param coalesced        save requests merged into an already pending write
+     * @param written          snapshots written to disk
+     * @param failed           snapshots that failed to write
+     * @param batches          flushed batches
+     * @param avgFlushMillis   average time to write one batch
+     * @param maxFlushMillis   slowest batch
+     * @param avgLatencyMillis average time from first enqueue to write completion
+     * @param maxLatencyMillis worst enqueue → written latency
+     */
+    public record Stats(int queueDepth, long enqueued, long coalesced, long written, long failed, long batches,
+                        double avgFlushMillis, double maxFlushMillis,
+                        double avgLatencyMillis, double maxLatencyMillis) {}
+
+    StateWriteQueue(String name, Logger logger, BatchWriter writer, int batchSize, long maxLatencyMillis) {
+        this.name = name;
+        this.logger = logger;
+        this.writer = writer;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxLatencyMillis = Math.max(0, maxLatencyMillis);
+        ScheduledThreadPoolExecutor io = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "BSLib-State-IO");
+            t.setDaemon(true);
+            ioThread = t;
+            return t;
+        });
+        // shutdown() drains explicitly; pending flush timers must not hold termination
+        io.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.executor = io;
+    }
+
+    /** The IO executor (reads share it so they are ordered with writes). */
+    ScheduledExecutorService executor() {
+        return executor;
+    }
+
+    // ========== Enqueue ==========
+
+    /**
+     * Queue a snapshot for writing. Replaces any pending snapshot of the same key.
+     */
+    public void enqueue(String key, Map<String, Object> data) {
+        long now = System.nanoTime();
+        enqueued.increment();
+        pending.compute(key, (k, existing) -> {
+            if (existing == null) return new Pending(data, now);
+            coalesced.increment();
+            return new Pending(data, existing.firstQueuedNanos());
+        });
+
+        if (pending.size() >= batchSize) {
+            executor.execute(this::flushOneBatch);
+        } else if (timerArmed.compareAndSet(false, true)) {
+            executor.schedule(this::flushOnTimer, maxLatencyMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Write a snapshot now and wait for it, dropping any older pending snapshot of the key.
+     */
+    public void writeNow(String key, Map<String, Object> data) {
+        Pending p = new Pending(data, System.nanoTime());
+        // In flight before leaving pending, so readers never fall through to the older stored record
+        inFlight.put(key, p);
+        pending.remove(key);
+        runOnIoThread(() -> writeBatch(Map.of(key, data), Map.of(key, p)));
+    }
+
+    /**
+     * Write snapshots from a bulk job as one batch and wait for it, which also
+     * throttles the job to the disk's pace. Keys with a queued snapshot (newer
+     * live data) or matching {@code skip} at write time are left out.
+     *
+     * @return number of snapshots handed to the backend
+     */
+    public int writeBulk(Map<String, Map<String, Object>> batch, Predicate<String> skip) {
+        if (batch.isEmpty()) return 0;
+        int[] count = {0};
+        runOnIoThread(() -> {
+            long now = System.nanoTime();
+            Map<String, Map<String, Object>> toWrite = new LinkedHashMap<>();
+            Map<String, Pending> taken = new HashMap<>();
+            batch.forEach((key, data) -> {
+                if (pending.containsKey(key) || skip.test(key)) return;
+                Pending p = new Pending(data, now);
+                if (inFlight.putIfAbsent(key, p) != null) return;   // a writeNow of newer data is waiting
+                toWrite.put(key, data);
+                taken.put(key, p);
+            });
+            if (!toWrite.isEmpty()) writeBatch(toWrite, taken);
+            count[0] = toWrite.size();
+        });
+        return count[0];
+    }
+
+    /**
+     * Drop a pending write (the key is being deleted).
+     */
+    public void discard(String key) {
+        pending.remove(key);
+    }
+
+    /**
+     * Latest snapshot queued or being written for a key, or null.
+     * Callers must treat the map as read-only.
+     */
+    public Map<String, Object> pendingSnapshot(String key) {
+        Pending p = pending.get(key);
+        if (p == null) p = inFlight.get(key);
+        return p != null ? p.data() : null;
+    }
+
+    public boolean isPending(String key) {
+        return pending.containsKey(key) || inFlight.containsKey(key);
+    }
+
+    /** Keys queued or being written. */
+    public Set<String> pendingKeys() {
+        Set<String> keys = new HashSet<>(pending.keySet());
+        keys.addAll(inFlight.keySet());
+        return keys;
+    }
+
+    public int depth() {
+        return pending.size();
+    }
+
+    // ========== Flush ==========
+
+    /**
+     * Flush everything currently queued and wait for it to hit the disk.
+     */
+    public void drain() {
+        runOnIoThread(() -> {
+            while (!pending.isEmpty()) {
+                flushOneBatch();
+            }
+        });
+    }
+
+    /**
+     * Drain, then stop the IO thread and wait for it to finish.
+     */
+    public void shutdown() {
+        drain();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warning("State IO for " + name + " did not finish within 30s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flushOnTimer() {
+        timerArmed.set(false);
+        while (!pending.isEmpty()) {
+            flushOneBatch();
+        }
+    }
+
+    private void flushOneBatch() {
+        if (pending.isEmpty()) return;
+
+        Map<String, Map<String, Object>> batch = new LinkedHashMap<>();
+        Map<String, Pending> taken = new HashMap<>();
+        for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+            if (batch.size() >= batchSize) break;
+            String key = entry.getKey();
+            Pending p = entry.getValue();
+            // In flight first, so the key is always visible in one of the two maps to readers
+            Pending previous = inFlight.put(key, p);
+            // remove(key, value) only wins if no newer snapshot replaced it meanwhile
+            if (pending.remove(key, p)) {
+                batch.put(key, p.data());
+                taken.put(key, p);
+            } else if (previous != null) {
+                inFlight.replace(key, p, previous);
+            } else {
+                inFlight.remove(key, p);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, taken);
+        }
+    }
+
+    /** Write {@code batch}; its entries ({@code taken}) are already in {@code inFlight}. */
+    private void writeBatch(Map<String, Map<String, Object>> batch, Map<String, Pending> taken) {
+        long start = System.nanoTime();
+        int[] failures = {0};
+        try {
+            writer.write(batch, (key, error) -> {
+                failures[0]++;
+                logger.log(Level.WARNING, "Failed to save state " + name + "/" + key, error);
+            });
+        } catch (Exception e) {
+            failures[0] = batch.size();
+            logger.log(Level.WARNING, "Failed to save state batch for " + name, e);
+        } finally {
+            taken.forEach(inFlight::remove);   // remove(key, value): keeps a newer in-flight snapshot
+        }
+
+        long end = System.nanoTime();
+        long flushNanos = end - start;
+        batches.increment();
+        written.add(batch.size() - failures[0]);
+        failed.add(failures[0]);
+        flushNanosTotal.addAndGet(flushNanos);
+        flushNanosMax.accumulateAndGet(flushNanos, Math::max);
+        for (Pending p : taken.values()) {
+            long latency = end - p.firstQueuedNanos();
+            latencyNanosTotal.addAndGet(latency);
+            latencyNanosMax.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    private void runOnIoThread(Runnable task) {
+        if (Thread.currentThread() == ioThread) {
+            task.run();
+            return;
+        }
+        try {
+            executor.submit(task).get();
+        } catch (RejectedExecutionException e) {
+            // Executor already shut down — write on the caller as a last resort
+            task.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.log(Level.WARNING, "State IO task failed for " + name, e.getCause());
+        }
+    }
+
+    // ========== Metrics ==========
+
+    public Stats stats() {
+        long b = batches.sum();
+        long w = written.sum() + failed.sum();
+        return new Stats(
+                pending.size(),
+                enqueued.sum(),
+                coalesced.sum(),
+                written.sum(),
+                failed.sum(),
+                b,
+                b > 0 ? flushNanosTotal.get() / 1_000_000.0 / b : 0,
+                flushNanosMax.get() / 1_000_000.0,
+                w > 0 ? latencyNanosTotal.get() / 1_000_000.0 / w : 0,
+                latencyNanosMax.get() / 1_000_000.0);
+    }
+}
@@ -4,8 +4,12 @@ import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
 
 /**
  * Static facade for the State Persistence Engine.
@@ -87,7 +91,9 @@ public final class States {
     public static <T> T get(Plugin plugin, Class<T> type) {
         autoRegister(plugin, type);
         String key = "__global__:" + type.getSimpleName();
-        return (T) manager(type).getOrCreate(key);
+        StateManager manager = manager(type);
+        manager.pin(key);
+        return (T) manager.getOrCreate(key);
     }
 
     /**
@@ -104,7 +110,9 @@ public final class States {
     @SuppressWarnings("unchecked")
     public static <T> void loadGlobal(Plugin plugin, Class<T> type, Consumer<T> callback) {
         autoRegister(plugin, type);
-        manager(type).load("__global__:" + type.getSimpleName(), (Consumer) callback);
+        String key = "__global__:" + type.getSimpleName();
+        manager(type).pin(key);
+        manager(type).load(key, (Consumer) callback);
     }
 
     // ========== Player shortcuts ==========
@@ -112,10 +120,14 @@ public final class States {
     /**
      * Get or create state for a player (from cache or new default).
      * Instant — no disk I/O. If data hasn't been loaded yet, returns defaults.
+     * The entry is pinned (never evicted) until the player's state is unloaded.
      */
     @SuppressWarnings("unchecked")
     public static <T> T of(Player player, Class<T> type) {
-        return (T) manager(type).getOrCreate(player.getUniqueId().toString());
+        String key = player.getUniqueId().toString();
+        StateManager manager = manager(type);
+        manager.pin(key);
+        return (T) manager.getOrCreate(key);
     }
 
     /**
@@ -132,7 +144,9 @@ public final class States {
      */
     @SuppressWarnings("unchecked")
     public static <T> void load(Player player, Class<T> type, Consumer<T> callback) {
-        manager(type).load(player.getUniqueId().toString(), (Consumer) callback);
+        String key = player.getUniqueId().toString();
+        manager(type).pin(key);
+        manager(type).load(key, (Consumer) callback);
     }
 
     /**
@@ -142,6 +156,14 @@ public final class States {
         manager(type).save(player.getUniqueId().toString());
     }
 
+    /**
+     * Mark a player's state as changed. Only needed after Reactive.setSilent()
+     * or direct writes to plain fields — reactive changes are tracked automatically.
+     */
+    public static <T> void markDirty(Player player, Class<T> type) {
+        manager(type).markDirty(player.getUniqueId().toString());
+    }
+
     /**
      * Unload (save + remove from cache). Call on player quit.
      */
@@ -164,10 +186,27 @@ public final class States {
         manager(type).load(key, (Consumer) callback);
     }
 
+    /**
+     * Read-through load for offline lookups (leaderboards, admin tools).
+     * Completes off the main thread; concurrent loads of one key share a single read.
+     * Unpinned entries are subject to the type's cache policy.
+     *
+     *   States.loadAsync(uuid.toString(), PlayerData.class)
+     *       .thenAccept(data -> Tasks.sync().run(() -> show(data)));
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompletableFuture<T> loadAsync(String key, Class<T> type) {
+        return (CompletableFuture<T>) manager(type).loadAsync(key);
+    }
+
     public static <T> void save(String key, Class<T> type) {
         manager(type).save(key);
     }
 
+    public static <T> void markDirty(String key, Class<T> type) {
+        manager(type).markDirty(key);
+    }
+
     public static <T> void unload(String key, Class<T> type) {
         manager(type).unload(key);
     }
@@ -196,6 +235,110 @@ public final class States {
         manager(type).saveAll();
     }
 
+    /**
+     * Keys whose {@link Indexed} field equals the value. O(1), no disk access.
+     *
+     *   for (String key : States.findBy(PlayerData.class, "clan", clanId)) { ... }
+     */
+    public static Set<String> findBy(Class<?> type, String field, Object value) {
+        return manager(type).findBy(field, value);
+    }
+
+    // ========== Bulk queries ==========
+
+    /**
+     * Every stored entry matching the filter — for admin searches. Entries are
+     * decoded in parallel off the main thread and never enter the cache.
+     *
+     *   States.scan(PlayerData.class, p -> p.banned)
+     *       .thenAccept(banned -> Tasks.sync().run(() -> show(banned)));
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompletableFuture<List<T>> scan(Class<T> type, Predicate<? super T> filter) {
+        return manager(type).scan((Predicate) filter);
+    }
+
+    /**
+     * The {@code limit} greatest stored entries, greatest first — for leaderboards.
+     *
+     *   States.top(PlayerData.class, 10, Comparator.comparingInt(p -> p.coins.get()))
+     *       .thenAccept(top -> Tasks.sync().run(() -> board.update(top)));
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompletableFuture<List<T>> top(Class<T> type, int limit, Comparator<? super T> order) {
+        return manager(type).top(limit, (Comparator) order);
+    }
+
+    /**
+     * Fold every stored entry into a collector.
+     *
+     *   States.aggregate(PlayerData.class, Collectors.summingLong(p -> p.coins.get()))
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, R> CompletableFuture<R> aggregate(Class<T> type, Collector<? super T, ?, R> collector) {
+        return manager(type).aggregate((Collector) collector);
+    }
+
+    /**
+     * Lazy stream over every stored entry. Blocking — call from an async task
+     * and close the stream.
+     *
+     *   try (Stream<PlayerData> all = States.stream(PlayerData.class)) { ... }
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Stream<T> stream(Class<T> type) {
+        return (Stream<T>) manager(type).stream();
+    }
+
+    // ========== Migrations ==========
+
+    /**
+     * Register the step upgrading stored records of a type from {@code fromVersion}
+     * to {@code fromVersion + 1} (see {@link State#version()}). Call right after register.
+     *
+     *   States.migration(PlayerData.class, 0, StateMigration.rename("money", "coins"));
+     */
+    public static void migration(Class<?> type, int fromVersion, StateMigration step) {
+        manager(type).migration(fromVersion, step);
+    }
+
+    /**
+     * Upgrade every stored record of a type in the background, reporting progress.
+     * Records are otherwise upgraded lazily when loaded.
+     *
+     *   States.migrateAll(PlayerData.class, p -> log(p.scanned() + "/" + p.total()))
+     *       .thenAccept(done -> log("migrated " + done.migrated()));
+     */
+    public static CompletableFuture<StateMigration.Progress> migrateAll(Class<?> type, Consumer<StateMigration.Progress> listener) {
+        return manager(type).migrateAll(listener);
+    }
+
+    /**
+     * Copy data stored with another backend into the type's current backend.
+     * Blocking — call from an async task.
+     *
+     *   Tasks.async().run(() -> States.convert(PlayerData.class, State.Backend.YAML));
+     *
+     * @return number of entries converted
+     */
+    public static int convert(Class<?> type, State.Backend from) {
+        return manager(type).convertFrom(from);
+    }
+
+    /**
+     * Cache metrics of a type (size, weight, hit/miss, evictions).
+     */
+    public static StateCache.Stats cacheStats(Class<?> type) {
+        return manager(type).cacheStats();
+    }
+
+    /**
+     * Write-behind queue metrics of a type (queue depth, coalesced saves, flush latency).
+     */
+    public static StateWriteQueue.Stats writeStats(Class<?> type) {
+        return manager(type).writeStats();
+    }
+
     /**
      * Unload all cached states for a player (all types).
      * Call this on player quit.
@@ -0,0 +1,124 @@
+package io.github.fragmer2.bslib.api.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonRoundTripTest {
+
+    @Test
+    void fuzzedDocumentsRoundTrip() throws IOException {
+        Random random = new Random(0xB51B);
+        for (int i = 0; i < 2_000; i++) {
+            Object value = randomValue(random, 0);
+            for (String indent : new String[]{null, "  "}) {
+                String json = write(value, indent);
+                assertEquals(value, JsonReader.parse(json), "seed iteration " + i + ": " + json);
+            }
+        }
+    }
+
+    @Test
+    void escapesControlCharactersAndQuotes() throws IOException {
+        String tricky = "quote\" backslash\\ tab\t nl\n nul\u0000 bell\u0007 sep\u2028 emoji\uD83D\uDE00";
+        String json = write(Map.of("k\"ey", tricky), null);
+
+        for (char c : json.toCharArray()) {
+            assertTrue(c >= 0x20, "raw control character in " + json);
+        }
+        assertEquals(Map.of("k\"ey", tricky), JsonReader.parse(json));
+    }
+
+    @Test
+    void numbersKeepTheNarrowestType() throws IOException {
+        assertEquals(List.of(1, -7, 3_000_000_000L, 2.5, 1.0E20, 0),
+                JsonReader.parse("[1, -7, 3000000000, 2.5, 1e20, -0]"));
+    }
+
+    @Test
+    void floatsAreWrittenWithoutDoubleWidening() throws IOException {
+        assertEquals("[0.1,1.5,\"NaN\"]", write(List.of(0.1f, 1.5f, Float.NaN), null));
+    }
+
+    @Test
+    void nonFiniteDoublesAreWrittenAsStrings() throws IOException {
+        assertEquals(List.of("NaN", "Infinity"), JsonReader.parse(write(List.of(Double.NaN, Double.POSITIVE_INFINITY), null)));
+    }
+
+    @Test
+    void malformedInputIsRejected() {
+        String[] bad = {
+                "", "{", "[1,", "{\"a\" 1}", "{\"a\":1,}", "[1 2]", "\"unterminated",
+                "01", "-", "1.", "1e", "tru", "nul", "\"bad \\x escape\"", "\"raw \n newline\"",
+                "{} trailing", "{'single': 1}", "[\"\\u12\"]"
+        };
+        for (String json : bad) {
+            assertThrows(IOException.class, () -> JsonReader.parse(json), json);
+        }
+    }
+
+    @Test
+    void rejectsUnbalancedWriterCalls() throws IOException {
+        JsonWriter writer = new JsonWriter(new StringWriter());
+        writer.beginObject();
+        assertThrows(IllegalStateException.class, () -> writer.value(1));
+        assertThrows(IllegalStateException.class, writer::endArray);
+    }
+
+    // ========== Generators ==========
+
+    private static String write(Object value, String indent) throws IOException {
+        StringWriter out = new StringWriter();
+        new JsonWriter(out).indent(indent).value(value).flush();
+        return out.toString();
+    }
+
+    private static Object randomValue(Random random, int depth) {
+        int kind = random.nextInt(depth > 4 ? 6 : 8);
+        return switch (kind) {
+            case 0 -> null;
+            case 1 -> random.nextBoolean();
+            case 2 -> random.nextInt();
+            case 3 -> random.nextBoolean()
+                    ? (long) Integer.MAX_VALUE + 1 + (random.nextLong() >>> 2)
+                    : (long) Integer.MIN_VALUE - 1 - (random.nextLong() >>> 2);
+            case 4 -> switch (random.nextInt(3)) {
+                case 0 -> random.nextDouble();
+                case 1 -> (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(40) - 20);
+                default -> Double.longBitsToDouble(random.nextLong() & 0x7FEFFFFFFFFFFFFFL);
+            };
+            case 5 -> randomString(random);
+            case 6 -> {
+                List<Object> list = new ArrayList<>();
+                int size = random.nextInt(6);
+                for (int i = 0; i < size; i++) list.add(randomValue(random, depth + 1));
+                yield list;
+            }
+            default -> {
+                Map<String, Object> map = new LinkedHashMap<>();
+                int size = random.nextInt(6);
+                for (int i = 0; i < size; i++) map.put(randomString(random), randomValue(random, depth + 1));
+                yield map;
+            }
+        };
+    }
+
+    private static String randomString(Random random) {
+        int length = random.nextInt(12);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            switch (random.nextInt(5)) {
+                case 0 -> sb.append((char) random.nextInt(0x20));            // control chars
+                case 1 -> sb.append("\"\\/".charAt(random.nextInt(3)));      // JSON specials
+                case 2 -> sb.appendCodePoint(0x1F600 + random.nextInt(80)); // surrogate pairs
+                case 3 -> sb.append((char) (0x80 + random.nextInt(0x2000)));  // non-ASCII BMP
+                default -> sb.append((char) (0x20 + random.nextInt(0x5F)));   // printable ASCII
+            }
+        }
+        return sb.toString();
+    }
+}
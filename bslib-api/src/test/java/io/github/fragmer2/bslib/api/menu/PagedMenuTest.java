@@ -0,0 +1,134 @@
+package io.github.fragmer2.bslib.api.menu;
+
+import io.github.fragmer2.bslib.api.button.Button;
+import io.github.fragmer2.bslib.api.task.FrameworkTask;
+import io.github.fragmer2.bslib.api.task.SchedulerAdapter;
+import io.github.fragmer2.bslib.api.task.Tasks;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedMenuTest {
+
+    @Test
+    void listSourcePagesInPlaceAndClampsToLastPage() {
+        List<String> items = IntStream.range(0, 20).mapToObj(i -> "item" + i).toList();
+        List<String> clicked = new ArrayList<>();
+        PagedMenu<String> menu = PagedMenu.of("Items", 2, items)
+                .slots(ReactiveMenu.slots(0, 7))
+                .item(item -> Button.of(null, ctx -> clicked.add(item)))
+                .build();
+        AtomicInteger rerenders = new AtomicInteger();
+        menu.getButtons().get(0).watch(rerenders::incrementAndGet);
+
+        assertEquals(3, menu.pageCount());
+        assertFalse(menu.hasPrevious());
+        assertTrue(menu.hasNext());
+
+        click(menu, 0);
+        menu.next();
+        click(menu, 0);
+        assertEquals(List.of("item0", "item8"), clicked);
+        assertEquals(1, rerenders.get());
+
+        menu.goTo(10);
+        assertEquals(2, menu.page());
+        assertFalse(menu.hasNext());
+        click(menu, 3);
+        click(menu, 4);   // past the end of the list
+        assertEquals(List.of("item0", "item8", "item19"), clicked);
+    }
+
+    @Test
+    void loaderLoadsOffThreadAndPrefetchesNeighbours() {
+        Queue<Runnable> scheduled = new ArrayDeque<>();
+        Tasks.setScheduler(queued(scheduled));
+        List<Integer> loads = new ArrayList<>();
+        List<String> clicked = new ArrayList<>();
+        PagedMenu<String> menu = PagedMenu.<String>loader("Auctions", 2, (page, size) -> {
+                    loads.add(page);
+                    return page < 2 ? IntStream.range(0, size).mapToObj(i -> page + ":" + i).toList() : List.of("2:0");
+                })
+                .slots(ReactiveMenu.slots(0, 7))
+                .item(item -> Button.of(null, ctx -> clicked.add(item)))
+                .build();
+
+        menu.onOpen(null);
+        click(menu, 0);
+        assertTrue(clicked.isEmpty(), "nothing to click before the page arrived");
+        drain(scheduled);
+        assertEquals(List.of(0, 1), loads);   // current page + next prefetched
+        click(menu, 0);
+
+        menu.next();
+        click(menu, 1);                       // prefetched: shown without waiting
+        assertEquals(List.of("0:0", "1:1"), clicked);
+        drain(scheduled);
+        assertEquals(List.of(0, 1, 2), loads);
+
+        menu.next();
+        assertEquals(2, menu.page());
+        assertFalse(menu.hasNext());          // short page: the last one
+        assertEquals(3, menu.pageCount());
+        drain(scheduled);
+        assertEquals(List.of(0, 1, 2), loads);   // nothing prefetched past the last page
+    }
+
+    @Test
+    void staleLoadDoesNotClearTheFreshRequest() {
+        Queue<Runnable> scheduled = new ArrayDeque<>();
+        Tasks.setScheduler(queued(scheduled));
+        List<Integer> loads = new ArrayList<>();
+        PagedMenu<String> menu = PagedMenu.<String>loader("Auctions", 2, (page, size) -> {
+                    loads.add(page);
+                    return IntStream.range(0, size).mapToObj(i -> page + ":" + i).toList();
+                })
+                .slots(ReactiveMenu.slots(0, 7))
+                .item(item -> Button.of(null, ctx -> {}))
+                .build();
+
+        menu.onOpen(null);
+        scheduled.poll().run();   // pages 0 and 1 load...
+        scheduled.poll().run();
+        menu.refresh();           // ...but are superseded before they arrive
+        scheduled.poll().run();   // stale results for 0 and 1
+        scheduled.poll().run();
+
+        menu.next();              // 0 and 1 are still in flight: not requested again
+        drain(scheduled);
+        assertEquals(2, loads.stream().filter(p -> p == 0).count(), "loads " + loads);
+        assertEquals(2, loads.stream().filter(p -> p == 1).count(), "loads " + loads);
+    }
+
+    private static void click(Menu menu, int slot) {
+        menu.getButtons().get(slot).onClick(null);
+    }
+
+    private static void drain(Queue<Runnable> scheduled) {
+        Runnable task;
+        while ((task = scheduled.poll()) != null) task.run();
+    }
+
+    /** Runs nothing until drained, sync or async alike. */
+    private static SchedulerAdapter queued(Queue<Runnable> scheduled) {
+        return new SchedulerAdapter() {
+            @Override public FrameworkTask runSync(Runnable task) { return runLater(task, 0); }
+            @Override public FrameworkTask runLater(Runnable task, long delay) { return runTimer(task, delay, -1); }
+            @Override public FrameworkTask runTimer(Runnable task, long delay, long period) {
+                scheduled.add(task);
+                return new FrameworkTask() {
+                    @Override public int getTaskId() { return -1; }
+                    @Override public void cancel() {}
+                    @Override public boolean isCancelled() { return false; }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.fragmer2.bslib.api.message;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTemplateTest {
+
+    @Test
+    void holesInTextAreCompiled() {
+        MessageTemplate template = new MessageTemplate("<gray>{killer} <red>⚔</red> {victim} \\<{killer}> a < b");
+        assertEquals(List.of("killer", "victim"), template.holes());
+    }
+
+    @Test
+    void holesInsideTagsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new MessageTemplate("<click:run_command:'/tp {target}'>Teleport"));
+        assertThrows(IllegalArgumentException.class, () -> new MessageTemplate("<hover:show_text:'<red>{reason}'>Why?"));
+        assertThrows(IllegalArgumentException.class, () -> new MessageTemplate("<font:{font}>Text"));
+    }
+}
@@ -1,12 +1,23 @@
 package io.github.fragmer2.bslib.api.reactive;
 
+import io.github.fragmer2.bslib.api.task.FrameworkTask;
+import io.github.fragmer2.bslib.api.task.SchedulerAdapter;
+import io.github.fragmer2.bslib.api.task.Tasks;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ReactiveTest {
 
@@ -65,4 +76,381 @@ class ReactiveTest {
         assertEquals(0, seen.get());
         assertFalse(source.isDestroyed());
     }
+
+    @Test
+    void diamondRecomputesOnceAndListenersSeeConsistentValues() {
+        Reactive<Integer> a = Reactive.of(1);
+        AtomicInteger combines = new AtomicInteger();
+        Reactive<Integer> doubled = a.map(v -> v * 2);
+        Reactive<Integer> tripled = a.map(v -> v * 3);
+        Reactive<Integer> sum = Reactive.combine(doubled, tripled, (x, y) -> {
+            combines.incrementAndGet();
+            return x + y;
+        });
+        List<Integer> seen = new ArrayList<>();
+        sum.subscribeSet(seen::add);
+        combines.set(0);
+
+        a.set(2);
+
+        assertEquals(1, combines.get());
+        assertEquals(List.of(10), seen);
+    }
+
+    @Test
+    void sourceListenersRunAfterDerivedValuesSettle() {
+        Reactive<Integer> a = Reactive.of(1);
+        Reactive<Integer> chain = a;
+        for (int i = 0; i < 50; i++) {
+            chain = chain.map(v -> v + 1);
+        }
+        Reactive<Integer> tail = chain;
+        int[] tailSeenBySource = new int[1];
+        a.subscribeSet(v -> tailSeenBySource[0] = tail.get());
+
+        a.set(10);
+
+        assertEquals(60, tail.get());
+        assertEquals(60, tailSeenBySource[0]);
+    }
+
+    @Test
+    void transactionNotifiesOncePerReactiveAtCommit() {
+        Reactive<Integer> coins = Reactive.of(100);
+        Reactive<Integer> level = Reactive.of(1);
+        ReactiveList<String> log = ReactiveList.empty();
+        AtomicInteger combines = new AtomicInteger();
+        Reactive<String> summary = Reactive.combine(coins, level, (c, l) -> {
+            combines.incrementAndGet();
+            return c + "@" + l;
+        });
+        List<String> coinChanges = new ArrayList<>();
+        List<String> summaries = new ArrayList<>();
+        AtomicInteger logFires = new AtomicInteger();
+        coins.subscribeChange((old, now) -> coinChanges.add(old + "->" + now));
+        summary.subscribeSet(summaries::add);
+        log.subscribeChange(l -> logFires.incrementAndGet());
+        combines.set(0);
+
+        Reactive.transaction(() -> {
+            coins.set(90);
+            coins.set(80);
+            Reactive.transaction(() -> level.increment());
+            log.add("bought");
+            log.add("levelled");
+            assertEquals(List.of(), coinChanges, "nothing fires inside the transaction");
+        });
+
+        assertEquals(List.of("100->80"), coinChanges);
+        assertEquals(List.of("80@2"), summaries);
+        assertEquals(1, combines.get());
+        assertEquals(1, logFires.get());
+    }
+
+    @Test
+    void transactionSkipsValuesThatEndWhereTheyStarted() throws Exception {
+        Reactive<Integer> value = Reactive.of(1);
+        AtomicInteger fires = new AtomicInteger();
+        value.subscribeSet(v -> fires.incrementAndGet());
+
+        Thread async = new Thread(() -> Reactive.transaction(() -> {
+            value.set(2);
+            value.set(1);
+        }));
+        async.start();
+        async.join();
+
+        assertEquals(0, fires.get());
+        assertEquals(1, value.get());
+    }
+
+    @Test
+    void primitiveReactiveNotifiesWithPrimitivesAndStaysInSyncWithItsBoxedView() {
+        ReactiveInt mana = ReactiveInt.of(100);
+        List<String> changes = new ArrayList<>();
+        mana.onChange((old, now) -> changes.add(old + "->" + now));
+
+        mana.add(-15);
+        mana.set(85); // unchanged, no notification
+        mana.increment();
+        assertEquals(List.of("100->85", "85->86"), changes);
+        assertEquals(2, mana.version());
+
+        Reactive<String> label = mana.map(m -> "Mana: " + m);
+        Reactive<Integer> percent = Reactive.combine(mana.asReactive(), Reactive.of(200), (m, max) -> m * 100 / max);
+        mana.set(100);
+        assertEquals("Mana: 100", label.get());
+        assertEquals(50, percent.get());
+
+        assertThrows(UnsupportedOperationException.class, () -> mana.asReactive().set(40));
+        mana.set(40);
+        assertEquals("Mana: 40", label.get());
+
+        Reactive.transaction(() -> {
+            mana.set(10);
+            mana.set(20);
+        });
+        assertEquals("100->40", changes.get(changes.size() - 2));
+        assertEquals("40->20", changes.get(changes.size() - 1));
+    }
+
+    @Test
+    void primitiveViewUpdatesInTheSamePropagation() {
+        ReactiveInt mana = ReactiveInt.of(50);
+        ReactiveInt maxMana = ReactiveInt.of(100);
+        Reactive<Integer> percent = Reactive.combine(mana.asReactive(), maxMana.asReactive(), (m, max) -> m * 100 / max);
+        List<String> seen = new ArrayList<>();
+        mana.onChange((old, now) -> seen.add("mana " + now + " percent " + percent.get()));
+        percent.onChange((old, now) -> seen.add("percent " + now));
+
+        mana.set(25);
+        Reactive.transaction(() -> {
+            mana.set(40);
+            maxMana.set(200);
+        });
+
+        // Listeners see the settled graph; the combine fires once per change or commit
+        assertEquals(List.of("mana 25 percent 25", "percent 25", "mana 40 percent 20", "percent 20"), seen);
+    }
+
+    @Test
+    void primitiveReactiveDoubleComparesLikeDoubleEquals() {
+        ReactiveDouble stamina = ReactiveDouble.of(Double.NaN);
+        AtomicInteger fires = new AtomicInteger();
+        stamina.subscribeAny(fires::incrementAndGet);
+
+        stamina.set(Double.NaN);
+        assertEquals(0, fires.get());
+        stamina.set(0.0);
+        stamina.set(-0.0);
+        stamina.add(0.5);
+        assertEquals(3, fires.get());
+        assertEquals(0.5, stamina.get());
+    }
+
+    @Test
+    void concurrentSubscribesAndIncrementsAreNotLost() throws Exception {
+        Reactive<Integer> timer = Reactive.of(0);
+        AtomicInteger fires = new AtomicInteger();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 100; j++) {
+                    Subscription subscription = timer.subscribeSet(v -> fires.incrementAndGet());
+                    if (j % 2 == 0) subscription.unsubscribe();
+                    timer.increment();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) future.get(10, TimeUnit.SECONDS);
+        executor.shutdownNow();
+
+        assertEquals(800, timer.get());
+        fires.set(0);
+        timer.set(-1);
+        assertEquals(400, fires.get());
+    }
+
+    @Test
+    void listDeltasReplayOntoAMirror() {
+        ReactiveList<String> auctions = ReactiveList.of("a", "b", "c");
+        List<String> mirror = new ArrayList<>(auctions.asList());
+        List<ListChange<String>> seen = new ArrayList<>();
+        auctions.subscribeDelta(changes -> {
+            seen.addAll(changes);
+            changes.forEach(c -> c.applyTo(mirror));
+        });
+
+        auctions.add("d");
+        auctions.add(0, "z");
+        auctions.set(2, "B");
+        auctions.move(0, 4);
+        auctions.remove("c");
+        auctions.sort(Comparator.naturalOrder());
+        auctions.replaceAll(List.of("x", "y"));
+        Reactive.transaction(() -> {
+            auctions.addAll(List.of("p", "q"));
+            auctions.remove(0);
+        });
+        assertEquals(auctions.asList(), mirror);
+
+        assertEquals(ListChange.insert(3, "d"), seen.get(0));
+        assertEquals(ListChange.update(2, "b", "B"), seen.get(2));
+        assertEquals(ListChange.move(0, 4, "z"), seen.get(3));
+
+        auctions.clear();
+        assertEquals(List.of(), mirror);
+    }
+
+    @Test
+    void mapDeltasReportEachKeyOfBulkChanges() {
+        ReactiveMap<String, Integer> stats = ReactiveMap.of(Map.of("kills", 1));
+        List<MapChange<String, Integer>> deltas = new ArrayList<>();
+        List<String> entries = new ArrayList<>();
+        stats.subscribeDelta(deltas::addAll);
+        stats.onChange((k, v) -> entries.add(k + "=" + v));
+
+        stats.putAll(Map.of("kills", 2));
+        stats.clear();
+
+        assertEquals(List.of(MapChange.put("kills", 1, 2), MapChange.remove("kills", 2)), deltas);
+        assertEquals(List.of("kills=2", "kills=null"), entries);
+    }
+
+    @Test
+    void crossThreadDeliveryCoalescesUntilTheDrain() {
+        List<Runnable> tick = new ArrayList<>();
+        Delivery main = Delivery.batched(tick::add, () -> false);
+        Reactive<Integer> coins = Reactive.of(0);
+        ReactiveList<String> feed = ReactiveList.of();
+        List<String> calls = new ArrayList<>();
+        List<ListChange<String>> deltas = new ArrayList<>();
+        coins.subscribeChange((old, now) -> calls.add(old + "->" + now), main);
+        feed.subscribeDelta(deltas::addAll, main);
+
+        coins.set(1);
+        coins.set(2);
+        coins.set(3);
+        feed.add("a");
+        feed.add("b");
+        assertEquals(List.of(), calls);
+        assertEquals(1, tick.size());
+
+        tick.remove(0).run();
+        assertEquals(List.of("0->3"), calls);
+        assertEquals(List.of(ListChange.insert(0, "a"), ListChange.insert(1, "b")), deltas);
+
+        coins.set(4);
+        tick.remove(0).run();
+        assertEquals(List.of("0->3", "3->4"), calls);
+    }
+
+    @Test
+    void primitivesDeliverAcrossThreadsToo() {
+        List<Runnable> tick = new ArrayList<>();
+        Delivery main = Delivery.batched(tick::add, () -> false);
+        ReactiveInt mana = ReactiveInt.of(100).deliverOn(main);
+        List<String> calls = new ArrayList<>();
+        AtomicInteger direct = new AtomicInteger();
+        mana.onChange((old, now) -> calls.add(old + "->" + now));
+        mana.subscribeAny(direct::incrementAndGet, Delivery.caller());
+
+        mana.add(-10);
+        mana.add(-10);
+        assertEquals(List.of(), calls);
+        assertEquals(2, direct.get());
+
+        tick.remove(0).run();
+        assertEquals(List.of("100->80"), calls);
+    }
+
+    @Test
+    void bindingRendererRendersOncePerFrameAndSpreadsPlayers() {
+        Tasks.setScheduler(new SchedulerAdapter() {
+            @Override public FrameworkTask runSync(Runnable task) { return runLater(task, 0); }
+            @Override public FrameworkTask runLater(Runnable task, long delay) { return runTimer(task, delay, -1); }
+            @Override public FrameworkTask runTimer(Runnable task, long delay, long period) {
+                return new FrameworkTask() {
+                    @Override public int getTaskId() { return -1; }
+                    @Override public void cancel() {}
+                    @Override public boolean isCancelled() { return false; }
+                };
+            }
+        });
+        BindingRenderer.configure(2, 1_000);
+        try {
+            List<String> rendered = new ArrayList<>();
+            BindingRenderer.Binding first = BindingRenderer.register(UUID.randomUUID(), "test line", () -> rendered.add("first"));
+            BindingRenderer.Binding second = BindingRenderer.register(UUID.randomUUID(), "test line", () -> rendered.add("second"));
+
+            first.markDirty();
+            first.markDirty();
+            first.markDirty();
+            second.markDirty();
+            BindingRenderer.tick();
+            assertEquals(1, rendered.size());
+            BindingRenderer.tick();
+            assertEquals(2, rendered.size());
+            assertEquals(Set.of("first", "second"), Set.copyOf(rendered));
+
+            BindingRenderer.tick();
+            BindingRenderer.tick();
+            assertEquals(2, rendered.size());
+
+            BindingRenderer.Stats stats = BindingRenderer.stats().get(0);
+            assertEquals("test line", stats.label());
+            assertEquals(2, stats.renders());
+            assertEquals(2, stats.coalesced());
+        } finally {
+            BindingRenderer.clear();
+            BindingRenderer.configure(2, 2);
+        }
+    }
+
+    @Test
+    void bindingRendererDropsAFrameWithItsLastBinding() {
+        Tasks.setScheduler(new SchedulerAdapter() {
+            @Override public FrameworkTask runSync(Runnable task) { return runLater(task, 0); }
+            @Override public FrameworkTask runLater(Runnable task, long delay) { return runTimer(task, delay, -1); }
+            @Override public FrameworkTask runTimer(Runnable task, long delay, long period) {
+                return new FrameworkTask() {
+                    @Override public int getTaskId() { return -1; }
+                    @Override public void cancel() {}
+                    @Override public boolean isCancelled() { return false; }
+                };
+            }
+        });
+        try {
+            UUID player = UUID.randomUUID();
+            BindingRenderer.Binding title = BindingRenderer.register(player, "test title", () -> {});
+            BindingRenderer.Binding line = BindingRenderer.register(player, "test line", () -> {});
+            assertEquals(1, BindingRenderer.frameCount());
+
+            line.markDirty();
+            title.cancel();
+            title.cancel();
+            assertEquals(1, BindingRenderer.frameCount());
+
+            line.cancel();
+            assertEquals(0, BindingRenderer.frameCount());
+            assertEquals(0, BindingRenderer.pendingCount());
+
+            BindingRenderer.register(player, "test line", () -> {});
+            assertEquals(1, BindingRenderer.frameCount());
+        } finally {
+            BindingRenderer.clear();
+        }
+    }
+
+    @Test
+    void leakDetectorReportsListenersPerReactiveAndOfflineOwners() {
+        ReactiveLeaks.enable();
+        try {
+            Reactive<Integer> global = Reactive.of(0);
+            UUID gone = UUID.randomUUID();
+            Subscription hud = ReactiveLeaks.owned(gone, global.subscribeSet(v -> {}));
+            Subscription log = global.subscribeChange((old, now) -> {});
+
+            ReactiveLeaks.SourceReport report = ReactiveLeaks.graph().get(0);
+            assertEquals(2, report.listeners());
+            assertTrue(report.sites().keySet().iterator().next().contains("ReactiveTest"));
+            List<ReactiveLeaks.Leak> leaks = ReactiveLeaks.offlineOwned(id -> false);
+            assertEquals(1, leaks.size());
+            assertEquals(gone, leaks.get(0).owner());
+
+            hud.unsubscribe();
+            log.unsubscribe();
+            assertEquals(0, ReactiveLeaks.trackedCount());
+            assertEquals(0, global.listenerCount());
+        } finally {
+            ReactiveLeaks.disable();
+        }
+    }
 }
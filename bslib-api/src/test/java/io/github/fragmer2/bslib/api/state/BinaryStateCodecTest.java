@@ -0,0 +1,125 @@
+package io.github.fragmer2.bslib.api.state;
+
+import io.github.fragmer2.bslib.api.reactive.Reactive;
+import io.github.fragmer2.bslib.api.reactive.ReactiveList;
+import io.github.fragmer2.bslib.api.reactive.ReactiveMap;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryStateCodecTest {
+
+    enum Rank { DEFAULT, VIP, ADMIN }
+
+    @State(value = "convert-test", autosaveSeconds = 0, backend = State.Backend.BINARY)
+    static class BinaryProfile {
+        @StateKey String id;
+        Reactive<Integer> coins = Reactive.of(0);
+        Reactive<Rank> rank = Reactive.of(Rank.DEFAULT);
+        Reactive<UUID> partner = Reactive.of(null);
+        ReactiveList<String> homes = ReactiveList.empty();
+        ReactiveMap<String, Integer> stats = ReactiveMap.empty();
+        long lastSeen;
+    }
+
+    @State(value = "convert-test", autosaveSeconds = 0, backend = State.Backend.LOG)
+    static class LogProfile {
+        @StateKey String id;
+        Reactive<Integer> coins = Reactive.of(0);
+        Reactive<Rank> rank = Reactive.of(Rank.DEFAULT);
+        Reactive<UUID> partner = Reactive.of(null);
+        ReactiveList<String> homes = ReactiveList.empty();
+        ReactiveMap<String, Integer> stats = ReactiveMap.empty();
+        long lastSeen;
+    }
+
+    @Test
+    void roundTripKeepsTypes() throws IOException {
+        UUID uuid = UUID.randomUUID();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("int", -42);
+        data.put("long", Long.MIN_VALUE);
+        data.put("double", 3.25);
+        data.put("float", 1.5f);
+        data.put("bool", true);
+        data.put("text", "héllo \"world\"");
+        data.put("uuid", uuid);
+        data.put("rank", Rank.VIP);
+        data.put("list", List.of(1, "two", List.of(3L)));
+        data.put("map", Map.of("kills", 7));
+        data.put("nothing", null);
+
+        Map<String, Object> decoded = BinaryStateCodec.INSTANCE.decode(BinaryStateCodec.INSTANCE.encode(data));
+
+        assertEquals(List.copyOf(data.keySet()), List.copyOf(decoded.keySet()));
+        assertEquals(-42, decoded.get("int"));
+        assertEquals(Long.MIN_VALUE, decoded.get("long"));
+        assertEquals(3.25, decoded.get("double"));
+        assertEquals(1.5f, decoded.get("float"));
+        assertEquals(true, decoded.get("bool"));
+        assertEquals("héllo \"world\"", decoded.get("text"));
+        assertEquals(uuid, decoded.get("uuid"));
+        assertEquals("VIP", decoded.get("rank"));
+        assertEquals(List.of(1, "two", List.of(3L)), decoded.get("list"));
+        assertEquals(Map.of("kills", 7), decoded.get("map"));
+        assertNull(decoded.get("nothing"));
+    }
+
+    @Test
+    void unsupportedValueIsRejected() {
+        Map<String, Object> data = Map.of("spawn", new StringBuilder("world,0,64,0"));
+        assertThrows(IOException.class, () -> BinaryStateCodec.INSTANCE.encode(data));
+    }
+
+    @Test
+    void truncatedInputIsRejected() throws IOException {
+        byte[] bytes = BinaryStateCodec.INSTANCE.encode(Map.of("text", "some value"));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+        assertThrows(IOException.class, () -> BinaryStateCodec.INSTANCE.decode(truncated));
+    }
+
+    @Test
+    void oversizedCountIsRejectedBeforeAllocating() {
+        // magic, version, 1 field "l", LIST tag, size varint 0x7FFFFFFF, no elements
+        byte[] bytes = {(byte) 0xB5, 1, 1, 1, 'l', 10, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        assertThrows(IOException.class, () -> BinaryStateCodec.INSTANCE.decode(bytes));
+    }
+
+    @Test
+    void managerRoundTripAndConversion() throws IOException {
+        File dataFolder = Files.createTempDirectory("bslib-binary").toFile();
+        UUID partner = UUID.randomUUID();
+
+        StateManager<BinaryProfile> binary = new StateManager<>(StateManagerTest.fakePlugin(dataFolder), BinaryProfile.class);
+        BinaryProfile p = binary.getOrCreate("p1");
+        p.coins.set(250);
+        p.rank.set(Rank.ADMIN);
+        p.partner.set(partner);
+        p.homes.add("base");
+        p.stats.put("kills", 3);
+        p.lastSeen = 123L;
+        binary.shutdown();
+
+        BinaryProfile loaded = new StateManager<>(StateManagerTest.fakePlugin(dataFolder), BinaryProfile.class).loadSync("p1");
+        assertEquals(250, loaded.coins.get());
+        assertEquals(Rank.ADMIN, loaded.rank.get());
+        assertEquals(partner, loaded.partner.get());
+        assertEquals(123L, loaded.lastSeen);
+
+        StateManager<LogProfile> log = new StateManager<>(StateManagerTest.fakePlugin(dataFolder), LogProfile.class);
+        assertEquals(1, log.convertFrom(State.Backend.BINARY));
+        assertEquals(0, log.convertFrom(State.Backend.BINARY)); // existing entries are kept
+
+        LogProfile converted = log.loadSync("p1");
+        assertEquals(250, converted.coins.get());
+        assertEquals(Rank.ADMIN, converted.rank.get());
+        assertEquals(List.of("base"), converted.homes.asList());
+        assertEquals(Map.of("kills", 3), converted.stats.asMap());
+        log.shutdown();
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.fragmer2.bslib.api.state;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateCacheTest {
+
+    @Test
+    void pinnedOverflowIsNotRescannedOnEveryAccess() {
+        StateCache<Object> cache = new StateCache<>(100, 0, 0, new StateWeigher.Unit());
+        for (int i = 0; i < 150; i++) {
+            cache.pin("p" + i);
+            cache.putIfAbsent("p" + i, new Object());
+        }
+        assertTrue(cache.needsEviction());
+        assertTrue(cache.victims().isEmpty());
+        assertFalse(cache.needsEviction(), "nothing evictable was added since the scan");
+
+        for (int i = 0; i < 9; i++) cache.putIfAbsent("k" + i, new Object());
+        assertFalse(cache.needsEviction());
+        cache.putIfAbsent("k9", new Object());
+        assertTrue(cache.needsEviction());
+        assertEquals(10, cache.victims().size());
+    }
+}
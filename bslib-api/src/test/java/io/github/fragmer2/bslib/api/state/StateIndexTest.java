@@ -0,0 +1,97 @@
+package io.github.fragmer2.bslib.api.state;
+
+import io.github.fragmer2.bslib.api.reactive.Reactive;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.fragmer2.bslib.api.state.StateManagerTest.fakePlugin;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateIndexTest {
+
+    @State(value = "index-test", autosaveSeconds = 0, backend = State.Backend.JSON)
+    static class Member {
+        @StateKey String id;
+        @Indexed Reactive<String> clan = Reactive.of(null);
+        @Indexed(ignoreCase = true) String lastName;
+        @Indexed int level;
+    }
+
+    private File dataFolder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataFolder = Files.createTempDirectory("bslib-index").toFile();
+    }
+
+    @Test
+    void reactiveFieldsUpdateTheIndexOnChange() {
+        StateManager<Member> manager = new StateManager<>(fakePlugin(dataFolder), Member.class);
+        manager.getOrCreate("a").clan.set("red");
+        Member b = manager.getOrCreate("b");
+        b.clan.set("red");
+        assertEquals(Set.of("a", "b"), manager.findBy("clan", "red"));
+
+        b.clan.set("blue");
+        assertEquals(Set.of("a"), manager.findBy("clan", "red"));
+        assertEquals(Set.of("b"), manager.findBy("clan", "blue"));
+
+        manager.delete("a");
+        assertTrue(manager.findBy("clan", "red").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> manager.findBy("id", "a"));
+        manager.shutdown();
+    }
+
+    @Test
+    void plainFieldsAreIndexedOnSave() {
+        StateManager<Member> manager = new StateManager<>(fakePlugin(dataFolder), Member.class);
+        Member a = manager.getOrCreate("a");
+        a.lastName = "Steve";
+        a.level = 7;
+        assertTrue(manager.findBy("lastName", "steve").isEmpty());
+
+        manager.save("a");
+        assertEquals(Set.of("a"), manager.findBy("lastName", "STEVE"));
+        assertEquals(Set.of("a"), manager.findBy("level", 7L));
+        manager.shutdown();
+    }
+
+    @Test
+    void indexIsPersistedAtShutdown() {
+        StateManager<Member> manager = new StateManager<>(fakePlugin(dataFolder), Member.class);
+        manager.getOrCreate("a").clan.set("red");
+        manager.shutdown();
+        assertTrue(new File(dataFolder, "state/index-test/.index").exists());
+
+        StateManager<Member> reopened = new StateManager<>(fakePlugin(dataFolder), Member.class);
+        assertTrue(reopened.indexReady().isDone());
+        assertEquals(Set.of("a"), reopened.findBy("clan", "red"));
+        assertEquals(0, reopened.cacheStats().size());
+        // Consumed on open: a crash before the next shutdown forces a rebuild
+        assertFalse(new File(dataFolder, "state/index-test/.index").exists());
+        reopened.shutdown();
+    }
+
+    @Test
+    void missingIndexIsRebuiltInBackground() throws Exception {
+        StateManager<Member> manager = new StateManager<>(fakePlugin(dataFolder), Member.class);
+        for (int i = 0; i < 500; i++) {
+            Member m = manager.getOrCreate("k" + i);
+            m.clan.set(i % 2 == 0 ? "even" : "odd");
+            m.level = i;
+        }
+        manager.shutdown();
+        Files.delete(new File(dataFolder, "state/index-test/.index").toPath());
+
+        StateManager<Member> reopened = new StateManager<>(fakePlugin(dataFolder), Member.class);
+        reopened.indexReady().get(10, TimeUnit.SECONDS);
+        assertEquals(250, reopened.findBy("clan", "even").size());
+        assertEquals(Set.of("k42"), reopened.findBy("level", 42));
+        reopened.shutdown();
+    }
+}
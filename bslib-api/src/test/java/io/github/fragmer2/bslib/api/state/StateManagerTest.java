@@ -0,0 +1,310 @@
+package io.github.fragmer2.bslib.api.state;
+
+import io.github.fragmer2.bslib.api.reactive.Delivery;
+import io.github.fragmer2.bslib.api.reactive.Reactive;
+import io.github.fragmer2.bslib.api.reactive.ReactiveInt;
+import io.github.fragmer2.bslib.api.reactive.ReactiveList;
+import io.github.fragmer2.bslib.api.reactive.ReactiveMap;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateManagerTest {
+
+    @State(value = "dirty-test", autosaveSeconds = 0, backend = State.Backend.JSON)
+    static class Profile {
+        @StateKey String id;
+        Reactive<Integer> coins = Reactive.of(0);
+        ReactiveList<String> homes = ReactiveList.empty();
+        ReactiveMap<String, Integer> stats = ReactiveMap.empty();
+        int logins;
+    }
+
+    @State(value = "queue-test", autosaveSeconds = 0, backend = State.Backend.JSON, maxWriteLatencyMillis = 60_000)
+    static class Slow {
+        @StateKey String id;
+        Reactive<Integer> coins = Reactive.of(0);
+        java.util.List<String> tags = new java.util.ArrayList<>();
+    }
+
+    @State(value = "cache-test", autosaveSeconds = 0, backend = State.Backend.JSON, maxCached = 10)
+    static class Bounded {
+        @StateKey String id;
+        Reactive<Integer> coins = Reactive.of(0);
+    }
+
+    /** Stands in for the main thread seen from an async task: everything waits for a drain. */
+    static final Queue<Runnable> NEXT_TICK = new ConcurrentLinkedQueue<>();
+    static final Delivery LATER = Delivery.batched(NEXT_TICK::add, () -> false);
+
+    @State(value = "delivery-test", autosaveSeconds = 0, backend = State.Backend.JSON, maxCached = 1)
+    static class Delivered {
+        @StateKey String id;
+        Reactive<Integer> coins = Reactive.of(0).deliverOn(LATER);
+        ReactiveList<String> homes = ReactiveList.<String>empty().deliverOn(LATER);
+        ReactiveInt level = ReactiveInt.of(1).deliverOn(LATER);
+    }
+
+    private File dataFolder;
+    private StateManager<Profile> manager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataFolder = Files.createTempDirectory("bslib-state").toFile();
+        manager = new StateManager<>(fakePlugin(dataFolder), Profile.class);
+    }
+
+    @Test
+    void newInstancesAreDirtyUntilSaved() {
+        manager.getOrCreate("a");
+        assertTrue(manager.isDirty("a"));
+
+        manager.saveAllDirty();
+        manager.flush();
+
+        assertFalse(manager.isDirty("a"));
+        assertTrue(new File(dataFolder, "state/dirty-test/a.json").exists());
+    }
+
+    @Test
+    void reactiveFieldChangesMarkOnlyTheirKey() {
+        Profile a = manager.getOrCreate("a");
+        Profile b = manager.getOrCreate("b");
+        Profile c = manager.getOrCreate("c");
+        manager.saveAllDirty();
+
+        a.coins.set(10);
+        b.homes.add("base");
+        c.coins.set(0); // unchanged value → not dirty
+
+        assertTrue(manager.isDirty("a"));
+        assertTrue(manager.isDirty("b"));
+        assertFalse(manager.isDirty("c"));
+        assertEquals(2, manager.dirtyCount());
+
+        c.stats.put("kills", 1);
+        assertTrue(manager.isDirty("c"));
+    }
+
+    @Test
+    void silentAndPlainWritesNeedExplicitMarkDirty() {
+        Profile a = manager.getOrCreate("a");
+        manager.saveAllDirty();
+
+        a.coins.setSilent(99);
+        a.logins++;
+        assertFalse(manager.isDirty("a"));
+
+        manager.markDirty("a");
+        assertTrue(manager.isDirty("a"));
+    }
+
+    @Test
+    void unloadDetachesTrackingFromOldInstance() {
+        Profile a = manager.getOrCreate("a");
+        manager.unload("a");
+
+        a.coins.set(5);
+
+        assertFalse(manager.isDirty("a"));
+        assertEquals(0, manager.dirtyCount());
+    }
+
+    @Test
+    void repeatedSavesCoalesceIntoOneWrite() {
+        StateManager<Slow> slow = new StateManager<>(fakePlugin(dataFolder), Slow.class);
+        Slow a = slow.getOrCreate("a");
+        for (int i = 1; i <= 5; i++) {
+            a.coins.set(i);
+            slow.save("a");
+        }
+        assertEquals(1, slow.writeStats().queueDepth());
+        assertFalse(new File(dataFolder, "state/queue-test/a.json").exists());
+
+        slow.flush();
+
+        StateWriteQueue.Stats stats = slow.writeStats();
+        assertEquals(0, stats.queueDepth());
+        assertEquals(5, stats.enqueued());
+        assertEquals(4, stats.coalesced());
+        assertEquals(1, stats.written());
+        slow.shutdown();
+    }
+
+    @Test
+    void readsSeePendingWrites() {
+        StateManager<Slow> slow = new StateManager<>(fakePlugin(dataFolder), Slow.class);
+        Slow a = slow.getOrCreate("a");
+        a.coins.set(7);
+        a.tags.add("vip");
+        slow.unload("a");
+
+        assertTrue(slow.exists("a"));
+        Slow reloaded = slow.loadSync("a");
+        assertEquals(7, reloaded.coins.get());
+        assertEquals(java.util.List.of("vip"), reloaded.tags);
+
+        reloaded.tags.add("mutated");
+        slow.unload("a");
+        slow.shutdown();
+        assertTrue(new File(dataFolder, "state/queue-test/a.json").exists());
+    }
+
+    @Test
+    void shutdownDrainsQueue() {
+        StateManager<Slow> slow = new StateManager<>(fakePlugin(dataFolder), Slow.class);
+        for (int i = 0; i < 100; i++) {
+            slow.getOrCreate("k" + i);
+        }
+        slow.saveAllDirty();
+        slow.shutdown();
+
+        String[] files = new File(dataFolder, "state/queue-test").list();
+        assertNotNull(files);
+        assertEquals(100, files.length);
+    }
+
+    @Test
+    void jsonBackendRoundTripsNestedValues() {
+        Profile a = manager.getOrCreate("a");
+        a.coins.set(42);
+        a.homes.add("say \"hi\"\n\ttwice");
+        a.stats.put("kills", 3);
+        manager.shutdown();
+
+        Profile loaded = new StateManager<>(fakePlugin(dataFolder), Profile.class).loadSync("a");
+        assertEquals(42, loaded.coins.get());
+        assertEquals(java.util.List.of("say \"hi\"\n\ttwice"), loaded.homes.asList());
+        assertEquals(java.util.Map.of("kills", 3), loaded.stats.asMap());
+    }
+
+    @Test
+    void evictionWritesDirtyEntriesBack() {
+        StateManager<Bounded> bounded = new StateManager<>(fakePlugin(dataFolder), Bounded.class);
+        for (int i = 0; i < 30; i++) {
+            bounded.getOrCreate("k" + i).coins.set(i);
+        }
+
+        StateCache.Stats stats = bounded.cacheStats();
+        assertTrue(stats.size() <= 10, "cache size " + stats.size());
+        assertTrue(stats.evictions() >= 20);
+
+        for (int i = 0; i < 30; i++) {
+            assertEquals(i, bounded.loadSync("k" + i).coins.get(), "k" + i);
+        }
+        bounded.shutdown();
+    }
+
+    @Test
+    void changesToDeliveredFieldsAreDirtyBeforeEviction() {
+        StateManager<Delivered> delivered = new StateManager<>(fakePlugin(dataFolder), Delivered.class);
+        Delivered a = delivered.getOrCreate("a");
+        delivered.saveAllDirty();
+        delivered.flush();
+
+        a.coins.set(5);
+        a.homes.add("base");
+        a.level.increment();
+        assertTrue(delivered.isDirty("a"), "dirty mark must not wait for the field's delivery");
+        assertEquals(1, delivered.evict());
+        delivered.flush();
+
+        Delivered loaded = delivered.loadSync("a");
+        assertEquals(5, loaded.coins.get());
+        assertEquals(List.of("base"), loaded.homes.asList());
+        assertEquals(2, loaded.level.get());
+        NEXT_TICK.clear();
+        delivered.shutdown();
+    }
+
+    @Test
+    void pinnedEntriesAreNeverEvicted() {
+        StateManager<Bounded> bounded = new StateManager<>(fakePlugin(dataFolder), Bounded.class);
+        bounded.pin("online");
+        Bounded online = bounded.getOrCreate("online");
+        for (int i = 0; i < 50; i++) {
+            bounded.getOrCreate("k" + i);
+        }
+
+        assertSame(online, bounded.get("online"));
+        assertEquals(1, bounded.cacheStats().pinned());
+
+        bounded.unload("online");
+        assertEquals(0, bounded.cacheStats().pinned());
+        bounded.shutdown();
+    }
+
+    @Test
+    void concurrentAsyncLoadsShareOneInstance() throws Exception {
+        manager.getOrCreate("a").coins.set(3);
+        manager.unload("a");
+
+        java.util.List<java.util.concurrent.CompletableFuture<Profile>> loads = new java.util.ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            loads.add(manager.loadAsync("a"));
+        }
+        Profile first = loads.get(0).get(5, java.util.concurrent.TimeUnit.SECONDS);
+        for (java.util.concurrent.CompletableFuture<Profile> load : loads) {
+            assertSame(first, load.get(5, java.util.concurrent.TimeUnit.SECONDS));
+        }
+        assertEquals(3, first.coins.get());
+        assertSame(first, manager.get("a"));
+    }
+
+    @Test
+    void scansReadStoredEntriesWithoutCachingThem() throws Exception {
+        for (int i = 0; i < 600; i++) {
+            manager.getOrCreate("k" + i).coins.set(i);
+        }
+        manager.shutdown();
+
+        StateManager<Profile> fresh = new StateManager<>(fakePlugin(dataFolder), Profile.class);
+        Profile live = fresh.getOrCreate("k5");
+        live.coins.set(10_000);
+
+        List<Profile> rich = fresh.scan(p -> p.coins.get() >= 590).get(10, TimeUnit.SECONDS);
+        assertEquals(11, rich.size());
+        assertTrue(rich.contains(live));
+
+        List<Profile> top = fresh.top(3, Comparator.comparingInt(p -> p.coins.get())).get(10, TimeUnit.SECONDS);
+        assertEquals(List.of(10_000, 599, 598), top.stream().map(p -> p.coins.get()).toList());
+
+        long total = fresh.aggregate(Collectors.summingLong(p -> p.coins.get())).get(10, TimeUnit.SECONDS);
+        assertEquals(599L * 600 / 2 - 5 + 10_000, total);
+
+        try (Stream<Profile> all = fresh.stream()) {
+            assertEquals(600, all.count());
+        }
+        assertEquals(1, fresh.cacheStats().size());
+        fresh.shutdown();
+    }
+
+    static Plugin fakePlugin(File dataFolder) {
+        Logger logger = Logger.getLogger("state-test");
+        return (Plugin) Proxy.newProxyInstance(
+                Plugin.class.getClassLoader(),
+                new Class[]{Plugin.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getName" -> "state-test-plugin";
+                    case "getDataFolder" -> dataFolder;
+                    case "getLogger" -> logger;
+                    case "isEnabled" -> true;
+                    default -> null;
+                }
+        );
+    }
+}
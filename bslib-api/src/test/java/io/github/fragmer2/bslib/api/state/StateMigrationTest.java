@@ -0,0 +1,146 @@
+package io.github.fragmer2.bslib.api.state;
+
+import io.github.fragmer2.bslib.api.json.JsonReader;
+import io.github.fragmer2.bslib.api.reactive.Reactive;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.fragmer2.bslib.api.state.StateManagerTest.fakePlugin;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateMigrationTest {
+
+    @State(value = "migration-test", autosaveSeconds = 0, backend = State.Backend.JSON)
+    static class Old {
+        @StateKey String id;
+        Reactive<Integer> money = Reactive.of(0);
+        String rank = "vip";
+        String level = "7";
+    }
+
+    enum Rank { DEFAULT, VIP }
+
+    @State(value = "migration-test", autosaveSeconds = 0, backend = State.Backend.JSON, version = 2)
+    static class Current {
+        @StateKey String id;
+        Reactive<Integer> coins = Reactive.of(0);
+        Reactive<Rank> rank = Reactive.of(Rank.DEFAULT);
+        int level = 1;
+    }
+
+    private File dataFolder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataFolder = Files.createTempDirectory("bslib-migration").toFile();
+    }
+
+    @Test
+    void recordsAreMigratedLazilyOnLoad() throws IOException {
+        writeOld(1, "not a number");
+
+        StateManager<Current> manager = newManager();
+        Current loaded = manager.loadSync("k0");
+        assertEquals(0, loaded.coins.get());
+        assertEquals(Rank.VIP, loaded.rank.get());
+        assertEquals(1, loaded.level, "unconvertible value keeps the default");
+        assertTrue(manager.isDirty("k0"), "upgraded record is written back on next save");
+
+        manager.shutdown();
+        Map<String, Object> stored = readStored("k0");
+        assertEquals(2, stored.get(StateMigrator.VERSION_FIELD));
+        assertFalse(stored.containsKey("money"));
+    }
+
+    @Test
+    void bulkMigrationRewritesEveryRecord() throws Exception {
+        writeOld(300, "12");
+
+        StateManager<Current> manager = newManager();
+        List<StateMigration.Progress> reports = new ArrayList<>();
+        StateMigration.Progress done = manager.migrateAll(p -> {
+            synchronized (reports) {
+                reports.add(p);
+            }
+        }).get(10, TimeUnit.SECONDS);
+
+        assertEquals(300, done.total());
+        assertEquals(300, done.migrated());
+        assertEquals(0, done.failed());
+        assertTrue(done.done());
+        assertFalse(reports.isEmpty());
+        assertEquals(0, manager.cacheStats().size());
+
+        Map<String, Object> stored = readStored("k299");
+        assertEquals(2, stored.get(StateMigrator.VERSION_FIELD));
+        assertEquals(299, stored.get("coins"));
+        assertEquals("VIP", stored.get("rank"));
+        assertEquals(12, stored.get("level"));
+
+        assertEquals(0, manager.migrateAll(p -> {}).get(10, TimeUnit.SECONDS).migrated());
+        manager.shutdown();
+    }
+
+    @Test
+    void failedMigrationKeepsTheStoredRecord() throws IOException {
+        writeOld(1, "3");
+
+        StateManager<Current> manager = new StateManager<>(fakePlugin(dataFolder), Current.class);
+        manager.migration(0, data -> { throw new IllegalStateException("bug in migration"); });
+        assertThrows(RuntimeException.class, () -> manager.loadSync("k0"));
+        assertTrue(manager.isQuarantined("k0"));
+
+        Current fallback = manager.getOrCreate("k0");
+        fallback.coins.set(999);
+        assertNull(manager.get("k0"), "the default is not cached");
+        assertFalse(manager.isDirty("k0"));
+        manager.saveAllDirty();
+        manager.shutdown();
+
+        Map<String, Object> stored = readStored("k0");
+        assertEquals(0, stored.get("money"));
+        assertEquals("3", stored.get("level"));
+        assertFalse(stored.containsKey("coins"));
+    }
+
+    @Test
+    void rejectsStepsOutsideTheVersionRange() {
+        StateManager<Current> manager = new StateManager<>(fakePlugin(dataFolder), Current.class);
+        assertThrows(IllegalArgumentException.class, () -> manager.migration(2, data -> {}));
+        manager.migration(0, data -> {});
+        assertThrows(IllegalStateException.class, () -> manager.migration(0, data -> {}));
+        manager.shutdown();
+    }
+
+    private StateManager<Current> newManager() {
+        StateManager<Current> manager = new StateManager<>(fakePlugin(dataFolder), Current.class);
+        manager.migration(0, StateMigration.rename("money", "coins"));
+        manager.migration(1, StateMigration.convert("rank", r -> r.toString().toUpperCase()));
+        return manager;
+    }
+
+    private void writeOld(int count, String level) {
+        StateManager<Old> old = new StateManager<>(fakePlugin(dataFolder), Old.class);
+        for (int i = 0; i < count; i++) {
+            Old o = old.getOrCreate("k" + i);
+            o.money.set(i);
+            o.level = level;
+        }
+        old.shutdown();
+    }
+
+    private Map<String, Object> readStored(String key) throws IOException {
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(
+                new File(dataFolder, "state/migration-test/" + key + ".json").toPath()))) {
+            return reader.readObject();
+        }
+    }
+}
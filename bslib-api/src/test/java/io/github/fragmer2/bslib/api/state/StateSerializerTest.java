@@ -0,0 +1,118 @@
+package io.github.fragmer2.bslib.api.state;
+
+import io.github.fragmer2.bslib.api.reactive.Reactive;
+import io.github.fragmer2.bslib.api.reactive.ReactiveDouble;
+import io.github.fragmer2.bslib.api.reactive.ReactiveInt;
+import io.github.fragmer2.bslib.api.reactive.ReactiveList;
+import io.github.fragmer2.bslib.api.reactive.ReactiveLong;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateSerializerTest {
+
+    @State("test-profile")
+    static class Profile {
+        @StateKey UUID uuid;
+        Reactive<Integer> coins = Reactive.of(0);
+        Reactive<Long> playtime = Reactive.of(0L);
+        ReactiveList<String> homes = ReactiveList.empty();
+        List<String> friends = new ArrayList<>();
+        int logins;
+        transient int ignored = 7;
+        static int shared = 1;
+    }
+
+    @State("test-combat")
+    static class Combat {
+        @StateKey UUID uuid;
+        ReactiveInt combo = ReactiveInt.of(0);
+        ReactiveLong damage = ReactiveLong.of(0);
+        ReactiveDouble mana = ReactiveDouble.of(20.0);
+    }
+
+    @State("test-settings")
+    static class Settings {
+        @StateKey String id;
+        final String motto = String.valueOf("none");
+    }
+
+    @Test
+    void finalFieldsAreRestored() {
+        Settings settings = new Settings();
+        StateSerializer.deserialize(settings, Map.of("motto", "carpe diem"));
+        assertEquals("carpe diem", settings.motto);
+    }
+
+    @Test
+    void schemaIsCachedAndSkipsKeyStaticAndTransientFields() {
+        StateSchema schema = StateSchema.of(Profile.class);
+
+        assertSame(schema, StateSchema.of(Profile.class));
+        assertEquals("uuid", schema.key().name());
+        assertEquals(List.of("coins", "playtime", "homes", "friends", "logins"),
+                schema.properties().stream().map(StateSchema.Property::name).toList());
+        assertEquals(Long.class, schema.property("playtime").valueType());
+        assertEquals(StateSchema.Kind.REACTIVE_LIST, schema.property("homes").kind());
+    }
+
+    @Test
+    void roundTripsThroughSchemaAccessors() {
+        Profile source = new Profile();
+        UUID id = UUID.randomUUID();
+        StateSerializer.setKey(source, id.toString());
+        source.coins.set(250);
+        source.playtime.set(90_000L);
+        source.homes.add("base");
+        source.friends.add("Alex");
+        source.logins = 3;
+
+        Map<String, Object> data = StateSerializer.serialize(source);
+        Profile copy = new Profile();
+        StateSerializer.deserialize(copy, data);
+
+        assertEquals(id.toString(), StateSerializer.getKey(source));
+        assertEquals(250, copy.coins.get());
+        assertEquals(90_000L, copy.playtime.get());
+        assertEquals(List.of("base"), copy.homes.asList());
+        assertEquals(List.of("Alex"), copy.friends);
+        assertEquals(3, copy.logins);
+    }
+
+    @Test
+    void storedIntegersAreWidenedToDeclaredReactiveType() {
+        Profile copy = new Profile();
+        StateSerializer.deserialize(copy, Map.of("playtime", 12));
+
+        assertEquals(12L, copy.playtime.get());
+    }
+
+    @Test
+    void primitiveReactivesRoundTripWithoutNotifying() {
+        StateSchema schema = StateSchema.of(Combat.class);
+        assertEquals(StateSchema.Kind.REACTIVE_NUMBER, schema.property("combo").kind());
+        assertEquals(Double.class, schema.property("mana").valueType());
+
+        Combat source = new Combat();
+        source.combo.set(7);
+        source.damage.add(5_000_000_000L);
+        source.mana.add(-2.5);
+        assertEquals(3, schema.version(source));
+
+        Combat copy = new Combat();
+        int[] fires = new int[1];
+        copy.combo.subscribeAny(() -> fires[0]++);
+        StateSerializer.deserialize(copy, Map.of("combo", 7L, "damage", 5_000_000_000L, "mana", "17.5"));
+
+        assertEquals(Map.of("combo", 7, "damage", 5_000_000_000L, "mana", 17.5), StateSerializer.serialize(source));
+        assertEquals(7, copy.combo.get());
+        assertEquals(5_000_000_000L, copy.damage.get());
+        assertEquals(17.5, copy.mana.get());
+        assertEquals(0, fires[0]);
+    }
+}
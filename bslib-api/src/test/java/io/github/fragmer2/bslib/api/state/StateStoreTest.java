@@ -0,0 +1,183 @@
+package io.github.fragmer2.bslib.api.state;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateStoreTest {
+
+    /** key=value lines — keeps the tests independent of the YAML implementation. */
+    static final StateCodec LINES = new StateCodec() {
+        @Override
+        public byte id() { return 'T'; }
+
+        @Override
+        public byte[] encode(Map<String, Object> data) {
+            StringBuilder sb = new StringBuilder();
+            data.forEach((k, v) -> sb.append(k).append('=').append(v).append('\n'));
+            return sb.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Map<String, Object> decode(byte[] bytes) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (String line : new String(bytes, StandardCharsets.UTF_8).split("\n")) {
+                if (line.isEmpty()) continue;
+                int eq = line.indexOf('=');
+                map.put(line.substring(0, eq), line.substring(eq + 1));
+            }
+            return map;
+        }
+    };
+
+    private static final Logger LOGGER = Logger.getLogger("state-store-test");
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("bslib-store");
+    }
+
+    @Test
+    void logReopensWithIndexRebuilt() throws IOException {
+        LogStateStore store = open();
+        write(store, "a", "coins", "1");
+        write(store, "b", "coins", "2");
+        write(store, "a", "coins", "3");
+        store.close();
+
+        LogStateStore reopened = open();
+        assertEquals(Set.of("a", "b"), reopened.keys());
+        assertEquals("3", reopened.read("a").get("coins"));
+        assertEquals("2", reopened.read("b").get("coins"));
+        reopened.close();
+    }
+
+    @Test
+    void logTruncatesTornTail() throws IOException {
+        LogStateStore store = open();
+        write(store, "a", "coins", "1");
+        long intact = store.sizeBytes();
+        store.close();
+
+        // Half-written record: length prefix promises more bytes than exist
+        Files.write(dir.resolve("data.log"), new byte[]{0, 0, 0, 40, 1, 0, 1}, StandardOpenOption.APPEND);
+
+        LogStateStore reopened = open();
+        assertEquals(intact, Files.size(dir.resolve("data.log")));
+        assertEquals("1", reopened.read("a").get("coins"));
+
+        write(reopened, "b", "coins", "2");
+        reopened.close();
+        assertEquals("2", open().read("b").get("coins"));
+    }
+
+    @Test
+    void logRefusesToTruncateCorruptionBeforeValidRecords() throws IOException {
+        LogStateStore store = open();
+        write(store, "a", "coins", "1");
+        write(store, "b", "coins", "2");
+        store.close();
+
+        Path log = dir.resolve("data.log");
+        byte[] bytes = Files.readAllBytes(log);
+        bytes[8 + 4 + 3] ^= 0x7F;   // first record's key: CRC no longer matches
+        Files.write(log, bytes);
+
+        assertThrows(IOException.class, this::open);
+        assertArrayEquals(bytes, Files.readAllBytes(log));   // nothing truncated
+        try (var files = Files.list(dir)) {
+            assertTrue(files.anyMatch(f -> f.getFileName().toString().startsWith("data.log.corrupt-")));
+        }
+    }
+
+    @Test
+    void logRefusesToTruncateAtADamagedLengthBeforeValidRecords() throws IOException {
+        LogStateStore store = open();
+        write(store, "a", "coins", "1");
+        write(store, "b", "coins", "2");
+        store.close();
+
+        Path log = dir.resolve("data.log");
+        byte[] bytes = Files.readAllBytes(log);
+        bytes[8] = 0x10;   // first record's length now points past the end of the file
+        Files.write(log, bytes);
+
+        assertThrows(IOException.class, this::open);
+        assertArrayEquals(bytes, Files.readAllBytes(log));   // "b" is still there
+    }
+
+    @Test
+    void logDeleteSurvivesReopen() throws IOException {
+        LogStateStore store = open();
+        write(store, "a", "coins", "1");
+        write(store, "b", "coins", "2");
+        store.delete("a");
+        assertFalse(store.exists("a"));
+        store.close();
+
+        LogStateStore reopened = open();
+        assertNull(reopened.read("a"));
+        assertEquals(Set.of("b"), reopened.keys());
+        reopened.close();
+    }
+
+    @Test
+    void logCompactionKeepsOnlyLatestRecords() throws IOException {
+        LogStateStore store = open();
+        for (int i = 0; i < 200; i++) {
+            write(store, "a", "coins", String.valueOf(i));
+            write(store, "b", "coins", String.valueOf(-i));
+        }
+        long before = store.sizeBytes();
+        assertTrue(store.garbageBytes() > 0);
+
+        store.compact();
+
+        assertTrue(store.sizeBytes() < before / 50);
+        assertEquals(0, store.garbageBytes());
+        assertEquals("199", store.read("a").get("coins"));
+        write(store, "c", "coins", "7");
+        store.close();
+
+        LogStateStore reopened = open();
+        assertEquals(Set.of("a", "b", "c"), reopened.keys());
+        assertEquals("-199", reopened.read("b").get("coins"));
+        assertEquals("7", reopened.read("c").get("coins"));
+        reopened.close();
+    }
+
+    @Test
+    void fileStoreReplacesAtomicallyAndCleansTempFiles() throws IOException {
+        Files.writeString(dir.resolve("stale.json.tmp"), "half written");
+        FileStateStore store = new FileStateStore(dir, ".json", LINES);
+        assertFalse(Files.exists(dir.resolve("stale.json.tmp")));
+
+        store.write(Map.of("a", Map.of("coins", "1")), (k, e) -> fail(e));
+        store.write(Map.of("a", Map.of("coins", "2")), (k, e) -> fail(e));
+
+        assertEquals("2", store.read("a").get("coins"));
+        assertEquals(Set.of("a"), store.keys());
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    private LogStateStore open() throws IOException {
+        return new LogStateStore(dir.resolve("data.log"), LINES, LOGGER);
+    }
+
+    private static void write(StateStore store, String key, String field, String value) {
+        store.write(Map.of(key, Map.of(field, value)), (k, e) -> fail(e));
+    }
+}
@@ -12,16 +12,25 @@ import io.github.fragmer2.bslib.api.event.Bus;
 import io.github.fragmer2.bslib.api.event.Events;
 import io.github.fragmer2.bslib.api.feature.Features;
 import io.github.fragmer2.bslib.api.interaction.Interact;
+import io.github.fragmer2.bslib.api.menu.MenuItemCache;
+import io.github.fragmer2.bslib.api.message.Components;
 import io.github.fragmer2.bslib.api.messaging.PluginMessageBus;
 import io.github.fragmer2.bslib.api.module.ModuleManager;
 import io.github.fragmer2.bslib.api.placeholder.Placeholders;
+import io.github.fragmer2.bslib.api.reactive.BindingRenderer;
 import io.github.fragmer2.bslib.api.reactive.ReactiveBinding;
+import io.github.fragmer2.bslib.api.reactive.ReactiveLeaks;
 import io.github.fragmer2.bslib.api.service.Services;
 import io.github.fragmer2.bslib.api.session.Sessions;
+import io.github.fragmer2.bslib.api.state.State;
+import io.github.fragmer2.bslib.api.state.StateCache;
+import io.github.fragmer2.bslib.api.state.StateWriteQueue;
+import io.github.fragmer2.bslib.api.state.States;
 import io.github.fragmer2.bslib.api.task.Tasks;
 import io.github.fragmer2.bslib.api.thread.Async;
 import io.github.fragmer2.bslib.paper.command.PaperCommandRegistryFactory;
 import io.github.fragmer2.bslib.paper.gui.GuiManager;
+import io.github.fragmer2.bslib.paper.gui.MenuRefresher;
 import io.github.fragmer2.bslib.paper.module.PaperModuleContext;
 import io.github.fragmer2.bslib.paper.module.PaperModuleManager;
 import io.github.fragmer2.bslib.paper.placeholder.PaperPlaceholderRegistry;
@@ -35,6 +44,8 @@ import org.bukkit.plugin.java.JavaPlugin;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 
 public class BSLibPlugin extends JavaPlugin {
 
@@ -108,10 +119,12 @@ public class BSLibPlugin extends JavaPlugin {
         Features.clear();
         Interact.clear();
         ReactiveBinding.clear();
+        ReactiveLeaks.disable();
         io.github.fragmer2.bslib.api.state.States.shutdown();
         GuiInspector.clearStats();
         Debug.resetTimings();
         io.github.fragmer2.bslib.api.message.Msg.clear();
+        MenuItemCache.clear();
         PluginCapabilityRegistry.clear();
         PluginMessageBus.clearAll();
 
@@ -139,6 +152,7 @@ public class BSLibPlugin extends JavaPlugin {
             case "reload"  -> handleReload(sender, Arrays.copyOfRange(args, 1, args.length));
             case "plugins" -> handlePlugins(sender);
             case "modules" -> handleModules(sender);
+            case "state"   -> handleState(sender, Arrays.copyOfRange(args, 1, args.length));
             default -> sender.sendMessage("§cUnknown: " + args[0] + ". Use §e/bslib§c for help.");
         }
         return true;
@@ -148,7 +162,7 @@ public class BSLibPlugin extends JavaPlugin {
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (args.length == 1) {
             List<String> cmds = new ArrayList<>();
-            if (sender.hasPermission("bslib.debug")) cmds.addAll(List.of("debug", "doctor", "inspect", "plugins", "modules"));
+            if (sender.hasPermission("bslib.debug")) cmds.addAll(List.of("debug", "doctor", "inspect", "plugins", "modules", "state"));
             if (sender.hasPermission("bslib.dev"))    cmds.add("dev");
             if (sender.hasPermission("bslib.reload")) cmds.add("reload");
             return filter(cmds, args[0]);
@@ -162,7 +176,19 @@ public class BSLibPlugin extends JavaPlugin {
             return filter(names, args[1]);
         }
         if (args.length == 2 && args[0].equalsIgnoreCase("inspect")) {
-            return filter(List.of("gui", "reactive", "services"), args[1]);
+            return filter(List.of("gui", "reactive", "leaks", "services", "state"), args[1]);
+        }
+        if (args.length == 3 && args[0].equalsIgnoreCase("inspect") && args[1].equalsIgnoreCase("leaks")) {
+            return filter(List.of("on", "off"), args[2]);
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("state")) {
+            return filter(List.of("convert", "migrate"), args[1]);
+        }
+        if (args.length == 3 && args[0].equalsIgnoreCase("state")) {
+            return filter(States.registeredTypes().stream().map(Class::getSimpleName).toList(), args[2]);
+        }
+        if (args.length == 4 && args[0].equalsIgnoreCase("state") && args[1].equalsIgnoreCase("convert")) {
+            return filter(Arrays.stream(State.Backend.values()).map(Enum::name).toList(), args[3]);
         }
         if (args.length == 3 && args[0].equalsIgnoreCase("reload") && args[1].equalsIgnoreCase("hard")) {
             List<String> names = new ArrayList<>();
@@ -186,12 +212,14 @@ public class BSLibPlugin extends JavaPlugin {
         sender.sendMessage("");
         sender.sendMessage("§e/bslib debug §7— system report (memory, TPS, plugins)");
         sender.sendMessage("§e/bslib doctor §7— deep framework diagnostics");
-        sender.sendMessage("§e/bslib inspect <gui|reactive|services> §7— targeted diagnostics");
+        sender.sendMessage("§e/bslib inspect <gui|reactive|leaks|services|state> §7— targeted diagnostics");
         sender.sendMessage("§e/bslib dev §7— toggle GUI inspector mode");
         sender.sendMessage("§e/bslib reload <plugin> §7— live reload a plugin");
         sender.sendMessage("§e/bslib reload hard <plugin> §7— full re-register reload");
         sender.sendMessage("§e/bslib plugins §7— list all FrameworkPlugin plugins");
         sender.sendMessage("§e/bslib modules §7— list all active Paper modules");
+        sender.sendMessage("§e/bslib state convert <type> <backend> §7— migrate state data from an old backend");
+        sender.sendMessage("§e/bslib state migrate <type> §7— upgrade all stored records to the current version");
     }
 
     private void handleDebug(CommandSender sender) {
@@ -230,23 +258,154 @@ public class BSLibPlugin extends JavaPlugin {
             return;
         }
         if (args.length == 0) {
-            sender.sendMessage("§cUsage: /bslib inspect <gui|reactive|services>");
+            sender.sendMessage("§cUsage: /bslib inspect <gui|reactive|leaks [on|off]|services|state>");
             return;
         }
         switch (args[0].toLowerCase()) {
-            case "gui" -> sender.sendMessage("§eGUI avg render: §f" + String.format("%.3fms", GuiInspector.averageRenderMillis()));
+            case "gui" -> {
+                sender.sendMessage("§eGUI avg render: §f" + String.format("%.3fms", GuiInspector.averageRenderMillis()));
+                MenuRefresher.Stats r = guiManager.refreshStats();
+                sender.sendMessage("§eMenu refresh: §f" + r.polledViews() + " §7polled, §f" + r.queuedViews() +
+                        " §7queued, §f" + r.viewRefreshes() + " §7refreshes in §f" + r.busyTicks() + " §7ticks");
+                sender.sendMessage("  §7tick last/avg/max §f" +
+                        String.format("%.3f/%.3f/%.3fms", r.lastTickMillis(), r.avgTickMillis(), r.maxTickMillis()));
+                MenuItemCache.Stats items = MenuItemCache.stats();
+                sender.sendMessage("§eItem cache: §f" + items.size() + "/" + items.maxSize() +
+                        " §7hit rate §f" + String.format("%.1f%%", items.hitRate() * 100) +
+                        " §7evicted §f" + items.evictions());
+            }
             case "reactive" -> {
                 sender.sendMessage("§eReactive players: §f" + ReactiveBinding.activePlayerCount());
                 sender.sendMessage("§eReactive bindings: §f" + ReactiveBinding.activeBindingCount());
+                sender.sendMessage("§eRender frame: §f" + BindingRenderer.frameTicks() + " ticks §7budget §f" +
+                        String.format("%.1fms/tick", BindingRenderer.tickBudgetMillis()) +
+                        " §7pending §f" + BindingRenderer.pendingCount());
+                sender.sendMessage("§eActionbars: §f" + ReactiveBinding.activeActionBarCount() +
+                        " §7sent §f" + ReactiveBinding.actionBarSentCount() +
+                        " §7resent §f" + ReactiveBinding.actionBarResentCount());
+                Components.Stats text = Components.stats();
+                sender.sendMessage("§eComponent cache: §f" + text.size() + "/" + text.maxSize() +
+                        " §7hit rate §f" + String.format("%.1f%%", text.hitRate() * 100) +
+                        " §7evicted §f" + text.evictions() + " §7templates §f" + text.templates());
+                for (BindingRenderer.Stats s : BindingRenderer.stats()) {
+                    sender.sendMessage("  §7" + s.label() + ": §f" + s.bindings() + " §7bindings, renders §f" + s.renders() +
+                            " §7coalesced §f" + s.coalesced() +
+                            " §7avg/max §f" + String.format("%.0f/%.0fµs", s.avgMicros(), s.maxMicros()));
+                }
             }
+            case "leaks" -> handleInspectLeaks(sender, args);
             case "services" -> {
                 sender.sendMessage("§eServices: §f" + Services.registeredCount() + " §7(lazy: " + Services.lazyCount() + ")");
                 sender.sendMessage("§7Keys: §f" + Services.serviceKeys());
             }
+            case "state" -> {
+                sender.sendMessage("§eState types: §f" + States.registeredTypes().size());
+                for (Class<?> type : States.registeredTypes()) {
+                    StateWriteQueue.Stats s = States.writeStats(type);
+                    StateCache.Stats c = States.cacheStats(type);
+                    sender.sendMessage("  §7" + type.getSimpleName() + ": §fqueue " + s.queueDepth() +
+                            " §7written §f" + s.written() + " §7coalesced §f" + s.coalesced() +
+                            " §7failed §f" + s.failed());
+                    sender.sendMessage("    §7flush avg/max §f" + String.format("%.2f/%.2fms", s.avgFlushMillis(), s.maxFlushMillis()) +
+                            " §7latency avg/max §f" + String.format("%.0f/%.0fms", s.avgLatencyMillis(), s.maxLatencyMillis()));
+                    sender.sendMessage("    §7cache §f" + c.size() + " §7(pinned " + c.pinned() + ", weight " + c.weight() +
+                            ") §7hits §f" + c.hits() + " §7misses §f" + c.misses() + " §7evicted §f" + c.evictions());
+                }
+            }
             default -> sender.sendMessage("§cUnknown inspect target: " + args[0]);
         }
     }
 
+    private void handleInspectLeaks(CommandSender sender, String[] args) {
+        if (args.length >= 2) {
+            boolean on = args[1].equalsIgnoreCase("on");
+            if (on) ReactiveLeaks.enable();
+            else ReactiveLeaks.disable();
+            sender.sendMessage("§eSubscription tracking: " + (on ? "§aon" : "§coff"));
+            return;
+        }
+        if (!ReactiveLeaks.isEnabled()) {
+            sender.sendMessage("§7Subscription tracking is off. §e/bslib inspect leaks on");
+            return;
+        }
+        sender.sendMessage("§eTracked subscriptions: §f" + ReactiveLeaks.trackedCount());
+        List<ReactiveLeaks.SourceReport> graph = ReactiveLeaks.graph();
+        for (ReactiveLeaks.SourceReport source : graph.subList(0, Math.min(10, graph.size()))) {
+            sender.sendMessage("  §7" + source.source() + ": §f" + source.listeners() + " §7listeners");
+            source.sites().entrySet().stream().limit(3).forEach(site ->
+                    sender.sendMessage("    §8" + site.getValue() + "× §7" + site.getKey()));
+        }
+        List<ReactiveLeaks.Leak> leaks = ReactiveLeaks.offlineOwned();
+        sender.sendMessage((leaks.isEmpty() ? "§a" : "§c") + "Owned by offline players: §f" + leaks.size());
+        for (ReactiveLeaks.Leak leak : leaks.subList(0, Math.min(10, leaks.size()))) {
+            sender.sendMessage("  §7" + leak.source() + " §8← §7" + leak.site() + " §8(" + leak.owner() +
+                    ", " + leak.ageMillis() / 1000 + "s)");
+        }
+    }
+
+    private void handleState(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("bslib.debug")) {
+            sender.sendMessage("§cNo permission.");
+            return;
+        }
+        boolean convert = args.length >= 3 && args[0].equalsIgnoreCase("convert");
+        boolean migrate = args.length >= 2 && args[0].equalsIgnoreCase("migrate");
+        if (!convert && !migrate) {
+            sender.sendMessage("§cUsage: /bslib state convert <type> <YAML|JSON|BINARY|LOG>");
+            sender.sendMessage("§cUsage: /bslib state migrate <type>");
+            return;
+        }
+        Class<?> type = States.registeredTypes().stream()
+                .filter(t -> t.getSimpleName().equalsIgnoreCase(args[1]) || t.getName().equals(args[1]))
+                .findFirst().orElse(null);
+        if (type == null) {
+            sender.sendMessage("§cUnknown state type: " + args[1]);
+            return;
+        }
+        if (migrate) {
+            handleStateMigrate(sender, type);
+            return;
+        }
+        State.Backend from;
+        try {
+            from = State.Backend.valueOf(args[2].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage("§cUnknown backend: " + args[2]);
+            return;
+        }
+
+        sender.sendMessage("§7Converting §f" + type.getSimpleName() + " §7from §f" + from + "§7...");
+        Tasks.async().run(() -> {
+            try {
+                int converted = States.convert(type, from);
+                Tasks.sync().run(() -> sender.sendMessage("§aConverted " + converted + " entries of " + type.getSimpleName() + "."));
+            } catch (RuntimeException e) {
+                getLogger().log(Level.WARNING, "State conversion failed for " + type.getName(), e);
+                Tasks.sync().run(() -> sender.sendMessage("§cConversion failed: " + e.getMessage()));
+            }
+        });
+    }
+
+    private void handleStateMigrate(CommandSender sender, Class<?> type) {
+        sender.sendMessage("§7Migrating stored §f" + type.getSimpleName() + " §7records...");
+        AtomicInteger reportedTenth = new AtomicInteger();
+        States.migrateAll(type, progress -> {
+            // Report every 10%, not every callback
+            int tenth = progress.total() == 0 ? 10 : (int) (progress.scanned() * 10L / progress.total());
+            if (progress.done() || tenth <= reportedTenth.getAndAccumulate(tenth, Math::max)) return;
+            Tasks.sync().run(() -> sender.sendMessage("§7  " + tenth * 10 + "% §8(" + progress.scanned() + "/" +
+                    progress.total() + ", " + progress.migrated() + " migrated)"));
+        }).whenComplete((done, error) -> Tasks.sync().run(() -> {
+            if (error != null) {
+                getLogger().log(Level.WARNING, "State migration failed for " + type.getName(), error);
+                sender.sendMessage("§cMigration failed: " + error.getMessage());
+            } else {
+                sender.sendMessage("§aMigrated " + done.migrated() + " of " + done.total() + " " + type.getSimpleName() +
+                        " records" + (done.failed() > 0 ? " §c(" + done.failed() + " failed, see console)" : "") + "§a.");
+            }
+        }));
+    }
+
     private void handleDev(CommandSender sender) {
         if (!(sender instanceof Player player)) {
             sender.sendMessage("§cPlayers only.");
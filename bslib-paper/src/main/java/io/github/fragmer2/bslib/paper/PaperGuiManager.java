@@ -5,6 +5,8 @@ import io.github.fragmer2.bslib.api.menu.Menu;
 import io.github.fragmer2.bslib.paper.gui.GuiManager;
 import org.bukkit.entity.Player;
 
+import java.util.function.Supplier;
+
 public class PaperGuiManager implements GuiManagerProvider.GuiManager {
     private final GuiManager realManager;
 
@@ -22,6 +24,11 @@ public class PaperGuiManager implements GuiManagerProvider.GuiManager {
         realManager.openMenu(player, menu, addToHistory);
     }
 
+    @Override
+    public void openMenu(Player player, Supplier<? extends Menu> factory, boolean addToHistory) {
+        realManager.openMenu(player, factory, addToHistory);
+    }
+
     @Override
     public void closeMenu(Player player) {
         realManager.closeMenu(player);
@@ -9,10 +9,10 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.*;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Central GUI manager that handles menu lifecycle, event routing, and refresh polling.
@@ -20,50 +20,39 @@ import java.util.concurrent.ConcurrentHashMap;
  * Responsibilities:
  * - Tracks all open menu views per player
  * - Handles inventory click/drag/close events and routes them to the correct menu
- * - Polls reactive menus and dynamic buttons for updates every 2 ticks
- * - Manages menu navigation history (back button support)
+ * - Refreshes views through {@link MenuRefresher}: on reactive changes, and by
+ *   polling only views with animations or unbound dynamic buttons
+ * - Manages menu navigation history (back button support); history keeps menu
+ *   factories, and a menu of the same size replaces the current one inside
+ *   the open window instead of closing and reopening it
  * - Cleans up resources on player quit
  */
 public class GuiManager implements Listener {
     private final Map<UUID, MenuViewImpl> openViews = new ConcurrentHashMap<>();
-    private final Map<UUID, Deque<Menu>> history = new ConcurrentHashMap<>();
+    private final Map<UUID, Deque<Supplier<? extends Menu>>> history = new ConcurrentHashMap<>();
     private final Set<UUID> skipCloseEvent = ConcurrentHashMap.newKeySet();
-    private BukkitTask refreshTask;
+    private MenuRefresher refresher;
     private JavaPlugin plugin;
 
     public void register(JavaPlugin plugin) {
         this.plugin = plugin;
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
-        startRefreshTask(plugin);
-    }
-
-    private void startRefreshTask(JavaPlugin plugin) {
-        refreshTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            // Iterate over a snapshot to avoid ConcurrentModificationException
-            for (MenuViewImpl view : new ArrayList<>(openViews.values())) {
-                try {
-                    // Check DeclarativeMenu bindings → full re-render if changed
-                    if (io.github.fragmer2.bslib.api.menu.ReactiveMenu.isDeclarative(view.getMenu())) {
-                        if (io.github.fragmer2.bslib.api.menu.ReactiveMenu.checkRerender(view.getMenu())) {
-                            view.render(); // full re-render (buttons changed)
-                        }
-                    }
-                    view.refreshDynamicSlots();
-                    view.tickAnimations();
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Error refreshing menu for " +
-                            view.getPlayer().getName() + ": " + e.getMessage());
-                }
-            }
-        }, 2L, 2L);
+        refresher = new MenuRefresher(plugin);
+        refresher.start();
+    }
+
+    /** Menu refresh metrics (queued/polled views, per-tick refresh time). */
+    public MenuRefresher.Stats refreshStats() {
+        return refresher.stats();
     }
 
     public void cancel() {
-        if (refreshTask != null) refreshTask.cancel();
+        if (refresher != null) refresher.cancel();
         // Close all open menus on shutdown
         for (Map.Entry<UUID, MenuViewImpl> entry : openViews.entrySet()) {
             try {
                 MenuViewImpl view = entry.getValue();
+                view.detach();
                 view.getMenu().onClose(view);
                 view.close();
             } catch (Exception ignored) {}
@@ -78,38 +67,62 @@ public class GuiManager implements Listener {
     }
 
     public void openMenu(Player player, Menu menu, boolean addToHistory) {
+        openMenu(player, menu, () -> menu, addToHistory);
+    }
+
+    /** Open the menu built by {@code factory}; history keeps the factory, not the menu. */
+    public void openMenu(Player player, Supplier<? extends Menu> factory, boolean addToHistory) {
+        openMenu(player, factory.get(), factory, addToHistory);
+    }
+
+    private void openMenu(Player player, Menu menu, Supplier<? extends Menu> factory, boolean addToHistory) {
         UUID uuid = player.getUniqueId();
 
         if (addToHistory) {
             MenuViewImpl current = openViews.get(uuid);
             if (current != null) {
-                history.computeIfAbsent(uuid, k -> new ArrayDeque<>()).push(current.getMenu());
+                history.computeIfAbsent(uuid, k -> new ArrayDeque<>()).push(current.getFactory());
             }
         }
 
-        closeViewSilently(player);
-
-        MenuViewImpl view = new MenuViewImpl(player, menu);
-        openViews.put(uuid, view);
-        view.open();
-        menu.onOpen(view);
+        show(player, menu, factory);
     }
 
     public void back(Player player) {
         UUID uuid = player.getUniqueId();
-        Deque<Menu> stack = history.get(uuid);
+        Deque<Supplier<? extends Menu>> stack = history.get(uuid);
         if (stack != null && !stack.isEmpty()) {
-            Menu previous = stack.pop();
-            closeViewSilently(player);
-            MenuViewImpl view = new MenuViewImpl(player, previous);
-            openViews.put(uuid, view);
-            view.open();
-            previous.onOpen(view);
+            Supplier<? extends Menu> previous = stack.pop();
+            show(player, previous.get(), previous);
         } else {
             closeMenu(player);
         }
     }
 
+    /**
+     * Replace the player's current menu with {@code menu}: inside the open
+     * window when the sizes match (no close/open packets, the cursor stays
+     * put), otherwise by closing it and opening a new window.
+     */
+    private void show(Player player, Menu menu, Supplier<? extends Menu> factory) {
+        UUID uuid = player.getUniqueId();
+        MenuViewImpl current = openViews.get(uuid);
+        MenuViewImpl view;
+        if (current != null && current.canTakeOver(menu)) {
+            openViews.remove(uuid);
+            current.detach();
+            current.getMenu().onClose(current);
+            view = new MenuViewImpl(player, menu, factory, current);
+        } else {
+            closeViewSilently(player);
+            view = new MenuViewImpl(player, menu, factory);
+        }
+        openViews.put(uuid, view);
+        view.open();
+        menu.onOpen(view);
+        view.attach(refresher);
+    }
+
     public Menu getCurrentMenu(Player player) {
         MenuViewImpl view = openViews.get(player.getUniqueId());
         return view != null ? view.getMenu() : null;
@@ -125,6 +138,7 @@ public class GuiManager implements Listener {
         MenuViewImpl view = openViews.remove(uuid);
         if (view != null) {
             skipCloseEvent.add(uuid);
+            view.detach();
             view.getMenu().onClose(view);
             view.close();
             Bukkit.getScheduler().runTask(plugin, () -> skipCloseEvent.remove(uuid));
@@ -137,6 +151,8 @@ public class GuiManager implements Listener {
         MenuViewImpl view = openViews.remove(uuid);
         if (view != null) {
             skipCloseEvent.add(uuid);
+            view.detach();
+            view.getMenu().onClose(view);
             player.closeInventory();
             Bukkit.getScheduler().runTaskLater(plugin, () -> skipCloseEvent.remove(uuid), 1L);
         }
@@ -213,6 +229,7 @@ public class GuiManager implements Listener {
 
         MenuViewImpl view = openViews.remove(uuid);
         if (view != null) {
+            view.detach();
             view.getMenu().onClose(view);
         }
         history.remove(uuid);
@@ -228,6 +245,7 @@ public class GuiManager implements Listener {
         MenuViewImpl view = openViews.remove(uuid);
         if (view != null) {
             try {
+                view.detach();
                 view.getMenu().onClose(view);
             } catch (Exception ignored) {}
         }
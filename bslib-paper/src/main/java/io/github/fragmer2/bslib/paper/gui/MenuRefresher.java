@@ -0,0 +1,141 @@
+package io.github.fragmer2.bslib.paper.gui;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Refresh scheduler for open menu views.
+ *
+ * Views register only for the work they have:
+ * - Reactive changes (bound Reactive/ReactiveList/ReactiveMap buttons,
+ *   ReactiveMenu bindings and list sections) enqueue the view; it is refreshed
+ *   on the next tick, once, however many changes arrived.
+ * - Views with animations, unbound dynamic buttons or Supplier bindings are
+ *   polled every {@link #POLL_TICKS} ticks, as before.
+ * - Fully static views are not registered at all.
+ *
+ * A tick with nothing queued and nothing to poll does no work.
+ */
+public final class MenuRefresher {
+    static final long POLL_TICKS = 2L;
+
+    private final Set<MenuViewImpl> polled = ConcurrentHashMap.newKeySet();
+    private final Set<MenuViewImpl> queued = ConcurrentHashMap.newKeySet();
+    private final JavaPlugin plugin;
+    private BukkitTask task;
+    private long tick;
+
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final AtomicLong nanosTotal = new AtomicLong();
+    private final AtomicLong nanosMax = new AtomicLong();
+    private volatile long nanosLast;
+
+    /**
+     * Refresh metrics.
+     *
+     * @param polledViews    views polled every {@link #POLL_TICKS} ticks
+     * @param queuedViews    views waiting for the next tick
+     * @param busyTicks      ticks that refreshed at least one view
+     * @param viewRefreshes  view refreshes performed
+     * @param lastTickMillis refresh time of the last busy tick
+     * @param avgTickMillis  average refresh time per busy tick
+     * @param maxTickMillis  slowest tick
+     */
+    public record Stats(int polledViews, int queuedViews, long busyTicks, long viewRefreshes,
+                        double lastTickMillis, double avgTickMillis, double maxTickMillis) {}
+
+    MenuRefresher(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    void start() {
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    void cancel() {
+        if (task != null) task.cancel();
+        polled.clear();
+        queued.clear();
+    }
+
+    // ========== Registration ==========
+
+    /** Poll this view every {@link #POLL_TICKS} ticks (or stop, if it no longer needs it). */
+    void poll(MenuViewImpl view, boolean needsPolling) {
+        if (needsPolling) polled.add(view);
+        else polled.remove(view);
+    }
+
+    /** Refresh this view on the next tick. Safe from any thread. */
+    void enqueue(MenuViewImpl view) {
+        queued.add(view);
+    }
+
+    void remove(MenuViewImpl view) {
+        polled.remove(view);
+        queued.remove(view);
+    }
+
+    // ========== Tick ==========
+
+    private void tick() {
+        boolean pollTick = ++tick % POLL_TICKS == 0;
+        if (queued.isEmpty() && (!pollTick || polled.isEmpty())) return;
+
+        long start = System.nanoTime();
+        int refreshed = 0;
+        // Dequeue before refreshing, so a change arriving meanwhile queues the view again
+        for (Iterator<MenuViewImpl> it = queued.iterator(); it.hasNext(); ) {
+            MenuViewImpl view = it.next();
+            it.remove();
+            refreshed += refresh(view, false);
+        }
+        if (pollTick) {
+            for (MenuViewImpl view : polled) {
+                refreshed += refresh(view, true);
+            }
+        }
+        if (refreshed == 0) return;
+
+        long took = System.nanoTime() - start;
+        ticks.increment();
+        refreshes.add(refreshed);
+        nanosTotal.addAndGet(took);
+        nanosMax.accumulateAndGet(took, Math::max);
+        nanosLast = took;
+    }
+
+    private int refresh(MenuViewImpl view, boolean poll) {
+        try {
+            if (poll) {
+                view.poll();
+                poll(view, view.needsPolling());   // e.g. its last animation finished
+            } else {
+                view.refreshPending();
+            }
+            return 1;
+        } catch (Exception e) {
+            plugin.getLogger().warning("Error refreshing menu for " +
+                    view.getPlayer().getName() + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // ========== Metrics ==========
+
+    public Stats stats() {
+        long busy = ticks.sum();
+        return new Stats(polled.size(), queued.size(), busy, refreshes.sum(),
+                nanosLast / 1_000_000.0,
+                busy > 0 ? nanosTotal.get() / 1_000_000.0 / busy : 0,
+                nanosMax.get() / 1_000_000.0);
+    }
+}
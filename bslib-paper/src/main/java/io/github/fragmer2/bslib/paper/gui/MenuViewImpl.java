@@ -6,6 +6,8 @@ import io.github.fragmer2.bslib.api.button.Button;
 import io.github.fragmer2.bslib.api.button.ClickContext;
 import io.github.fragmer2.bslib.api.menu.Menu;
 import io.github.fragmer2.bslib.api.menu.MenuView;
+import io.github.fragmer2.bslib.api.menu.ReactiveMenu;
+import io.github.fragmer2.bslib.api.reactive.Subscription;
 import io.github.fragmer2.bslib.paper.BSLibPlugin;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -15,6 +17,8 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Concrete implementation of {@link MenuView} for Paper servers.
@@ -24,16 +28,28 @@ import java.util.*;
  * - Rendering buttons into ItemStacks
  * - Diffing rendered items to avoid unnecessary inventory updates
  * - Slot-level animations with frame timing
+ * - Subscriptions to its buttons' bound values, for {@link MenuRefresher}
  * - Per-view state storage (key-value pairs)
+ *
+ * A view can take over the inventory of the view before it (same size), so
+ * navigating between menus updates the open window instead of reopening it.
  */
 public class MenuViewImpl implements MenuView {
     private final Player player;
     private final Menu menu;
+    private final Supplier<? extends Menu> factory;
     private final Inventory inventory;
+    private final String shownTitle;   // title of the open window when taken over, else null
     private final Map<String, Object> state = new HashMap<>();
     private BukkitTask updateTask;
     private final Map<Integer, ItemStack> lastRendered = new HashMap<>();
     private final Map<Integer, AnimationState> animStates = new HashMap<>();
+    private final Set<Integer> dirtySlots = ConcurrentHashMap.newKeySet();
+    private final List<Subscription> watches = new ArrayList<>();
+    private MenuRefresher refresher;
+    private Subscription menuWatch;
+    private volatile boolean rerenderPending;
+    private boolean pollButtons;
 
     private static class AnimationState {
         Animation anim;
@@ -42,48 +58,146 @@ public class MenuViewImpl implements MenuView {
     }
 
     public MenuViewImpl(Player player, Menu menu) {
+        this(player, menu, () -> menu);
+    }
+
+    /** {@code factory} builds {@code menu} again when navigation returns to it. */
+    public MenuViewImpl(Player player, Menu menu, Supplier<? extends Menu> factory) {
         this.player = player;
         this.menu = menu;
+        this.factory = factory;
         this.inventory = Bukkit.createInventory(null, menu.getRows() * 9, menu.getTitle());
+        this.shownTitle = null;
+    }
+
+    /**
+     * Show {@code menu} in {@code previous}'s open window: {@link #open()} then
+     * retitles it if needed and writes only the slots that differ. The previous
+     * view must be detached and must pass {@link #canTakeOver}.
+     */
+    MenuViewImpl(Player player, Menu menu, Supplier<? extends Menu> factory, MenuViewImpl previous) {
+        this.player = player;
+        this.menu = menu;
+        this.factory = factory;
+        this.inventory = previous.inventory;
+        this.shownTitle = previous.menu.getTitle();
+        this.lastRendered.putAll(previous.lastRendered);
+        previous.stopAnimations();
+    }
+
+    /** True if {@code next} fits this view's window and the player still has it open. */
+    boolean canTakeOver(Menu next) {
+        return inventory.getSize() == next.getRows() * 9
+                && player.getOpenInventory().getTopInventory() == inventory;
     }
 
     public Menu getMenu() {
         return menu;
     }
 
+    /** Builds this view's menu again, for navigation history. */
+    Supplier<? extends Menu> getFactory() {
+        return factory;
+    }
+
+    // ========== Refresh scheduling ==========
+
     /**
-     * Refresh only dynamic and reactive button slots.
-     * Uses item diffing to avoid unnecessary inventory updates.
+     * Subscribe to everything that can change this view and register with the
+     * refresher only for the work it needs. Called once the view is open.
      */
-    public void refreshDynamicSlots() {
-        String menuClass = menu.getClass().getSimpleName();
+    void attach(MenuRefresher refresher) {
+        this.refresher = refresher;
+        menuWatch = ReactiveMenu.watch(menu, () -> {
+            rerenderPending = true;
+            refresher.enqueue(this);
+        });
+        watchButtons();
+        refresher.poll(this, needsPolling());
+    }
+
+    /** Unsubscribe and leave the refresher. Called when the view goes away. */
+    void detach() {
+        if (menuWatch != null) {
+            menuWatch.unsubscribe();
+            menuWatch = null;
+        }
+        unwatchButtons();
+        if (refresher != null) refresher.remove(this);
+    }
+
+    private void watchButtons() {
+        pollButtons = false;
         menu.getButtons().forEach((slot, button) -> {
-            // Static buttons: never refresh
-            if (!button.isDynamic() && !button.isReactive()) return;
+            Subscription watch = button.watch(() -> {
+                dirtySlots.add(slot);
+                refresher.enqueue(this);
+            });
+            if (watch != null) watches.add(watch);
+            pollButtons |= button.needsPolling();
+        });
+    }
 
-            // Reactive buttons: only refresh when watched value changed
-            if (button.isReactive() && !button.hasValueChanged()) return;
+    private void unwatchButtons() {
+        watches.forEach(Subscription::unsubscribe);
+        watches.clear();
+        dirtySlots.clear();
+    }
 
-            // Re-render with timing
-            long start = System.nanoTime();
-            ItemStack newItem = button.render(this);
-            long elapsed = System.nanoTime() - start;
+    /** True while this view has something to check every poll: animations or unwatchable buttons. */
+    boolean needsPolling() {
+        return pollButtons || !animStates.isEmpty();
+    }
 
-            // Track for GUI Inspector
-            io.github.fragmer2.bslib.api.debug.GuiInspector.recordRender(menuClass, slot, elapsed);
+    /** Apply queued changes: a full re-render for ReactiveMenu bindings, else just the changed slots. */
+    void refreshPending() {
+        if (rerenderPending) {
+            rerenderPending = false;
+            ReactiveMenu.checkRerender(menu);
+            update();
+            return;
+        }
+        String menuClass = menu.getClass().getSimpleName();
+        for (Iterator<Integer> it = dirtySlots.iterator(); it.hasNext(); ) {
+            int slot = it.next();
+            it.remove();
+            Button button = menu.getButtons().get(slot);
+            if (button != null) renderSlot(menuClass, slot, button);
+        }
+    }
 
-            ItemStack oldItem = lastRendered.get(slot);
-            if (!itemsEqual(newItem, oldItem)) {
-                inventory.setItem(slot, newItem);
-                lastRendered.put(slot, newItem);
-            }
-        });
+    /** Periodic check of what cannot notify: unbound dynamic buttons, Supplier bindings, animations. */
+    void poll() {
+        if (pollButtons) {
+            String menuClass = menu.getClass().getSimpleName();
+            menu.getButtons().forEach((slot, button) -> {
+                if (!button.needsPolling()) return;
+                if (button.isReactive() && !button.hasValueChanged()) return;
+                renderSlot(menuClass, slot, button);
+            });
+        }
+        tickAnimations();
+    }
+
+    private void renderSlot(String menuClass, int slot, Button button) {
+        long start = System.nanoTime();
+        ItemStack newItem = button.render(this);
+        long elapsed = System.nanoTime() - start;
+
+        // Track for GUI Inspector
+        io.github.fragmer2.bslib.api.debug.GuiInspector.recordRender(menuClass, slot, elapsed);
+
+        ItemStack oldItem = lastRendered.get(slot);
+        if (!itemsEqual(newItem, oldItem)) {
+            inventory.setItem(slot, newItem);
+            lastRendered.put(slot, newItem);
+        }
     }
 
     private boolean itemsEqual(ItemStack a, ItemStack b) {
         if (a == b) return true;
         if (a == null || b == null) return false;
-        return a.isSimilar(b);
+        return a.getAmount() == b.getAmount() && a.isSimilar(b);
     }
 
     public void startAnimation(int slot, Animation anim) {
@@ -119,6 +233,7 @@ public class MenuViewImpl implements MenuView {
                 state.currentFrame = nextFrame;
                 Frame frame = frames.get(state.currentFrame);
                 inventory.setItem(slot, frame.getItem());
+                lastRendered.put(slot, frame.getItem()); // keep the diff (and a take-over) in step with the window
                 state.nextUpdate = now + frame.getDuration() * 50;
             }
         }
@@ -134,7 +249,11 @@ public class MenuViewImpl implements MenuView {
 
     public void open() {
         render();
-        player.openInventory(inventory);
+        if (shownTitle == null) {
+            player.openInventory(inventory);
+        } else if (!shownTitle.equals(menu.getTitle())) {
+            player.getOpenInventory().setTitle(menu.getTitle());
+        }
         // Start animations for buttons that have them
         menu.getButtons().forEach((slot, button) -> {
             if (button.getAnimation() != null) {
@@ -144,20 +263,39 @@ public class MenuViewImpl implements MenuView {
     }
 
     /**
-     * Full render: clears the inventory and re-renders all buttons.
+     * Full render: re-renders all buttons, then writes only the slots whose
+     * item differs from what was last written, and empties slots that lost
+     * their button. Unchanged slots send nothing to the client.
      */
     public void render() {
-        inventory.clear();
-        lastRendered.clear();
+        Map<Integer, ItemStack> next = new HashMap<>();
         menu.getButtons().forEach((slot, button) -> {
             ItemStack item = button.render(this);
-            inventory.setItem(slot, item);
-            lastRendered.put(slot, item);
+            next.put(slot, item);
+            // Players may take items from non-cancelling buttons, so what was written is not known to be there
+            if (!button.shouldCancel() || !itemsEqual(item, lastRendered.get(slot))) {
+                inventory.setItem(slot, item);
+            }
         });
+        for (Integer slot : lastRendered.keySet()) {
+            if (!next.containsKey(slot)) inventory.setItem(slot, null);
+        }
+        lastRendered.clear();
+        lastRendered.putAll(next);
     }
 
+    /** Full render; the buttons may have been replaced, so their bindings are watched afresh. */
     @Override
-    public void update() { render(); }
+    public void update() {
+        if (refresher == null) {
+            render();
+            return;
+        }
+        unwatchButtons();
+        render();
+        watchButtons();
+        refresher.poll(this, needsPolling());
+    }
 
     public void handleClick(int slot, InventoryClickEvent event) {
         Button button = menu.getButtons().get(slot);